@@ -0,0 +1,142 @@
+package com.projedata.inventory.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulkheads in front of the controllers: each endpoint class gets its own concurrency limit, so a burst
+ * of reports or listings cannot take the threads and connections that stock writes from the line need.
+ * A request over its class's limit waits in a short queue, on its servlet thread; when the queue is full
+ * it is rejected at once with 429, and when it waits too long with 503, both with {@code Retry-After}.
+ * <p>
+ * Metrics: {@code inventory.admission.limit}, {@code .in.flight} and {@code .queued} gauges,
+ * {@code inventory.admission.rejected} (tagged by status) and the {@code inventory.admission.wait} timer,
+ * all tagged by endpoint class.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    public enum EndpointClass { STOCK, REPORTS, LISTINGS, OTHER }
+
+    private static final Set<String> COLLECTIONS = Set.of("/products", "/raw-materials", "/product-materials", "/warehouses",
+            "/deliveries");
+
+    private final Map<EndpointClass, Bulkhead> bulkheads = new EnumMap<>(EndpointClass.class);
+    private final int retryAfterSeconds;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionControlFilter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        bulkheads.put(EndpointClass.STOCK, new Bulkhead(properties.getStock()));
+        bulkheads.put(EndpointClass.REPORTS, new Bulkhead(properties.getReports()));
+        bulkheads.put(EndpointClass.LISTINGS, new Bulkhead(properties.getListings()));
+        bulkheads.put(EndpointClass.OTHER, new Bulkhead(properties.getOther()));
+        this.retryAfterSeconds = properties.getRetryAfterSeconds();
+        this.meterRegistry = meterRegistry;
+
+        if (meterRegistry != null) {
+            bulkheads.forEach((endpointClass, bulkhead) -> {
+                String tag = endpointClass.name().toLowerCase();
+                meterRegistry.gauge("inventory.admission.limit", Tags.of("class", tag),
+                        bulkhead, Bulkhead::limit);
+                meterRegistry.gauge("inventory.admission.in.flight", Tags.of("class", tag),
+                        bulkhead, Bulkhead::inFlight);
+                meterRegistry.gauge("inventory.admission.queued", Tags.of("class", tag),
+                        bulkhead, Bulkhead::queued);
+            });
+        }
+    }
+
+    /**
+     * Stock writes, {@code /production} reports, full collection listings, or anything else. Raw material
+     * deletes, single or bulk, are catalog maintenance rather than stock writes.
+     */
+    public static EndpointClass classify(String method, String path) {
+        boolean read = method.equals("GET") || method.equals("HEAD");
+        boolean materialWrite = !method.equals("DELETE") && path.startsWith("/raw-materials");
+        if (!read && (materialWrite || path.startsWith("/reservations")
+                || (path.startsWith("/warehouses/") && path.contains("/stock/")))) {
+            return EndpointClass.STOCK;
+        }
+        if (path.startsWith("/production/")) {
+            return EndpointClass.REPORTS;
+        }
+        if (read && COLLECTIONS.contains(path)) {
+            return EndpointClass.LISTINGS;
+        }
+        return EndpointClass.OTHER;
+    }
+
+    public Bulkhead bulkhead(EndpointClass endpointClass) {
+        return bulkheads.get(endpointClass);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return path(request).startsWith("/actuator") || request.getMethod().equals("OPTIONS");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request.getMethod(), path(request));
+        Bulkhead bulkhead = bulkheads.get(endpointClass);
+
+        long waitStart = System.nanoTime();
+        Bulkhead.Admission admission = bulkhead.acquire();
+        long admitted = System.nanoTime();
+        if (meterRegistry != null) {
+            Timer.builder("inventory.admission.wait").tag("class", endpointClass.name().toLowerCase())
+                    .register(meterRegistry).record(admitted - waitStart, TimeUnit.NANOSECONDS);
+        }
+        if (admission != Bulkhead.Admission.ADMITTED) {
+            reject(request, response, endpointClass, admission);
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            bulkhead.release(System.nanoTime() - admitted);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, EndpointClass endpointClass,
+                        Bulkhead.Admission admission) throws IOException {
+        HttpStatus status = admission == Bulkhead.Admission.QUEUE_FULL
+                ? HttpStatus.TOO_MANY_REQUESTS
+                : HttpStatus.SERVICE_UNAVAILABLE;
+        if (meterRegistry != null) {
+            meterRegistry.counter("inventory.admission.rejected", "class", endpointClass.name().toLowerCase(),
+                    "status", String.valueOf(status.value())).increment();
+        }
+        log.debug("Rejected {} {} ({}): {}", request.getMethod(), request.getRequestURI(), endpointClass, admission);
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":" + status.value() + ",\"error\":\"" + status.getReasonPhrase()
+                + "\",\"message\":\"Too many " + endpointClass.name().toLowerCase() + " requests in progress\"}");
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
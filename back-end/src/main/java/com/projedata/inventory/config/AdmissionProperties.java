@@ -0,0 +1,178 @@
+package com.projedata.inventory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Concurrency limits per endpoint class, configured under {@code inventory.admission}. Queued requests
+ * wait on a servlet thread, so the limits and queues of all classes together must fit in the server's
+ * request threads; the defaults need 196 of Tomcat's default 200.
+ */
+@ConfigurationProperties(prefix = "inventory.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    /** Sent as {@code Retry-After} on rejected requests. */
+    private int retryAfterSeconds = 1;
+
+    /** Stock and reservation writes from the line: a fixed share that reports cannot take. */
+    private Limits stock = new Limits(32, 8, 32, 32, 2000, false);
+
+    /** Production planning and analysis under {@code /production}. */
+    private Limits reports = new Limits(2, 1, 4, 8, 500, true);
+
+    /** Full collection listings. */
+    private Limits listings = new Limits(8, 2, 24, 24, 1000, true);
+
+    /** Everything else, e.g. single-entity CRUD. */
+    private Limits other = new Limits(32, 8, 48, 24, 1000, false);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Limits getStock() {
+        return stock;
+    }
+
+    public void setStock(Limits stock) {
+        this.stock = stock;
+    }
+
+    public Limits getReports() {
+        return reports;
+    }
+
+    public void setReports(Limits reports) {
+        this.reports = reports;
+    }
+
+    public Limits getListings() {
+        return listings;
+    }
+
+    public void setListings(Limits listings) {
+        this.listings = listings;
+    }
+
+    public Limits getOther() {
+        return other;
+    }
+
+    public void setOther(Limits other) {
+        this.other = other;
+    }
+
+    /**
+     * Request threads all classes can hold at once: their maximum limits plus their queues.
+     */
+    public int threadsRequired() {
+        return stock.threads() + reports.threads() + listings.threads() + other.threads();
+    }
+
+    /**
+     * Fails when the classes could hold more than {@code maxThreads} request threads together, as
+     * reports and listings could then take the threads that stock writes need.
+     */
+    public void checkThreads(int maxThreads) {
+        int required = threadsRequired();
+        if (required > maxThreads) {
+            throw new IllegalStateException("inventory.admission limits and queues can hold " + required
+                    + " request threads, more than server.tomcat.threads.max=" + maxThreads
+                    + "; lower the max-limit or queue-capacity of the reports, listings or other class");
+        }
+    }
+
+    public static class Limits {
+
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+
+        /** Requests allowed to wait for a slot; beyond that they are rejected with 429. */
+        private int queueCapacity;
+
+        /** Longest a request waits for a slot before it is rejected with 503. */
+        private long maxWaitMillis;
+
+        /** Adjust the limit between min and max from observed latency; otherwise it stays at the initial limit. */
+        private boolean adaptive;
+
+        public Limits() {
+        }
+
+        public Limits(int initialLimit, int minLimit, int maxLimit, int queueCapacity, long maxWaitMillis,
+                      boolean adaptive) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.queueCapacity = queueCapacity;
+            this.maxWaitMillis = maxWaitMillis;
+            this.adaptive = adaptive;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public long getMaxWaitMillis() {
+            return maxWaitMillis;
+        }
+
+        public void setMaxWaitMillis(long maxWaitMillis) {
+            this.maxWaitMillis = maxWaitMillis;
+        }
+
+        int threads() {
+            return Math.max(minLimit, maxLimit) + queueCapacity;
+        }
+
+        public boolean isAdaptive() {
+            return adaptive;
+        }
+
+        public void setAdaptive(boolean adaptive) {
+            this.adaptive = adaptive;
+        }
+    }
+}
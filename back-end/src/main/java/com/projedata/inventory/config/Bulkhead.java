@@ -0,0 +1,147 @@
+package com.projedata.inventory.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit for one endpoint class, with a bounded wait queue. When adaptive, the limit follows
+ * latency: it backs off while recent latency is well above the long-run baseline (the class, or what it
+ * shares such as the connection pool, is saturated) and creeps up again while requests use every slot
+ * and latency holds.
+ */
+public class Bulkhead {
+
+    public enum Admission { ADMITTED, QUEUE_FULL, TIMED_OUT }
+
+    /** How far recent latency may rise above the baseline before the limit backs off. */
+    private static final double TOLERANCE = 2.0;
+    private static final double BACKOFF = 0.9;
+    private static final double RECENT_WEIGHT = 0.2;
+    private static final double BASELINE_WEIGHT = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueCapacity;
+    private final long maxWaitNanos;
+    private final boolean adaptive;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private double recentLatency;
+    private double baselineLatency;
+
+    public Bulkhead(AdmissionProperties.Limits limits) {
+        this.minLimit = Math.max(1, limits.getMinLimit());
+        this.maxLimit = Math.max(minLimit, limits.getMaxLimit());
+        this.queueCapacity = Math.max(0, limits.getQueueCapacity());
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(limits.getMaxWaitMillis());
+        this.adaptive = limits.isAdaptive();
+        this.limit = Math.min(maxLimit, Math.max(minLimit, limits.getInitialLimit()));
+    }
+
+    /**
+     * Takes a slot, waiting in the queue up to the configured time. Every admitted request must
+     * {@linkplain #release(long) release} its slot.
+     */
+    public Admission acquire() {
+        lock.lock();
+        try {
+            if (inFlight < permits()) {
+                inFlight++;
+                return Admission.ADMITTED;
+            }
+            if (queued >= queueCapacity) {
+                return Admission.QUEUE_FULL;
+            }
+            queued++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= permits()) {
+                    if (remaining <= 0) {
+                        return Admission.TIMED_OUT;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                inFlight++;
+                return Admission.ADMITTED;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Admission.TIMED_OUT;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees a slot, feeding the request's latency (from admission to completion) to the limit.
+     */
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            if (adaptive) {
+                sample(latencyNanos, inFlight);
+            }
+            inFlight--;
+            if (queued > 0 && inFlight < permits()) {
+                released.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sample(long latencyNanos, int busy) {
+        if (baselineLatency == 0) {
+            recentLatency = baselineLatency = latencyNanos;
+            return;
+        }
+        recentLatency += (latencyNanos - recentLatency) * RECENT_WEIGHT;
+        baselineLatency += (latencyNanos - baselineLatency) * BASELINE_WEIGHT;
+
+        if (recentLatency > TOLERANCE * baselineLatency) {
+            limit = Math.max(minLimit, limit * BACKOFF);
+        } else if (busy >= permits()) {
+            // About one more slot per round of requests at the current limit
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    private int permits() {
+        return (int) limit;
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return permits();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.projedata.inventory.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Counts Hibernate statements per thread and enforces {@code inventory.query-budget.*} per HTTP request.
+ */
+@Configuration
+public class QueryBudgetConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCounter());
+    }
+
+    @Bean
+    public QueryBudgetFilter queryBudgetFilter(@Value("${inventory.query-budget.max-statements:20}") int maxStatements,
+                                               @Value("${inventory.query-budget.mode:LOG}") QueryBudgetFilter.Mode mode,
+                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        return new QueryBudgetFilter(maxStatements, mode, meterRegistry.getIfAvailable());
+    }
+}
@@ -0,0 +1,75 @@
+package com.projedata.inventory.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements each HTTP request runs, records them as the
+ * {@code inventory.http.queries} distribution (tagged by URI pattern) and handles requests over budget.
+ */
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    public enum Mode {
+        /** Log requests over budget. */
+        LOG,
+        /** Fail the first statement over budget, which fails the request. */
+        REJECT,
+        /** Count nothing. */
+        OFF
+    }
+
+    private final int maxStatements;
+    private final Mode mode;
+    private final MeterRegistry meterRegistry;
+
+    public QueryBudgetFilter(int maxStatements, Mode mode, MeterRegistry meterRegistry) {
+        this.maxStatements = maxStatements;
+        this.mode = mode;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (mode == Mode.OFF) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long start = QueryCounter.current();
+        if (mode == Mode.REJECT) {
+            QueryCounter.limit(maxStatements);
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryCounter.clearLimit();
+            long statements = QueryCounter.current() - start;
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            if (meterRegistry != null) {
+                meterRegistry.summary("inventory.http.queries", "method", request.getMethod(), "uri", uri)
+                        .record(statements);
+            }
+            if (statements > maxStatements) {
+                if (meterRegistry != null) {
+                    meterRegistry.counter("inventory.http.queries.over.budget", "method", request.getMethod(), "uri", uri)
+                            .increment();
+                }
+                log.warn("{} {} ran {} SQL statements, budget is {}", request.getMethod(), request.getRequestURI(),
+                        statements, maxStatements);
+            }
+        }
+    }
+}
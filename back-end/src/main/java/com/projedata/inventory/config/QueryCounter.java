@@ -0,0 +1,41 @@
+package com.projedata.inventory.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread. The count only grows;
+ * callers take {@link #current()} before and after the work they measure. A thread can also
+ * carry a limit, in which case the statement past it fails with {@link QueryBudgetExceededException}.
+ * Statements run through {@code JdbcTemplate} bypass Hibernate and are not counted.
+ */
+public final class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+    private static final ThreadLocal<long[]> LIMIT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        long[] count = COUNT.get();
+        count[0]++;
+        long[] limit = LIMIT.get();
+        if (limit != null && count[0] > limit[0]) {
+            throw new QueryBudgetExceededException("Query budget of " + limit[1] + " statements exceeded");
+        }
+        return sql;
+    }
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    /**
+     * Fails any statement on this thread beyond {@code budget} more, until {@link #clearLimit()}.
+     */
+    public static void limit(long budget) {
+        LIMIT.set(new long[]{current() + budget, budget});
+    }
+
+    public static void clearLimit() {
+        LIMIT.remove();
+    }
+}
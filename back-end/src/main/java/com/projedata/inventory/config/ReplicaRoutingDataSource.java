@@ -0,0 +1,129 @@
+package com.projedata.inventory.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections requested inside read-only transactions to a healthy replica (round robin)
+ * and everything else to the primary. Replicas that fail the lag check are skipped until they catch up;
+ * when none is usable, reads fall back to the primary.
+ *
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the connection is fetched after the transaction has been marked read-only.
+ *
+ * Owns the replica data sources: {@link #close()} closes those that can be closed, but not the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final List<DataSource> replicas;
+    private volatile boolean[] healthy;
+    private final AtomicInteger next = new AtomicInteger();
+    private final long maxLagMillis;
+    private final String lagQuery;
+    private final ScheduledExecutorService lagChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                    long maxLagMillis, String lagQuery, long checkIntervalMillis) {
+        this.replicas = List.copyOf(replicas);
+        this.healthy = new boolean[replicas.size()];
+        this.maxLagMillis = maxLagMillis;
+        this.lagQuery = lagQuery;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+        checkReplicas();
+
+        lagChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagChecker.scheduleWithFixedDelay(this::checkReplicas, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+
+        boolean[] healthy = this.healthy;
+        int size = healthy.length;
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            int candidate = (start + i) % size;
+            if (healthy[candidate]) {
+                return candidate;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Runs the lag query against every replica and updates which ones may serve reads.
+     */
+    public void checkReplicas() {
+        boolean[] previous = this.healthy;
+        boolean[] current = new boolean[replicas.size()];
+        for (int i = 0; i < current.length; i++) {
+            current[i] = lagOf(replicas.get(i)) <= maxLagMillis;
+            if (previous != null && previous[i] != current[i]) {
+                log.info("Read replica {} is now {}", i, current[i] ? "in rotation" : "out of rotation");
+            }
+        }
+        this.healthy = current;
+    }
+
+    public boolean isHealthy(int replica) {
+        return healthy[replica];
+    }
+
+    @Override
+    public void close() {
+        lagChecker.shutdownNow();
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Could not close read replica pool: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private long lagOf(DataSource replica) {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            return rs.next() ? rs.getLong(1) : Long.MAX_VALUE;
+        } catch (Exception e) {
+            log.warn("Lag check failed for read replica: {}", e.getMessage());
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.projedata.inventory.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a Spring Data repository call, with the HTTP request it was made for.
+ */
+@Name("com.projedata.inventory.RepositoryCall")
+@Label("Repository Call")
+@Category({"Inventory", "Repository"})
+@Description("A call to a Spring Data repository")
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("HTTP Request")
+    String request;
+
+    @Label("Rows")
+    @Description("Size of a returned collection, 1 or 0 for a single result, -1 for anything else")
+    int rows;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,140 @@
+package com.projedata.inventory.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projedata.inventory.service.CatalogVersion;
+import com.projedata.inventory.service.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight layer for hot read endpoints. Concurrent requests with the same endpoint, parameters,
+ * response format and {@link CatalogVersion} share one computation and its serialized bytes, so a burst
+ * of identical requests runs the queries once. A request arriving after a write sees a new version and
+ * never joins a computation started before it. Disabled with {@code inventory.single-flight.enabled=false}.
+ */
+@Component
+public class ResponseCoalescer {
+
+    private record Key(String endpoint, Object params, MediaType format, long version) {
+    }
+
+    /** Formats the bytes can be written in; the first is used when the client accepts both equally. */
+    private static final List<MediaType> FORMATS = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR);
+
+    private final SingleFlight<Key, byte[]> flights;
+    private final CatalogVersion catalogVersion;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+    private final boolean enabled;
+
+    public ResponseCoalescer(CatalogVersion catalogVersion, ObjectMapper jsonMapper,
+                             MappingJackson2CborHttpMessageConverter cborConverter,
+                             ObjectProvider<MeterRegistry> meterRegistry,
+                             @Value("${inventory.single-flight.enabled:true}") boolean enabled) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Counter computed = registry.counter("inventory.single.flight", "result", "computed");
+            Counter shared = registry.counter("inventory.single.flight", "result", "shared");
+            this.flights = new SingleFlight<>(wasShared -> (wasShared ? shared : computed).increment());
+        } else {
+            this.flights = new SingleFlight<>();
+        }
+        this.catalogVersion = catalogVersion;
+        this.jsonMapper = jsonMapper;
+        this.cborMapper = cborConverter.getObjectMapper();
+        this.enabled = enabled;
+    }
+
+    /**
+     * Serializes {@code body} in the format the client prefers (JSON or CBOR, by the quality values of its
+     * {@code Accept} header), sharing the bytes with identical requests in flight. Fails with 406 when the
+     * client accepts neither.
+     */
+    public ResponseEntity<byte[]> respond(String endpoint, Object params, String accept, Supplier<?> body) {
+        MediaType format = format(accept);
+        Supplier<byte[]> serialize = () -> write(format, body.get());
+        byte[] bytes = enabled
+                ? flights.execute(new Key(endpoint, params, format, catalogVersion.current()), serialize)
+                : serialize.get();
+        return ResponseEntity.ok().contentType(format).body(bytes);
+    }
+
+    /**
+     * Picks the format with the highest quality, each format taking the quality of the most specific range
+     * that matches it. On equal quality a format named explicitly wins over one matched by a wildcard,
+     * then the one listed first.
+     */
+    private static MediaType format(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "Invalid Accept header", e);
+        }
+        MediaType chosen = null;
+        MediaType chosenRange = null;
+        for (MediaType format : FORMATS) {
+            MediaType range = mostSpecificRange(format, accepted);
+            if (range == null || range.getQualityValue() == 0) {
+                continue;
+            }
+            if (chosen == null || preferred(range, chosenRange, accepted)) {
+                chosen = format;
+                chosenRange = range;
+            }
+        }
+        if (chosen == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "Acceptable representations: " + FORMATS);
+        }
+        return chosen;
+    }
+
+    private static MediaType mostSpecificRange(MediaType format, List<MediaType> accepted) {
+        MediaType best = null;
+        for (MediaType range : accepted) {
+            if (range.includes(format) && (best == null || specificity(range) > specificity(best))) {
+                best = range;
+            }
+        }
+        return best;
+    }
+
+    private static boolean preferred(MediaType range, MediaType other, List<MediaType> accepted) {
+        if (range.getQualityValue() != other.getQualityValue()) {
+            return range.getQualityValue() > other.getQualityValue();
+        }
+        if (specificity(range) != specificity(other)) {
+            return specificity(range) > specificity(other);
+        }
+        return accepted.indexOf(range) < accepted.indexOf(other);
+    }
+
+    /** 0 for {@code *}{@code /*}, 1 for {@code type/*}, 2 for a concrete type. */
+    private static int specificity(MediaType range) {
+        return range.isWildcardType() ? 0 : range.isWildcardSubtype() ? 1 : 2;
+    }
+
+    private byte[] write(MediaType format, Object value) {
+        try {
+            return (format.equals(MediaType.APPLICATION_CBOR) ? cborMapper : jsonMapper).writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize response", e);
+        }
+    }
+}
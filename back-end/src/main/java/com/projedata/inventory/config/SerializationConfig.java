@@ -0,0 +1,31 @@
+package com.projedata.inventory.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Serialization tuning for high-volume clients: Blackbird replaces reflective property access with
+ * generated lambdas on the JSON path, and endpoints that list {@code application/cbor} in
+ * {@code produces} answer {@code Accept: application/cbor} with the same documents in CBOR.
+ * JSON stays the default when the client does not ask for CBOR.
+ */
+@Configuration
+public class SerializationConfig {
+
+    public static final String APPLICATION_CBOR = "application/cbor";
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
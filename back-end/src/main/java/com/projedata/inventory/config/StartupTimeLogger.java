@@ -0,0 +1,35 @@
+package com.projedata.inventory.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Logs how long after JVM start the application became ready to serve requests.
+ * With {@code inventory.startup.benchmark=true} the application exits right after,
+ * which is how the startup benchmark of the fast-start build uses it.
+ */
+@Component
+public class StartupTimeLogger implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeLogger.class);
+
+    @Value("${inventory.startup.benchmark:false}")
+    private boolean benchmark;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        log.info("Application ready {} ms after JVM start",
+                ManagementFactory.getRuntimeMXBean().getUptime());
+
+        if (benchmark) {
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+}
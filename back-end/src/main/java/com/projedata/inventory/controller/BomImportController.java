@@ -0,0 +1,54 @@
+package com.projedata.inventory.controller;
+
+import com.projedata.inventory.dto.BomImportView;
+import com.projedata.inventory.model.BomImportError;
+import com.projedata.inventory.service.BomImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/bom-imports")
+public class BomImportController {
+
+    private final BomImportService service;
+
+    public BomImportController(BomImportService service) {
+        this.service = service;
+    }
+
+    /**
+     * Takes the CSV file as the request body, so it is streamed to disk rather than buffered.
+     */
+    @PostMapping(consumes = {"text/csv", "text/plain", "application/octet-stream"}, produces = "application/json")
+    public ResponseEntity<BomImportView> start(@RequestParam(required = false) String fileName,
+                                               HttpServletRequest request) throws IOException {
+        BomImportView job = service.start(fileName, request.getInputStream());
+        return ResponseEntity.accepted()
+                .location(URI.create("/bom-imports/" + job.id()))
+                .body(job);
+    }
+
+    @GetMapping(value = "/{id}", produces = "application/json")
+    public ResponseEntity<BomImportView> get(@PathVariable Long id) {
+        return ResponseEntity.of(service.find(id));
+    }
+
+    @GetMapping(value = "/{id}/errors", produces = "application/json")
+    public List<BomImportError> getErrors(@PathVariable Long id) {
+        return service.findErrors(id);
+    }
+
+    @PostMapping(value = "/{id}/resume", produces = "application/json")
+    public ResponseEntity<BomImportView> resume(@PathVariable Long id) {
+        BomImportView job = service.resume(id);
+        return ResponseEntity.accepted()
+                .location(URI.create("/bom-imports/" + job.id()))
+                .body(job);
+    }
+}
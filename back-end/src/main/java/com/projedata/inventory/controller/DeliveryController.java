@@ -0,0 +1,37 @@
+package com.projedata.inventory.controller;
+
+import com.projedata.inventory.dto.DeliveryLine;
+import com.projedata.inventory.service.DeliveryService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/deliveries")
+public class DeliveryController {
+
+    private final DeliveryService service;
+
+    public DeliveryController(DeliveryService service) {
+        this.service = service;
+    }
+
+    @GetMapping(produces = "application/json")
+    public List<DeliveryLine> getFrom(@RequestParam(required = false)
+                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
+        return service.findFrom(from != null ? from : LocalDate.now());
+    }
+
+    @PostMapping(produces = "application/json")
+    public DeliveryLine create(@RequestBody DeliveryLine delivery) {
+        return service.create(delivery);
+    }
+
+    @DeleteMapping("/{id}")
+    public void delete(@PathVariable Long id) {
+        service.delete(id);
+    }
+}
@@ -0,0 +1,63 @@
+package com.projedata.inventory.controller;
+
+import com.projedata.inventory.dto.RecordingView;
+import com.projedata.inventory.service.FlightRecorderService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/admin/recording")
+@ConditionalOnProperty(prefix = "inventory.jfr.endpoint", name = "enabled", havingValue = "true")
+public class DiagnosticsController {
+
+    private final FlightRecorderService service;
+
+    public DiagnosticsController(FlightRecorderService service) {
+        this.service = service;
+    }
+
+    @GetMapping(produces = "application/json")
+    public ResponseEntity<RecordingView> get() {
+        return ResponseEntity.of(service.find());
+    }
+
+    @PostMapping(value = "/start", produces = "application/json")
+    public RecordingView start(@RequestParam(defaultValue = "60") long durationSeconds,
+                               @RequestParam(defaultValue = "default") String settings,
+                               @RequestParam(defaultValue = "false") boolean productEvents) {
+        return service.start(Duration.ofSeconds(durationSeconds), settings, productEvents);
+    }
+
+    @PostMapping(value = "/stop", produces = "application/json")
+    public RecordingView stop() {
+        return service.stop();
+    }
+
+    /**
+     * The recording as a {@code .jfr} file, also while it is still running.
+     */
+    @GetMapping("/file")
+    public ResponseEntity<Resource> download() throws IOException {
+        Path file = service.dump();
+        long size = Files.size(file);
+        Resource body = new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(size)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("inventory-" + System.currentTimeMillis() + ".jfr").build().toString())
+                .body(body);
+    }
+}
@@ -1,10 +1,9 @@
 package com.projedata.inventory.controller;
 
+import com.projedata.inventory.config.SerializationConfig;
+import com.projedata.inventory.dto.BulkDeleteResult;
 import com.projedata.inventory.model.Product;
-import com.projedata.inventory.model.ProductMaterial;
-import com.projedata.inventory.model.RawMaterial;
-import com.projedata.inventory.repository.ProductRepository;
-import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,85 +15,45 @@ import java.util.List;
 public class ProductController {
 
     @Autowired
-    private ProductRepository productRepository;
-
-    @Autowired
-    private RawMaterialRepository rawMaterialRepository;
+    private ProductService productService;
 
     // FIND ALL
-    @GetMapping(produces = "application/json")
+    @GetMapping(produces = {"application/json", SerializationConfig.APPLICATION_CBOR})
     public List<Product> findAll() {
-        return productRepository.findAll();
+        return productService.findAll();
     }
 
     // CREATE
     @PostMapping(produces = "application/json")
     public Product create(@RequestBody Product product) {
-
-        product.setId(null);
-
-        if (product.getMaterials() != null) {
-
-            for (ProductMaterial pm : product.getMaterials()) {
-
-                if (pm.getRawMaterial() != null && pm.getRawMaterial().getId() != null) {
-
-                    RawMaterial rawMaterial = rawMaterialRepository
-                            .findById(pm.getRawMaterial().getId())
-                            .orElseThrow(() -> new RuntimeException("Raw material not found"));
-
-                    pm.setProduct(product);
-                    pm.setRawMaterial(rawMaterial);
-                }
-            }
-        }
-
-        return productRepository.save(product);
+        return productService.create(product);
     }
 
     // FIND BY ID
     @GetMapping(value = "/{id}", produces = "application/json")
     public Product findById(@PathVariable Long id) {
-        return productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+        return productService.findById(id);
     }
 
     // UPDATE
     @PutMapping(value = "/{id}", produces = "application/json")
     public Product update(@PathVariable Long id, @RequestBody Product updatedProduct) {
-
-        return productRepository.findById(id)
-                .map(product -> {
-
-                    product.setName(updatedProduct.getName());
-                    product.setPrice(updatedProduct.getPrice());
-                    product.setCode(updatedProduct.getCode());
-
-                    product.getMaterials().clear();
-
-                    if (updatedProduct.getMaterials() != null) {
-
-                        for (ProductMaterial pm : updatedProduct.getMaterials()) {
-
-                            RawMaterial rawMaterial = rawMaterialRepository
-                                    .findById(pm.getRawMaterial().getId())
-                                    .orElseThrow(() -> new RuntimeException("Raw material not found"));
-
-                            pm.setProduct(product);
-                            pm.setRawMaterial(rawMaterial);
-
-                            product.getMaterials().add(pm);
-                        }
-                    }
-
-                    return productRepository.save(product);
-
-                }).orElseThrow(() -> new RuntimeException("Product not found"));
+        return productService.update(id, updatedProduct);
     }
 
     // DELETE
     @DeleteMapping("/{id}")
     public void delete(@PathVariable Long id) {
-        productRepository.deleteById(id);
+        productService.delete(id);
+    }
+
+    // BULK DELETE, by ids or code prefix
+    @DeleteMapping(produces = "application/json")
+    public BulkDeleteResult deleteAll(@RequestParam(required = false) List<Long> ids,
+                                      @RequestParam(required = false) String codePrefix) {
+        if ((ids == null) == (codePrefix == null || codePrefix.isEmpty())) {
+            throw new RuntimeException("Give either ids or codePrefix");
+        }
+        return ids != null ? productService.deleteAll(ids) : productService.deleteByCodePrefix(codePrefix);
     }
 }
@@ -1,7 +1,8 @@
 package com.projedata.inventory.controller;
 
+import com.projedata.inventory.config.SerializationConfig;
 import com.projedata.inventory.model.ProductMaterial;
-import com.projedata.inventory.repository.ProductMaterialRepository;
+import com.projedata.inventory.service.ProductMaterialService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,43 +14,35 @@ import java.util.List;
 public class ProductMaterialController {
 
     @Autowired
-    private ProductMaterialRepository repository;
+    private ProductMaterialService service;
 
-    @GetMapping(produces = "application/json")
+    @GetMapping(produces = {"application/json", SerializationConfig.APPLICATION_CBOR})
     public List<ProductMaterial> findAll() {
-        return repository.findAll();
+        return service.findAll();
     }
 
     @GetMapping(value = "/{id}", produces = "application/json")
     public ProductMaterial findById(@PathVariable Long id) {
-        return repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("ProductMaterial not found"));
+        return service.findById(id);
     }
 
     @PostMapping(produces = "application/json")
     public ProductMaterial create(@RequestBody ProductMaterial productMaterial) {
-        return repository.save(productMaterial);
+        return service.create(productMaterial);
     }
 
     @PutMapping(value = "/{id}", produces = "application/json")
     public ProductMaterial update(@PathVariable Long id, @RequestBody ProductMaterial updated) {
-        ProductMaterial productMaterial = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("ProductMaterial not found"));
-
-        productMaterial.setProduct(updated.getProduct());
-        productMaterial.setRawMaterial(updated.getRawMaterial());
-        productMaterial.setQuantityRequired(updated.getQuantityRequired());
-
-        return repository.save(productMaterial);
+        return service.update(id, updated);
     }
 
     @DeleteMapping("/{id}")
     public void delete(@PathVariable Long id) {
-        repository.deleteById(id);
+        service.delete(id);
     }
 
     @GetMapping(value = "/product/{productId}", produces = "application/json")
     public List<ProductMaterial> findByProductId(@PathVariable Long productId) {
-        return repository.findByProductId(productId);
+        return service.findByProductId(productId);
     }
 }
@@ -1,11 +1,34 @@
 package com.projedata.inventory.controller;
 
+import com.projedata.inventory.config.ResponseCoalescer;
+import com.projedata.inventory.config.SerializationConfig;
+import com.projedata.inventory.dto.BottleneckReport;
+import com.projedata.inventory.dto.PlanDiff;
+import com.projedata.inventory.dto.PlanJobView;
+import com.projedata.inventory.dto.ProductionSchedule;
+import com.projedata.inventory.dto.ProductionTarget;
+import com.projedata.inventory.dto.PurchaseLine;
+import com.projedata.inventory.dto.StockReading;
+import com.projedata.inventory.dto.SuggestionQuery;
+import com.projedata.inventory.dto.WarehousePlanReport;
 import com.projedata.inventory.model.Product;
+import com.projedata.inventory.service.BottleneckService;
+import com.projedata.inventory.service.IncrementalPlanner;
+import com.projedata.inventory.service.ProcurementService;
+import com.projedata.inventory.service.ProductionPlanJobService;
+import com.projedata.inventory.service.ProductionScheduler;
 import com.projedata.inventory.service.ProductionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.UUID;
 
 @CrossOrigin(origins = "*")
 @RestController
@@ -15,8 +38,83 @@ public class ProductionController {
     @Autowired
     private ProductionService productionService;
 
-    @GetMapping(value = "/suggestions", produces = "application/json")
-    public List<Product> getProductionSuggestions() {
-        return productionService.getSuggestion();
+    @Autowired
+    private ProductionPlanJobService planJobService;
+
+    @Autowired
+    private IncrementalPlanner incrementalPlanner;
+
+    @Autowired
+    private BottleneckService bottleneckService;
+
+    @Autowired
+    private ProcurementService procurementService;
+
+    @Autowired
+    private ProductionScheduler productionScheduler;
+
+    @Autowired
+    private ResponseCoalescer responseCoalescer;
+
+    @GetMapping(value = "/suggestions", produces = {"application/json", SerializationConfig.APPLICATION_CBOR})
+    public ResponseEntity<byte[]> getProductionSuggestions(@RequestParam(required = false) Integer limit,
+                                                           @RequestParam(required = false) Integer minQuantity,
+                                                           @RequestParam(required = false) List<Long> ids,
+                                                           @RequestParam(required = false) String codePrefix,
+                                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        SuggestionQuery query = new SuggestionQuery(limit, minQuantity,
+                ids == null ? null : new HashSet<>(ids), codePrefix);
+        return responseCoalescer.respond("production/suggestions", query, accept, () -> {
+            // Without filters keep returning full products, which the front-end relies on
+            if (query.isEmpty()) {
+                return productionService.getSuggestion();
+            }
+            return productionService.findSuggestions(query);
+        });
+    }
+
+    @GetMapping(value = "/bottlenecks", produces = "application/json")
+    public BottleneckReport getBottlenecks() {
+        return bottleneckService.analyze();
+    }
+
+    @GetMapping(value = "/schedule", produces = "application/json")
+    public ProductionSchedule getSchedule(@RequestParam(required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+                                          @RequestParam(defaultValue = "90") int days) {
+        return productionScheduler.schedule(start != null ? start : LocalDate.now(), days);
+    }
+
+    @GetMapping(value = "/warehouses", produces = "application/json")
+    public WarehousePlanReport getWarehousePlans() {
+        return productionService.getWarehousePlans();
+    }
+
+    @PostMapping(value = "/requirements", produces = "application/json")
+    public List<PurchaseLine> getRequirements(@RequestBody List<ProductionTarget> targets) {
+        return procurementService.requirements(targets);
+    }
+
+    @PostMapping(value = "/plans", produces = "application/json")
+    public ResponseEntity<PlanJobView> startPlan() {
+        PlanJobView job = planJobService.start();
+        return ResponseEntity.accepted()
+                .location(URI.create("/production/plans/" + job.id()))
+                .body(job);
+    }
+
+    @GetMapping(value = "/plans/{id}", produces = "application/json")
+    public ResponseEntity<PlanJobView> getPlan(@PathVariable UUID id) {
+        return ResponseEntity.of(planJobService.find(id));
+    }
+
+    @PostMapping(value = "/replan", produces = "application/json")
+    public PlanDiff previewReplan(@RequestBody List<StockReading> readings) {
+        return incrementalPlanner.preview(readings);
+    }
+
+    @GetMapping(value = "/replan/latest", produces = "application/json")
+    public ResponseEntity<PlanDiff> getLatestReplan() {
+        return ResponseEntity.of(incrementalPlanner.latest());
     }
 }
@@ -1,45 +1,83 @@
 package com.projedata.inventory.controller;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import com.projedata.inventory.config.ResponseCoalescer;
+import com.projedata.inventory.config.SerializationConfig;
+import com.projedata.inventory.dto.BulkDeleteResult;
+import com.projedata.inventory.dto.StockReading;
+import com.projedata.inventory.dto.WhereUsedLine;
 import com.projedata.inventory.model.RawMaterial;
-import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.service.RawMaterialService;
+import com.projedata.inventory.service.StockIngestService;
 
 @CrossOrigin(origins = "*")
 @RestController
 @RequestMapping("/raw-materials")
 public class RawMaterialController {
 
-    private final RawMaterialRepository repository;
+    private final RawMaterialService service;
+    private final StockIngestService stockIngestService;
+    private final ResponseCoalescer responseCoalescer;
 
-    public RawMaterialController(RawMaterialRepository repository) {
-        this.repository = repository;
+    public RawMaterialController(RawMaterialService service, StockIngestService stockIngestService,
+                                 ResponseCoalescer responseCoalescer) {
+        this.service = service;
+        this.stockIngestService = stockIngestService;
+        this.responseCoalescer = responseCoalescer;
     }
 
-    @GetMapping(produces = "application/json")
-    public List<RawMaterial> getAll() {
-        return repository.findAll();
+    @GetMapping(produces = {"application/json", SerializationConfig.APPLICATION_CBOR})
+    public ResponseEntity<byte[]> getAll(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return responseCoalescer.respond("raw-materials", null, accept, service::findAll);
     }
 
     @PostMapping(produces = "application/json")
     public RawMaterial create(@RequestBody RawMaterial rawMaterial) {
-        return repository.save(rawMaterial);
+        return service.create(rawMaterial);
     }
 
     @PutMapping(value = "/{id}", produces = "application/json")
     public RawMaterial update(@PathVariable Long id, @RequestBody RawMaterial updated) {
-        RawMaterial material = repository.findById(id)
-                .orElseThrow();
-
-        material.setName(updated.getName());
-        material.setCode(updated.getCode());
-        material.setStockQuantity(updated.getStockQuantity());
-
-        return repository.save(material);
+        return service.update(id, updated);
     }
 
     @DeleteMapping("/{id}")
     public void delete(@PathVariable Long id) {
-        repository.deleteById(id);
+        service.delete(id);
+    }
+
+    /**
+     * Bulk delete by ids or code prefix; 409 when any of the raw materials is used in a BOM,
+     * unless {@code deleteBomLines=true}.
+     */
+    @DeleteMapping(produces = "application/json")
+    public BulkDeleteResult deleteAll(@RequestParam(required = false) List<Long> ids,
+                                      @RequestParam(required = false) String codePrefix,
+                                      @RequestParam(defaultValue = "false") boolean deleteBomLines) {
+        if ((ids == null) == (codePrefix == null || codePrefix.isEmpty())) {
+            throw new RuntimeException("Give either ids or codePrefix");
+        }
+        return ids != null ? service.deleteAll(ids, deleteBomLines) : service.deleteByCodePrefix(codePrefix, deleteBomLines);
+    }
+
+    @GetMapping(value = "/where-used", produces = "application/json")
+    public List<WhereUsedLine> whereUsed(@RequestParam List<Long> ids) {
+        return service.whereUsed(ids);
+    }
+
+    /**
+     * Write-behind stock ingest for line devices: 202 once queued, 200 once written
+     * when {@code durability=FLUSH}, 429 when the queue is full.
+     */
+    @PostMapping(value = "/stock-ingest")
+    public ResponseEntity<Void> ingestStock(@RequestBody List<StockReading> readings,
+                                            @RequestParam(required = false) StockIngestService.Durability durability) {
+        StockIngestService.Durability mode = durability != null ? durability : stockIngestService.getDefaultDurability();
+        stockIngestService.submit(readings, mode);
+        return ResponseEntity.status(mode == StockIngestService.Durability.FLUSH ? HttpStatus.OK : HttpStatus.ACCEPTED).build();
     }
 }
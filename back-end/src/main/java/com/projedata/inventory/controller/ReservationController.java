@@ -0,0 +1,46 @@
+package com.projedata.inventory.controller;
+
+import com.projedata.inventory.dto.ReservationRequest;
+import com.projedata.inventory.dto.ReservationView;
+import com.projedata.inventory.service.StockReservationService;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/reservations")
+public class ReservationController {
+
+    private final StockReservationService service;
+
+    public ReservationController(StockReservationService service) {
+        this.service = service;
+    }
+
+    @PostMapping(produces = "application/json")
+    public ReservationView reserve(@RequestBody ReservationRequest request) {
+        return service.reserve(request);
+    }
+
+    @GetMapping(value = "/{id}", produces = "application/json")
+    public ReservationView find(@PathVariable UUID id) {
+        return service.find(id);
+    }
+
+    @PostMapping(value = "/{id}/confirm", produces = "application/json")
+    public ReservationView confirm(@PathVariable UUID id) {
+        return service.confirm(id);
+    }
+
+    @DeleteMapping(value = "/{id}", produces = "application/json")
+    public ReservationView release(@PathVariable UUID id) {
+        return service.release(id);
+    }
+
+    @GetMapping(value = "/available/{rawMaterialId}", produces = "application/json")
+    public BigDecimal available(@PathVariable Long rawMaterialId) {
+        return service.available(rawMaterialId);
+    }
+}
@@ -0,0 +1,47 @@
+package com.projedata.inventory.controller;
+
+import com.projedata.inventory.dto.WarehouseStockLine;
+import com.projedata.inventory.model.Quantity;
+import com.projedata.inventory.model.Warehouse;
+import com.projedata.inventory.service.WarehouseService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/warehouses")
+public class WarehouseController {
+
+    private final WarehouseService service;
+
+    public WarehouseController(WarehouseService service) {
+        this.service = service;
+    }
+
+    @GetMapping(produces = "application/json")
+    public List<Warehouse> getAll() {
+        return service.findAll();
+    }
+
+    @PostMapping(produces = "application/json")
+    public Warehouse create(@RequestBody Warehouse warehouse) {
+        return service.create(warehouse);
+    }
+
+    @DeleteMapping("/{id}")
+    public void delete(@PathVariable Long id) {
+        service.delete(id);
+    }
+
+    @GetMapping(value = "/{id}/stock", produces = "application/json")
+    public List<WarehouseStockLine> getStock(@PathVariable Long id) {
+        return service.findStock(id);
+    }
+
+    @PutMapping(value = "/{id}/stock/{rawMaterialId}", produces = "application/json")
+    public WarehouseStockLine setStock(@PathVariable Long id, @PathVariable Long rawMaterialId,
+                                       @RequestBody Quantity quantity) {
+        return service.setStock(id, rawMaterialId, quantity);
+    }
+}
@@ -0,0 +1,12 @@
+package com.projedata.inventory.dto;
+
+import java.time.Instant;
+
+/**
+ * State of a BOM import. {@code committedBytes} of {@code fileBytes} and {@code committedLines} are
+ * durable: a resumed import continues from there.
+ */
+public record BomImportView(Long id, String fileName, String status, long fileBytes, long committedBytes,
+                            long committedLines, long importedLines, long rejectedLines, Instant createdAt,
+                            Instant finishedAt, String error) {
+}
@@ -0,0 +1,29 @@
+package com.projedata.inventory.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Which raw materials limit the production plan.
+ *
+ * @param products  every product in priority order with the material that limits it
+ * @param materials every raw material, highest marginal value first
+ */
+public record BottleneckReport(List<ProductBottleneck> products, List<MaterialBottleneck> materials) {
+
+    /**
+     * @param bindingMaterialId the material that limits the product; null when nothing does
+     *                          (no bill of materials) or a BOM line can never be satisfied
+     */
+    public record ProductBottleneck(Long productId, String code, String name, int producibleQuantity,
+                                    Long bindingMaterialId) {
+    }
+
+    /**
+     * @param bindingFor    number of products this material limits
+     * @param marginalValue change in the plan's total value if one more unit were in stock
+     */
+    public record MaterialBottleneck(Long rawMaterialId, String code, String name, BigDecimal stockQuantity,
+                                     int bindingFor, BigDecimal marginalValue) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.projedata.inventory.dto;
+
+/**
+ * Outcome of a bulk delete: the rows deleted, and the BOM lines deleted along with them.
+ */
+public record BulkDeleteResult(int deleted, int bomLinesDeleted) {
+}
@@ -0,0 +1,12 @@
+package com.projedata.inventory.dto;
+
+import com.projedata.inventory.model.Quantity;
+
+import java.time.LocalDate;
+
+/**
+ * An expected raw material delivery. Code and name are ignored when creating one.
+ */
+public record DeliveryLine(Long id, Long rawMaterialId, String code, String name, Quantity quantity,
+                           LocalDate expectedDate) {
+}
@@ -0,0 +1,17 @@
+package com.projedata.inventory.dto;
+
+import java.util.List;
+
+/**
+ * Effect of a stock change on the production plan.
+ *
+ * @param replannedFrom position in the priority order from which products were allocated again;
+ *                      products before it kept their previous allocation
+ * @param productCount  number of products in the plan
+ * @param changes       products whose producible quantity changed
+ */
+public record PlanDiff(int replannedFrom, int productCount, List<Change> changes) {
+
+    public record Change(Long productId, String code, String name, int before, int after) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.projedata.inventory.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * State of an asynchronous production plan; {@code result} is set once the status is DONE and lists
+ * the producible quantity of every product, in planning order.
+ */
+public record PlanJobView(UUID id, String status, long dataVersion, int processed, int total,
+                          Instant createdAt, Instant finishedAt, String error, List<PlannedProduct> result) {
+
+    public record PlannedProduct(Long productId, int producibleQuantity) {
+    }
+}
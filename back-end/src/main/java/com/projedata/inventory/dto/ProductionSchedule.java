@@ -0,0 +1,27 @@
+package com.projedata.inventory.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Production scheduled day by day over a horizon.
+ *
+ * @param reusedDays leading days taken over unchanged from the previous schedule
+ * @param totalValue value of everything finished within the horizon
+ * @param days       the days on which production starts, in date order
+ */
+public record ProductionSchedule(LocalDate start, int horizonDays, int reusedDays, BigDecimal totalValue,
+                                 List<ScheduledDay> days) {
+
+    public record ScheduledDay(LocalDate date, BigDecimal value, List<ScheduledRun> runs) {
+    }
+
+    /**
+     * @param quantity       units started on the day
+     * @param completionDate the day they are finished
+     */
+    public record ScheduledRun(Long productId, String code, String name, int quantity, LocalDate completionDate,
+                               BigDecimal value) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.projedata.inventory.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of a filtered production plan, without the product's bill of materials.
+ */
+public record ProductionSuggestion(Long id, String code, String name, BigDecimal price,
+                                   int producibleQuantity, BigDecimal totalValue) {
+}
@@ -0,0 +1,7 @@
+package com.projedata.inventory.dto;
+
+/**
+ * How many units of a product should be made.
+ */
+public record ProductionTarget(Long productId, Integer quantity) {
+}
@@ -0,0 +1,15 @@
+package com.projedata.inventory.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Raw material missing to meet a production target.
+ *
+ * @param required      total quantity the targets need
+ * @param shortfall     required minus current stock, the quantity to buy
+ * @param shortageValue value of the targeted production the shortfall holds back, in proportion
+ *                      to the share of the requirement that is missing
+ */
+public record PurchaseLine(Long rawMaterialId, String code, String name, BigDecimal required,
+                           BigDecimal stockQuantity, BigDecimal shortfall, BigDecimal shortageValue) {
+}
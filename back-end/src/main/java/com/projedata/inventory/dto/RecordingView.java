@@ -0,0 +1,11 @@
+package com.projedata.inventory.dto;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * State of the diagnostics JFR recording. {@code state} is one of the {@link jdk.jfr.RecordingState} names.
+ */
+public record RecordingView(long id, String name, String state, String settings, Instant startTime,
+                            Instant stopTime, Duration duration, long maxSizeBytes, boolean productEvents) {
+}
@@ -0,0 +1,15 @@
+package com.projedata.inventory.dto;
+
+import com.projedata.inventory.model.Quantity;
+
+import java.util.List;
+
+/**
+ * Stock to hold for a production order. {@code ttlSeconds} is optional and defaults to
+ * {@code inventory.reservations.default-ttl-seconds}.
+ */
+public record ReservationRequest(List<Line> lines, Long ttlSeconds) {
+
+    public record Line(Long rawMaterialId, Quantity quantity) {
+    }
+}
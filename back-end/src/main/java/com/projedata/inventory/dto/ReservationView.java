@@ -0,0 +1,8 @@
+package com.projedata.inventory.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public record ReservationView(UUID id, String status, Instant expiresAt, List<ReservationRequest.Line> lines) {
+}
@@ -0,0 +1,9 @@
+package com.projedata.inventory.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Absolute stock value reported by a line device (scale, counter) for one raw material.
+ */
+public record StockReading(Long rawMaterialId, BigDecimal stockQuantity) {
+}
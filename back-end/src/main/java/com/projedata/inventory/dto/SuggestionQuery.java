@@ -0,0 +1,18 @@
+package com.projedata.inventory.dto;
+
+import java.util.Set;
+
+/**
+ * Filters for production suggestions; every field is optional.
+ *
+ * @param limit        keep only the top {@code limit} products by total value
+ * @param minQuantity  drop products that can be produced fewer times than this
+ * @param productIds   restrict to these products
+ * @param codePrefix   restrict to products whose code starts with this prefix
+ */
+public record SuggestionQuery(Integer limit, Integer minQuantity, Set<Long> productIds, String codePrefix) {
+
+    public boolean isEmpty() {
+        return limit == null && minQuantity == null && productIds == null && codePrefix == null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.projedata.inventory.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Production plans computed independently for each warehouse from its own stock.
+ *
+ * @param warehouses one plan per warehouse, listing the products it can make
+ * @param total      per product, the sum over all warehouses
+ */
+public record WarehousePlanReport(List<WarehousePlan> warehouses, List<ProductionSuggestion> total,
+                                  BigDecimal totalValue) {
+
+    public record WarehousePlan(Long warehouseId, String code, String name, BigDecimal totalValue,
+                                List<ProductionSuggestion> products) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.projedata.inventory.dto;
+
+import com.projedata.inventory.model.Quantity;
+
+/**
+ * Stock of one raw material in a warehouse.
+ */
+public record WarehouseStockLine(Long rawMaterialId, String code, String name, Quantity quantity) {
+}
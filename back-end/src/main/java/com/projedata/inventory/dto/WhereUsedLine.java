@@ -0,0 +1,7 @@
+package com.projedata.inventory.dto;
+
+/**
+ * How many products, and how many BOM lines, use a raw material.
+ */
+public record WhereUsedLine(Long rawMaterialId, String code, long productCount, long lineCount) {
+}
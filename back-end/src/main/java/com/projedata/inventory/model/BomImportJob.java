@@ -0,0 +1,149 @@
+package com.projedata.inventory.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A BOM line import from an uploaded CSV file. The file is imported in chunks, each in its own
+ * transaction together with the byte offset and line number it ends at, so a failed import resumes
+ * after the last committed chunk.
+ */
+@Entity
+@Table(name = "bom_import_job")
+public class BomImportJob {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    /** Where the uploaded file is kept until the import is done. */
+    @Column(nullable = false)
+    private String path;
+
+    private long fileBytes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.QUEUED;
+
+    private long committedOffset;
+
+    private long committedLines;
+
+    private long importedLines;
+
+    private long rejectedLines;
+
+    @Column(nullable = false)
+    private Instant createdAt = Instant.now();
+
+    private Instant finishedAt;
+
+    @Column(length = 1000)
+    private String error;
+
+    public BomImportJob() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public long getFileBytes() {
+        return fileBytes;
+    }
+
+    public void setFileBytes(long fileBytes) {
+        this.fileBytes = fileBytes;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getCommittedOffset() {
+        return committedOffset;
+    }
+
+    public void setCommittedOffset(long committedOffset) {
+        this.committedOffset = committedOffset;
+    }
+
+    public long getCommittedLines() {
+        return committedLines;
+    }
+
+    public void setCommittedLines(long committedLines) {
+        this.committedLines = committedLines;
+    }
+
+    public long getImportedLines() {
+        return importedLines;
+    }
+
+    public void setImportedLines(long importedLines) {
+        this.importedLines = importedLines;
+    }
+
+    public long getRejectedLines() {
+        return rejectedLines;
+    }
+
+    public void setRejectedLines(long rejectedLines) {
+        this.rejectedLines = rejectedLines;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
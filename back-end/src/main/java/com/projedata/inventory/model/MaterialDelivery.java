@@ -0,0 +1,67 @@
+package com.projedata.inventory.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * An expected incoming delivery of a raw material. It counts towards stock from its expected date
+ * in production schedules; once received, the raw material's stock is updated and the row deleted.
+ */
+@Entity
+@Table(name = "material_delivery",
+        indexes = {
+                @Index(name = "idx_material_delivery_date", columnList = "expected_date"),
+                @Index(name = "idx_material_delivery_material", columnList = "raw_material_id")
+        })
+public class MaterialDelivery {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "raw_material_id")
+    private RawMaterial rawMaterial;
+
+    @Column(nullable = false, precision = 19, scale = Quantity.SCALE)
+    private Quantity quantity;
+
+    @Column(name = "expected_date", nullable = false)
+    private LocalDate expectedDate;
+
+    public MaterialDelivery() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public RawMaterial getRawMaterial() {
+        return rawMaterial;
+    }
+
+    public void setRawMaterial(RawMaterial rawMaterial) {
+        this.rawMaterial = rawMaterial;
+    }
+
+    public Quantity getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Quantity quantity) {
+        this.quantity = quantity;
+    }
+
+    public LocalDate getExpectedDate() {
+        return expectedDate;
+    }
+
+    public void setExpectedDate(LocalDate expectedDate) {
+        this.expectedDate = expectedDate;
+    }
+}
@@ -26,11 +26,18 @@ public class Product {
     @OneToMany(
             mappedBy = "product",
             cascade = CascadeType.ALL,
+            orphanRemoval = true,
             fetch = FetchType.LAZY
     )
     @JsonManagedReference
     private List<ProductMaterial> materials;
 
+    /** Most units that can be started per day; no limit when null. */
+    private Integer dailyCapacity;
+
+    /** Days from starting a unit until it is finished; same day when null. */
+    private Integer productionDays;
+
     @Transient
     private Integer producibleQuantity;
 
@@ -80,6 +87,22 @@ public class Product {
         this.materials = materials;
     }
 
+    public Integer getDailyCapacity() {
+        return dailyCapacity;
+    }
+
+    public void setDailyCapacity(Integer dailyCapacity) {
+        this.dailyCapacity = dailyCapacity;
+    }
+
+    public Integer getProductionDays() {
+        return productionDays;
+    }
+
+    public void setProductionDays(Integer productionDays) {
+        this.productionDays = productionDays;
+    }
+
     public Integer getProducibleQuantity() {
         return producibleQuantity;
     }
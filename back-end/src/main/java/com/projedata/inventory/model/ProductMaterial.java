@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 
 @Entity
+@Table(indexes = @Index(name = "idx_product_material_pair", columnList = "product_id, raw_material_id"))
 public class ProductMaterial {
 
     @Id
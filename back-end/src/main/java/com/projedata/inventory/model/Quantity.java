@@ -0,0 +1,109 @@
+package com.projedata.inventory.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point decimal for stock quantities and money: a {@code long} count of 1/10000 units.
+ * Arithmetic is overflow-checked ({@link ArithmeticException}) and the static helpers work on raw
+ * units, so hot loops can do their math on {@code long[]} without allocating.
+ *
+ * Serialized to JSON and stored in the database as a plain decimal, so it can replace
+ * {@link BigDecimal} fields without changing the API or the schema.
+ */
+public final class Quantity implements Comparable<Quantity> {
+
+    public static final int SCALE = 4;
+    public static final long ONE = 10_000L;
+    public static final Quantity ZERO = new Quantity(0);
+
+    private final long units;
+
+    private Quantity(long units) {
+        this.units = units;
+    }
+
+    public static Quantity ofUnits(long units) {
+        return units == 0 ? ZERO : new Quantity(units);
+    }
+
+    public static Quantity of(long whole) {
+        return ofUnits(Math.multiplyExact(whole, ONE));
+    }
+
+    @JsonCreator
+    public static Quantity of(BigDecimal value) {
+        return ofUnits(toUnits(value));
+    }
+
+    /**
+     * Converts a decimal to units. Digits beyond the fourth decimal place are truncated.
+     */
+    public static long toUnits(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.DOWN).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long units) {
+        BigDecimal value = BigDecimal.valueOf(units, SCALE).stripTrailingZeros();
+        return value.scale() < 0 ? value.setScale(0) : value;
+    }
+
+    /**
+     * How many whole times {@code required} fits into {@code available}; 0 when either is not positive.
+     */
+    public static int fits(long available, long required) {
+        if (available <= 0 || required <= 0) {
+            return 0;
+        }
+        long times = available / required;
+        return times > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) times;
+    }
+
+    public long units() {
+        return units;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return toBigDecimal(units);
+    }
+
+    public Quantity plus(Quantity other) {
+        return ofUnits(Math.addExact(units, other.units));
+    }
+
+    public Quantity minus(Quantity other) {
+        return ofUnits(Math.subtractExact(units, other.units));
+    }
+
+    public Quantity times(long factor) {
+        return ofUnits(Math.multiplyExact(units, factor));
+    }
+
+    public boolean isPositive() {
+        return units > 0;
+    }
+
+    @Override
+    public int compareTo(Quantity other) {
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Quantity other && other.units == units;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(units);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,23 @@
+package com.projedata.inventory.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Stores {@link Quantity} attributes in the same numeric columns used for {@link BigDecimal}.
+ */
+@Converter(autoApply = true)
+public class QuantityConverter implements AttributeConverter<Quantity, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Quantity quantity) {
+        return quantity == null ? null : quantity.toBigDecimal();
+    }
+
+    @Override
+    public Quantity convertToEntityAttribute(BigDecimal value) {
+        return value == null ? null : Quantity.of(value);
+    }
+}
@@ -0,0 +1,65 @@
+package com.projedata.inventory.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Stock of one raw material in one warehouse. The unique key leads with {@code warehouse_id},
+ * so it also serves per-warehouse reads; a second index covers lookups by raw material.
+ */
+@Entity
+@Table(name = "warehouse_stock",
+        uniqueConstraints = @UniqueConstraint(name = "uk_warehouse_stock_warehouse_material",
+                columnNames = {"warehouse_id", "raw_material_id"}),
+        indexes = @Index(name = "idx_warehouse_stock_material", columnList = "raw_material_id"))
+public class WarehouseStock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "warehouse_id")
+    private Warehouse warehouse;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "raw_material_id")
+    private RawMaterial rawMaterial;
+
+    @Column(nullable = false, precision = 19, scale = Quantity.SCALE)
+    private Quantity quantity;
+
+    public WarehouseStock() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Warehouse getWarehouse() {
+        return warehouse;
+    }
+
+    public void setWarehouse(Warehouse warehouse) {
+        this.warehouse = warehouse;
+    }
+
+    public RawMaterial getRawMaterial() {
+        return rawMaterial;
+    }
+
+    public void setRawMaterial(RawMaterial rawMaterial) {
+        this.rawMaterial = rawMaterial;
+    }
+
+    public Quantity getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Quantity quantity) {
+        this.quantity = quantity;
+    }
+}
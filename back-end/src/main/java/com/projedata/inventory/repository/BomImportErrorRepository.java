@@ -0,0 +1,13 @@
+package com.projedata.inventory.repository;
+
+import com.projedata.inventory.model.BomImportError;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface BomImportErrorRepository extends JpaRepository<BomImportError, Long> {
+
+    List<BomImportError> findByJobIdOrderByLineNumber(Long jobId);
+
+    long countByJobId(Long jobId);
+}
@@ -0,0 +1,27 @@
+package com.projedata.inventory.repository;
+
+import com.projedata.inventory.model.BomImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface BomImportJobRepository extends JpaRepository<BomImportJob, Long> {
+
+    /**
+     * Records a committed chunk; runs in the chunk's transaction.
+     */
+    @Modifying
+    @Query("update BomImportJob j set j.committedOffset = :offset, j.committedLines = :lines, "
+            + "j.importedLines = j.importedLines + :imported, j.rejectedLines = j.rejectedLines + :rejected "
+            + "where j.id = :id")
+    int recordChunk(@Param("id") Long id, @Param("offset") long offset, @Param("lines") long lines,
+                    @Param("imported") long imported, @Param("rejected") long rejected);
+
+    @Modifying
+    @Query("update BomImportJob j set j.status = :status, j.error = :error, j.finishedAt = :finishedAt where j.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") BomImportJob.Status status,
+                     @Param("error") String error, @Param("finishedAt") Instant finishedAt);
+}
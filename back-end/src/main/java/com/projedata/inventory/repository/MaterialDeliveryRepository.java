@@ -0,0 +1,30 @@
+package com.projedata.inventory.repository;
+
+import com.projedata.inventory.dto.DeliveryLine;
+import com.projedata.inventory.model.MaterialDelivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface MaterialDeliveryRepository extends JpaRepository<MaterialDelivery, Long> {
+
+    @Query("select new com.projedata.inventory.dto.DeliveryLine(d.id, m.id, m.code, m.name, d.quantity, d.expectedDate) "
+            + "from MaterialDelivery d join d.rawMaterial m where d.expectedDate >= :from order by d.expectedDate, m.code")
+    List<DeliveryLine> findLinesFrom(@Param("from") LocalDate from);
+
+    /**
+     * Deliveries expected in {@code [from, to)} as {@code [rawMaterialId, expectedDate, quantity]}, without loading entities.
+     */
+    @Query("select d.rawMaterial.id, d.expectedDate, d.quantity from MaterialDelivery d "
+            + "where d.expectedDate >= :from and d.expectedDate < :to")
+    List<Object[]> findQuantitiesBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("delete from MaterialDelivery d where d.rawMaterial.id in :rawMaterialIds")
+    int deleteByRawMaterialIds(@Param("rawMaterialIds") Collection<Long> rawMaterialIds);
+}
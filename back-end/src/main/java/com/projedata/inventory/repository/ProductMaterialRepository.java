@@ -1,10 +1,42 @@
 package com.projedata.inventory.repository;
 
+import com.projedata.inventory.dto.WhereUsedLine;
 import com.projedata.inventory.model.ProductMaterial;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ProductMaterialRepository extends JpaRepository<ProductMaterial, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = {"product", "rawMaterial"})
+    List<ProductMaterial> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"product", "rawMaterial"})
+    Optional<ProductMaterial> findById(Long id);
+
+    @EntityGraph(attributePaths = {"product", "rawMaterial"})
     List<ProductMaterial> findByProductId(Long productId);
+
+    /**
+     * For each of the given raw materials that is used in a BOM, how many products and BOM lines use it.
+     */
+    @Query("select new com.projedata.inventory.dto.WhereUsedLine(m.id, m.code, count(distinct pm.product.id), count(pm)) "
+            + "from ProductMaterial pm join pm.rawMaterial m where m.id in :rawMaterialIds group by m.id, m.code order by m.code")
+    List<WhereUsedLine> findWhereUsed(@Param("rawMaterialIds") Collection<Long> rawMaterialIds);
+
+    @Modifying
+    @Query("delete from ProductMaterial pm where pm.product.id in :productIds")
+    int deleteByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    @Modifying
+    @Query("delete from ProductMaterial pm where pm.rawMaterial.id in :rawMaterialIds")
+    int deleteByRawMaterialIds(@Param("rawMaterialIds") Collection<Long> rawMaterialIds);
 }
@@ -1,8 +1,46 @@
 package com.projedata.inventory.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.projedata.inventory.model.Product;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    /**
+     * Loads every product together with its BOM lines and raw materials in a single query,
+     * so the result can be serialized after the persistence context has been closed.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"materials", "materials.rawMaterial"})
+    List<Product> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"materials", "materials.rawMaterial"})
+    Optional<Product> findById(Long id);
+
+    /**
+     * Every product as {@code [code, id]}, for resolving codes without loading entities.
+     */
+    @Query("select p.code, p.id from Product p")
+    List<Object[]> findCodeIds();
+
+    /**
+     * Ids of the products whose code matches {@code pattern}, a LIKE pattern escaped with {@code !}.
+     */
+    @Query("select p.id from Product p where p.code like :pattern escape '!'")
+    List<Long> findIdsByCodeLike(@Param("pattern") String pattern);
+
+    /**
+     * Deletes products without loading them; their BOM lines must be deleted first.
+     */
+    @Modifying
+    @Query("delete from Product p where p.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,11 +1,55 @@
 package com.projedata.inventory.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import com.projedata.inventory.model.RawMaterial;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Repository interface for RawMaterial entity operations.
  * Provides CRUD operations for raw material management.
  */
 public interface RawMaterialRepository extends JpaRepository<RawMaterial, Long> {
+
+    /**
+     * Every raw material as {@code [code, id]}, for resolving codes without loading entities.
+     */
+    @Query("select m.code, m.id from RawMaterial m")
+    List<Object[]> findCodeIds();
+
+    /**
+     * Ids of the raw materials whose code matches {@code pattern}, a LIKE pattern escaped with {@code !}.
+     */
+    @Query("select m.id from RawMaterial m where m.code like :pattern escape '!'")
+    List<Long> findIdsByCodeLike(@Param("pattern") String pattern);
+
+    /**
+     * Current stock of the given raw materials as {@code [id, stockQuantity]}. Runs in a read-write
+     * transaction of its own, so it is read on the primary and sees every commit made before the call.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("select m.id, m.stockQuantity from RawMaterial m where m.id in :ids")
+    List<Object[]> findStockByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * The given raw materials, locked for update until the transaction ends. Rows are locked in id order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from RawMaterial m where m.id in :ids order by m.id")
+    List<RawMaterial> findAllForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes raw materials without loading them; rows referencing them must be deleted first.
+     */
+    @Modifying
+    @Query("delete from RawMaterial m where m.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
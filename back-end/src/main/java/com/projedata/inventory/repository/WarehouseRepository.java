@@ -0,0 +1,7 @@
+package com.projedata.inventory.repository;
+
+import com.projedata.inventory.model.Warehouse;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
+}
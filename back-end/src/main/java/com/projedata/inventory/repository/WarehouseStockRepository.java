@@ -0,0 +1,41 @@
+package com.projedata.inventory.repository;
+
+import com.projedata.inventory.dto.WarehouseStockLine;
+import com.projedata.inventory.model.WarehouseStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface WarehouseStockRepository extends JpaRepository<WarehouseStock, Long> {
+
+    @Query("select new com.projedata.inventory.dto.WarehouseStockLine(m.id, m.code, m.name, s.quantity) "
+            + "from WarehouseStock s join s.rawMaterial m where s.warehouse.id = :warehouseId order by m.code")
+    List<WarehouseStockLine> findLinesByWarehouseId(@Param("warehouseId") Long warehouseId);
+
+    Optional<WarehouseStock> findByWarehouseIdAndRawMaterialId(Long warehouseId, Long rawMaterialId);
+
+    /**
+     * Every stock row as {@code [warehouseId, rawMaterialId, quantity]}, without loading entities.
+     */
+    @Query("select s.warehouse.id, s.rawMaterial.id, s.quantity from WarehouseStock s")
+    List<Object[]> findAllQuantities();
+
+    /**
+     * The stock rows of a warehouse as {@code [rawMaterialId, quantity]}.
+     */
+    @Query("select s.rawMaterial.id, s.quantity from WarehouseStock s where s.warehouse.id = :warehouseId")
+    List<Object[]> findQuantitiesByWarehouseId(@Param("warehouseId") Long warehouseId);
+
+    @Modifying
+    @Query("delete from WarehouseStock s where s.warehouse.id = :warehouseId")
+    int deleteByWarehouseId(@Param("warehouseId") Long warehouseId);
+
+    @Modifying
+    @Query("delete from WarehouseStock s where s.rawMaterial.id in :rawMaterialIds")
+    int deleteByRawMaterialIds(@Param("rawMaterialIds") Collection<Long> rawMaterialIds);
+}
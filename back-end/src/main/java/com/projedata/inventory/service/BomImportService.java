@@ -0,0 +1,474 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.BomImportView;
+import com.projedata.inventory.model.BomImportError;
+import com.projedata.inventory.model.BomImportJob;
+import com.projedata.inventory.model.BomImportJob.Status;
+import com.projedata.inventory.repository.BomImportErrorRepository;
+import com.projedata.inventory.repository.BomImportJobRepository;
+import com.projedata.inventory.repository.ProductRepository;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports BOM lines from CSV files ({@code product_code,raw_material_code,quantity_required}, with an
+ * optional header row). The upload is streamed to disk; the import then reads it in chunks of lines,
+ * parses and validates the chunks in parallel against product and raw material codes loaded once per
+ * run, and writes them in file order with one batched insert and one transaction per chunk.
+ * <p>
+ * Each chunk's transaction also records the byte offset and line number the chunk ends at, so an
+ * import that failed (or was cut off by a restart) resumes after its last committed chunk. Rejected
+ * lines are stored as the import's error report, up to {@code inventory.bom-import.max-errors}.
+ * <p>
+ * A line for a raw material the product already has in its BOM sets that line's quantity instead of
+ * adding another line, so importing a file again (or resuming from an earlier offset) changes nothing.
+ */
+@Service
+public class BomImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BomImportService.class);
+
+    private static final String HEADER = "product_code";
+    private static final String UPDATE_LINE =
+            "UPDATE product_material SET quantity_required = ? WHERE product_id = ? AND raw_material_id = ?";
+    private static final String INSERT_LINE =
+            "INSERT INTO product_material (product_id, raw_material_id, quantity_required) VALUES (?, ?, ?)";
+    private static final String INSERT_ERROR =
+            "INSERT INTO bom_import_error (job_id, line_number, message) VALUES (?, ?, ?)";
+    private static final int MAX_MESSAGE = 500;
+
+    /** Consecutive lines of the file; {@code endOffset} is the byte offset right after the last one. */
+    private record Chunk(long firstLine, List<String> lines, long endOffset) {
+    }
+
+    /** Insert rows {@code [productId, rawMaterialId, quantity]} and error rows {@code [jobId, line, message]}. */
+    private record ParsedChunk(long lastLine, long endOffset, List<Object[]> rows, List<Object[]> errors) {
+    }
+
+    private final BomImportJobRepository jobRepository;
+    private final BomImportErrorRepository errorRepository;
+    private final ProductRepository productRepository;
+    private final RawMaterialRepository materialRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogVersion catalogVersion;
+    private final Path directory;
+    private final int threads;
+    private final int chunkLines;
+    private final int maxErrors;
+    private final ExecutorService parsers;
+    private final ExecutorService runner;
+
+    /** Imports queued or running in this process. */
+    private final Set<Long> active = ConcurrentHashMap.newKeySet();
+
+    public BomImportService(BomImportJobRepository jobRepository, BomImportErrorRepository errorRepository,
+                            ProductRepository productRepository, RawMaterialRepository materialRepository,
+                            JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            CatalogVersion catalogVersion,
+                            @Value("${inventory.bom-import.directory:data/imports}") String directory,
+                            @Value("${inventory.bom-import.threads:2}") int threads,
+                            @Value("${inventory.bom-import.chunk-lines:5000}") int chunkLines,
+                            @Value("${inventory.bom-import.max-errors:1000}") int maxErrors) {
+        this.jobRepository = jobRepository;
+        this.errorRepository = errorRepository;
+        this.productRepository = productRepository;
+        this.materialRepository = materialRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.catalogVersion = catalogVersion;
+        this.directory = Path.of(directory);
+        this.threads = threads;
+        this.chunkLines = chunkLines;
+        this.maxErrors = maxErrors;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.parsers = Executors.newFixedThreadPool(threads,
+                r -> new Thread(r, "bom-import-parse-" + threadNumber.incrementAndGet()));
+        this.runner = Executors.newSingleThreadExecutor(r -> new Thread(r, "bom-import"));
+    }
+
+    /**
+     * Stores the uploaded file and queues its import. Imports run one at a time, in the order they were started.
+     */
+    public BomImportView start(String fileName, InputStream content) throws IOException {
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, "bom-", ".csv");
+        try {
+            Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        BomImportJob job = new BomImportJob();
+        job.setFileName(fileName != null && !fileName.isBlank() ? fileName : file.getFileName().toString());
+        job.setPath(file.toString());
+        job.setFileBytes(Files.size(file));
+        job = jobRepository.save(job);
+
+        active.add(job.getId());
+        submit(job.getId());
+        return view(job);
+    }
+
+    /**
+     * Queues a failed or interrupted import again; it continues after its last committed chunk.
+     */
+    public BomImportView resume(Long id) {
+        BomImportJob job = jobRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("BOM import not found"));
+        if (job.getStatus() == Status.DONE) {
+            throw new BomImportStateException("BOM import " + id + " is already done");
+        }
+        if (!active.add(id)) {
+            throw new BomImportStateException("BOM import " + id + " is already queued or running");
+        }
+        setStatus(id, Status.QUEUED, null, null);
+        job.setStatus(Status.QUEUED);
+        job.setError(null);
+        job.setFinishedAt(null);
+        submit(id);
+        return view(job);
+    }
+
+    public Optional<BomImportView> find(Long id) {
+        return jobRepository.findById(id).map(BomImportService::view);
+    }
+
+    public List<BomImportError> findErrors(Long id) {
+        if (!jobRepository.existsById(id)) {
+            throw new RuntimeException("BOM import not found");
+        }
+        return errorRepository.findByJobIdOrderByLineNumber(id);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        parsers.shutdownNow();
+    }
+
+    private void submit(Long id) {
+        try {
+            runner.execute(() -> {
+                try {
+                    run(id);
+                } finally {
+                    active.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            active.remove(id);
+            throw e;
+        }
+    }
+
+    /**
+     * Runs an import on the calling thread, from its last committed chunk to the end of the file.
+     */
+    public void run(Long id) {
+        BomImportJob job = jobRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("BOM import not found"));
+        Path file = Path.of(job.getPath());
+        setStatus(id, Status.RUNNING, null, null);
+
+        Deque<Future<ParsedChunk>> pending = new ArrayDeque<>();
+        boolean bomChanged = false;
+        try {
+            Map<String, Long> products = codes(productRepository.findCodeIds());
+            Map<String, Long> materials = codes(materialRepository.findCodeIds());
+            long storedErrors = errorRepository.countByJobId(id);
+
+            try (InputStream in = Files.newInputStream(file)) {
+                in.skipNBytes(job.getCommittedOffset());
+                LineReader reader = new LineReader(in, job.getCommittedOffset());
+                long nextLine = job.getCommittedLines() + 1;
+                Chunk chunk;
+                while ((chunk = reader.next(nextLine, chunkLines)) != null) {
+                    nextLine += chunk.lines().size();
+                    Chunk read = chunk;
+                    pending.add(parsers.submit(() -> parse(id, read, products, materials)));
+                    // Only a few chunks are held in memory: those being parsed and the one being written
+                    if (pending.size() > threads) {
+                        ParsedChunk parsed = pending.poll().get();
+                        storedErrors = write(id, parsed, storedErrors);
+                        bomChanged |= !parsed.rows().isEmpty();
+                    }
+                }
+                while (!pending.isEmpty()) {
+                    ParsedChunk parsed = pending.poll().get();
+                    storedErrors = write(id, parsed, storedErrors);
+                    bomChanged |= !parsed.rows().isEmpty();
+                }
+            }
+
+            setStatus(id, Status.DONE, null, Instant.now());
+            Files.deleteIfExists(file);
+            log.info("BOM import {} ({}) done", id, job.getFileName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(id, "Interrupted");
+        } catch (ExecutionException e) {
+            fail(id, e.getCause().getMessage());
+        } catch (IOException | RuntimeException e) {
+            fail(id, e.getMessage());
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+            // One structural change per run, also when it failed after committing some chunks
+            if (bomChanged) {
+                catalogVersion.bump();
+            }
+        }
+    }
+
+    /**
+     * Writes a chunk's lines and errors and moves the import's committed position past it, in one transaction.
+     * The catalog version is bumped by the caller once the run ends.
+     */
+    private long write(Long id, ParsedChunk chunk, long storedErrors) {
+        List<Object[]> errors = chunk.errors();
+        int kept = (int) Math.max(0, Math.min(errors.size(), maxErrors - storedErrors));
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!chunk.rows().isEmpty()) {
+                upsert(chunk.rows());
+            }
+            if (kept > 0) {
+                jdbcTemplate.batchUpdate(INSERT_ERROR, errors.subList(0, kept));
+            }
+            jobRepository.recordChunk(id, chunk.endOffset(), chunk.lastLine(), chunk.rows().size(), errors.size());
+        });
+        return storedErrors + kept;
+    }
+
+    /**
+     * Sets the quantity of the BOM lines that already exist for a product and raw material, and inserts
+     * the others. When a chunk has several lines for the same pair, the last one wins.
+     */
+    private void upsert(List<Object[]> rows) {
+        Map<List<Object>, Object[]> byPair = new LinkedHashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            byPair.put(List.of(row[0], row[1]), row);
+        }
+        List<Object[]> updates = new ArrayList<>(byPair.size());
+        for (Object[] row : byPair.values()) {
+            updates.add(new Object[]{row[2], row[0], row[1]});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_LINE, updates);
+        List<Object[]> inserts = new ArrayList<>();
+        int k = 0;
+        for (Object[] row : byPair.values()) {
+            if (updated[k++] == 0) {
+                inserts.add(row);
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_LINE, inserts);
+        }
+    }
+
+    private static ParsedChunk parse(Long id, Chunk chunk, Map<String, Long> products, Map<String, Long> materials) {
+        List<Object[]> rows = new ArrayList<>(chunk.lines().size());
+        List<Object[]> errors = new ArrayList<>();
+        long lineNumber = chunk.firstLine();
+        for (String line : chunk.lines()) {
+            String error = parseLine(line, lineNumber, products, materials, rows);
+            if (error != null) {
+                errors.add(new Object[]{id, lineNumber,
+                        error.length() > MAX_MESSAGE ? error.substring(0, MAX_MESSAGE) : error});
+            }
+            lineNumber++;
+        }
+        return new ParsedChunk(lineNumber - 1, chunk.endOffset(), rows, errors);
+    }
+
+    /**
+     * Adds the insert row for a line to {@code rows}; returns why the line was rejected, or null.
+     */
+    private static String parseLine(String line, long lineNumber, Map<String, Long> products,
+                                    Map<String, Long> materials, List<Object[]> rows) {
+        if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+            line = line.substring(1);
+        }
+        if (line.isBlank()) {
+            return null;
+        }
+        List<String> fields = split(line);
+        if (lineNumber == 1 && fields.get(0).equalsIgnoreCase(HEADER)) {
+            return null;
+        }
+        if (fields.size() != 3) {
+            return "Expected 3 fields (product_code,raw_material_code,quantity_required), found " + fields.size();
+        }
+
+        Long productId = products.get(fields.get(0));
+        if (productId == null) {
+            return "Unknown product code " + fields.get(0);
+        }
+        Long materialId = materials.get(fields.get(1));
+        if (materialId == null) {
+            return "Unknown raw material code " + fields.get(1);
+        }
+        int quantity;
+        try {
+            quantity = Integer.parseInt(fields.get(2));
+        } catch (NumberFormatException e) {
+            quantity = 0;
+        }
+        if (quantity <= 0) {
+            return "Quantity required must be a positive whole number: " + fields.get(2);
+        }
+
+        rows.add(new Object[]{productId, materialId, quantity});
+        return null;
+    }
+
+    /**
+     * Splits a CSV line into trimmed fields; fields may be quoted, with {@code ""} for a quote inside them.
+     * Quoted fields cannot span lines.
+     */
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private static Map<String, Long> codes(List<Object[]> codeIds) {
+        Map<String, Long> byCode = new HashMap<>(codeIds.size() * 2);
+        for (Object[] row : codeIds) {
+            byCode.put((String) row[0], (Long) row[1]);
+        }
+        return byCode;
+    }
+
+    private void setStatus(Long id, Status status, String error, Instant finishedAt) {
+        transactionTemplate.executeWithoutResult(s -> jobRepository.updateStatus(id, status, error, finishedAt));
+    }
+
+    private void fail(Long id, String message) {
+        log.warn("BOM import {} failed: {}", id, message);
+        String error = message == null ? "Import failed" : message;
+        try {
+            setStatus(id, Status.FAILED, error.length() > 1000 ? error.substring(0, 1000) : error, Instant.now());
+        } catch (RuntimeException e) {
+            log.warn("Could not record the failure of BOM import {}: {}", id, e.getMessage());
+        }
+    }
+
+    private static BomImportView view(BomImportJob job) {
+        return new BomImportView(job.getId(), job.getFileName(), job.getStatus().name(), job.getFileBytes(),
+                job.getCommittedOffset(), job.getCommittedLines(), job.getImportedLines(), job.getRejectedLines(),
+                job.getCreatedAt(), job.getFinishedAt(), job.getError());
+    }
+
+    /**
+     * Reads UTF-8 lines from a stream and keeps track of the byte offset after the last line returned.
+     */
+    private static final class LineReader {
+
+        private final InputStream in;
+        private final byte[] buffer = new byte[64 * 1024];
+        private int position;
+        private int limit;
+        private byte[] line = new byte[256];
+        private long offset;
+
+        LineReader(InputStream in, long offset) {
+            this.in = in;
+            this.offset = offset;
+        }
+
+        /** Up to {@code maxLines} lines, or null at the end of the stream. */
+        Chunk next(long firstLine, int maxLines) throws IOException {
+            List<String> lines = new ArrayList<>(Math.min(maxLines, 1024));
+            String next;
+            while (lines.size() < maxLines && (next = readLine()) != null) {
+                lines.add(next);
+            }
+            return lines.isEmpty() ? null : new Chunk(firstLine, lines, offset);
+        }
+
+        private String readLine() throws IOException {
+            int length = 0;
+            while (true) {
+                if (position == limit) {
+                    limit = Math.max(in.read(buffer), 0);
+                    position = 0;
+                    if (limit == 0) {
+                        return length == 0 ? null : decode(length);
+                    }
+                }
+                byte b = buffer[position++];
+                offset++;
+                if (b == '\n') {
+                    return decode(length);
+                }
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = b;
+            }
+        }
+
+        private String decode(int length) {
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            return new String(line, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.projedata.inventory.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The BOM import cannot be resumed in its current state.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class BomImportStateException extends RuntimeException {
+
+    public BomImportStateException(String message) {
+        super(message);
+    }
+}
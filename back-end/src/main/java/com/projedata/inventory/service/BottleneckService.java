@@ -0,0 +1,116 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.BottleneckReport;
+import com.projedata.inventory.dto.BottleneckReport.MaterialBottleneck;
+import com.projedata.inventory.dto.BottleneckReport.ProductBottleneck;
+import com.projedata.inventory.model.Product;
+import com.projedata.inventory.model.Quantity;
+import com.projedata.inventory.model.RawMaterial;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Finds the raw material limiting each product and the marginal value of every material.
+ * <p>
+ * The marginal value is measured on the greedy plan itself: the plan is run again with one more
+ * unit of the material and the change in total value is reported. A material can only change the
+ * plan where it is the binding line of some product, so materials that bind nothing are 0 without
+ * a rerun, and a rerun starts at the first product the material binds. Reruns are independent and
+ * run in parallel across materials.
+ */
+@Service
+public class BottleneckService {
+
+    private final ProductionService productionService;
+
+    public BottleneckService(ProductionService productionService) {
+        this.productionService = productionService;
+    }
+
+    public BottleneckReport analyze() {
+        return analyze(productionService.buildModel());
+    }
+
+    public BottleneckReport analyze(PlanningModel model) {
+        int productCount = model.productCount();
+        int materialCount = model.materialCount();
+
+        // Base plan, recording the binding material of every product at its turn
+        long[] stock = model.initialStock();
+        int[] producible = new int[productCount];
+        int[] binding = new int[productCount];
+        int[] firstBound = new int[materialCount];
+        int[] bindingFor = new int[materialCount];
+        Arrays.fill(firstBound, -1);
+        for (int i = 0; i < productCount; i++) {
+            int line = model.bindingLine(i, stock);
+            int material = line < 0 ? PlanningModel.INVALID_LINE : model.lineMaterial(line);
+            binding[i] = material;
+            if (material != PlanningModel.INVALID_LINE) {
+                bindingFor[material]++;
+                if (firstBound[material] < 0) {
+                    firstBound[material] = i;
+                }
+            }
+            model.allocate(i, i + 1, stock, producible);
+        }
+
+        long[] marginalUnits = new long[materialCount];
+        IntStream.range(0, materialCount)
+                .filter(m -> firstBound[m] >= 0)
+                .parallel()
+                .forEach(m -> marginalUnits[m] = marginalValue(model, producible, m, firstBound[m]));
+
+        List<Product> products = model.getProducts();
+        List<RawMaterial> materials = model.getMaterials();
+        List<ProductBottleneck> productRows = new ArrayList<>(productCount);
+        for (int i = 0; i < productCount; i++) {
+            Product product = products.get(i);
+            Long materialId = binding[i] == PlanningModel.INVALID_LINE ? null : model.materialId(binding[i]);
+            productRows.add(new ProductBottleneck(product.getId(), product.getCode(), product.getName(),
+                    producible[i], materialId));
+        }
+
+        Integer[] order = new Integer[materialCount];
+        for (int m = 0; m < materialCount; m++) {
+            order[m] = m;
+        }
+        Arrays.sort(order, Comparator.comparingLong((Integer m) -> marginalUnits[m]).reversed());
+        List<MaterialBottleneck> materialRows = new ArrayList<>(materialCount);
+        for (int m : order) {
+            RawMaterial material = materials.get(m);
+            materialRows.add(new MaterialBottleneck(material.getId(), material.getCode(), material.getName(),
+                    material.getStockQuantity(), bindingFor[m], Quantity.toBigDecimal(marginalUnits[m])));
+        }
+        return new BottleneckReport(productRows, materialRows);
+    }
+
+    /**
+     * Change in total value, in {@link Quantity} units, when material {@code m} has one more unit.
+     * Products before {@code from} are unaffected, so their consumption is replayed as is.
+     */
+    private static long marginalValue(PlanningModel model, int[] base, int m, int from) {
+        long[] stock = model.initialStock();
+        stock[m] = Math.addExact(stock[m], Quantity.ONE);
+        for (int i = 0; i < from; i++) {
+            if (base[i] > 0) {
+                model.consume(i, base[i], stock);
+            }
+        }
+        int[] producible = base.clone();
+        model.allocate(from, stock, producible);
+
+        long delta = 0;
+        for (int i = from; i < producible.length; i++) {
+            if (producible[i] != base[i]) {
+                delta = Math.addExact(delta, Math.multiplyExact(model.priceUnits(i), (long) producible[i] - base[i]));
+            }
+        }
+        return delta;
+    }
+}
@@ -0,0 +1,287 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.model.Product;
+import com.projedata.inventory.model.ProductMaterial;
+import com.projedata.inventory.model.RawMaterial;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Planning data (raw materials with stock, products with their BOM lines) in a compact binary file.
+ * The file is memory-mapped when opened and every {@link #decode()} builds fresh, detached entities
+ * from the mapping, so callers may modify them as they would entities loaded from the database.
+ * <p>
+ * Layout: a header ({@code magic, format, checksum, writtenAt, materialCount, productCount}) followed by
+ * the body; the checksum is the CRC32C of the body. Rows are written in id order, so the checksum of
+ * the same data is always the same and doubles as its version.
+ */
+public final class CatalogSnapshot {
+
+    private static final int MAGIC = 0x494E5653; // "INVS"
+    private static final int FORMAT = 2;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4 + 4;
+    private static final long NO_ID = -1;
+    private static final int NO_QUANTITY = Integer.MIN_VALUE;
+
+    private final ByteBuffer body;
+    private final long checksum;
+    private final long writtenAt;
+    private final int materialCount;
+    private final int productCount;
+
+    private CatalogSnapshot(ByteBuffer body, long checksum, long writtenAt, int materialCount, int productCount) {
+        this.body = body;
+        this.checksum = checksum;
+        this.writtenAt = writtenAt;
+        this.materialCount = materialCount;
+        this.productCount = productCount;
+    }
+
+    /**
+     * Encodes the catalog; {@link #checksum(byte[])} of the result is the snapshot's version.
+     */
+    public static byte[] encode(List<Product> products, List<RawMaterial> materials, long writtenAt) {
+        List<RawMaterial> sortedMaterials = materials.stream().sorted(Comparator.comparing(RawMaterial::getId)).toList();
+        List<Product> sortedProducts = products.stream().sorted(Comparator.comparing(Product::getId)).toList();
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * (sortedMaterials.size() + sortedProducts.size()) + 64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            writeHeader(out, writtenAt, sortedMaterials.size(), sortedProducts.size());
+
+            for (RawMaterial material : sortedMaterials) {
+                out.writeLong(material.getId());
+                writeString(out, material.getCode());
+                writeString(out, material.getName());
+                writeDecimal(out, material.getStockQuantity());
+            }
+            for (Product product : sortedProducts) {
+                out.writeLong(product.getId());
+                writeString(out, product.getCode());
+                writeString(out, product.getName());
+                writeDecimal(out, product.getPrice());
+                out.writeInt(product.getDailyCapacity() == null ? NO_QUANTITY : product.getDailyCapacity());
+                out.writeInt(product.getProductionDays() == null ? NO_QUANTITY : product.getProductionDays());
+                List<ProductMaterial> lines = product.getMaterials() == null ? List.of() : product.getMaterials();
+                out.writeInt(lines.size());
+                for (ProductMaterial line : lines) {
+                    out.writeLong(line.getId() == null ? NO_ID : line.getId());
+                    out.writeLong(line.getRawMaterial() == null ? NO_ID : line.getRawMaterial().getId());
+                    out.writeInt(line.getQuantityRequired() == null ? NO_QUANTITY : line.getQuantityRequired());
+                }
+            }
+            return finish(bytes, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Encodes this snapshot again with the stock of the given raw materials replaced; ids it does not hold
+     * are ignored. Products and BOM lines are copied as they are, without decoding them.
+     */
+    public byte[] withStock(Map<Long, BigDecimal> stock, long writtenAt) {
+        ByteBuffer in = body.duplicate();
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_BYTES + body.capacity() + 16 * stock.size());
+            DataOutputStream out = new DataOutputStream(bytes);
+            writeHeader(out, writtenAt, materialCount, productCount);
+            for (int m = 0; m < materialCount; m++) {
+                long id = in.getLong();
+                String code = readString(in);
+                String name = readString(in);
+                BigDecimal quantity = readDecimal(in);
+                out.writeLong(id);
+                writeString(out, code);
+                writeString(out, name);
+                writeDecimal(out, stock.getOrDefault(id, quantity));
+            }
+            byte[] products = new byte[in.remaining()];
+            in.get(products);
+            out.write(products);
+            return finish(bytes, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** CRC32C of the body of an encoded snapshot. */
+    public static long checksum(byte[] encoded) {
+        CRC32C crc = new CRC32C();
+        crc.update(encoded, HEADER_BYTES, encoded.length - HEADER_BYTES);
+        return crc.getValue();
+    }
+
+    /**
+     * Writes an encoded snapshot next to {@code path} and moves it in place, so readers never see a partial file.
+     */
+    public static void write(Path path, byte[] encoded) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, encoded);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Maps a snapshot file; fails when it is not a complete snapshot of this format.
+     */
+    public static CatalogSnapshot open(Path path) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (mapped.capacity() < HEADER_BYTES || mapped.getInt(0) != MAGIC || mapped.getInt(4) != FORMAT) {
+            throw new IOException("Not a catalog snapshot: " + path);
+        }
+        long checksum = mapped.getLong(8);
+        ByteBuffer body = mapped.slice(HEADER_BYTES, mapped.capacity() - HEADER_BYTES);
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        if (crc.getValue() != checksum) {
+            throw new IOException("Corrupt catalog snapshot: " + path);
+        }
+        return new CatalogSnapshot(body, checksum, mapped.getLong(16), mapped.getInt(24), mapped.getInt(28));
+    }
+
+    /**
+     * Builds the planning model from the snapshot, with new entity instances on every call.
+     */
+    public PlanningModel decode() {
+        ByteBuffer in = body.duplicate();
+        List<RawMaterial> materials = new ArrayList<>(materialCount);
+        Map<Long, RawMaterial> materialsById = new HashMap<>(materialCount * 2);
+        for (int m = 0; m < materialCount; m++) {
+            RawMaterial material = new RawMaterial();
+            material.setId(in.getLong());
+            material.setCode(readString(in));
+            material.setName(readString(in));
+            material.setStockQuantity(readDecimal(in));
+            materials.add(material);
+            materialsById.put(material.getId(), material);
+        }
+
+        List<Product> products = new ArrayList<>(productCount);
+        for (int p = 0; p < productCount; p++) {
+            Product product = new Product();
+            product.setId(in.getLong());
+            product.setCode(readString(in));
+            product.setName(readString(in));
+            product.setPrice(readDecimal(in));
+            product.setDailyCapacity(readOptionalInt(in));
+            product.setProductionDays(readOptionalInt(in));
+            int lineCount = in.getInt();
+            List<ProductMaterial> lines = new ArrayList<>(lineCount);
+            for (int l = 0; l < lineCount; l++) {
+                ProductMaterial line = new ProductMaterial();
+                long lineId = in.getLong();
+                long materialId = in.getLong();
+                line.setId(lineId == NO_ID ? null : lineId);
+                line.setProduct(product);
+                line.setRawMaterial(materialId == NO_ID ? null : materialsById.get(materialId));
+                line.setQuantityRequired(readOptionalInt(in));
+                lines.add(line);
+            }
+            product.setMaterials(lines);
+            products.add(product);
+        }
+        return PlanningModel.build(products, materials);
+    }
+
+    public long checksum() {
+        return checksum;
+    }
+
+    public long writtenAt() {
+        return writtenAt;
+    }
+
+    public int productCount() {
+        return productCount;
+    }
+
+    private static void writeHeader(DataOutputStream out, long writtenAt, int materialCount, int productCount)
+            throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+        out.writeLong(0); // checksum, filled in by finish
+        out.writeLong(writtenAt);
+        out.writeInt(materialCount);
+        out.writeInt(productCount);
+    }
+
+    private static byte[] finish(ByteArrayOutputStream bytes, DataOutputStream out) throws IOException {
+        out.flush();
+        byte[] encoded = bytes.toByteArray();
+        ByteBuffer.wrap(encoded).putLong(8, checksum(encoded));
+        return encoded;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Integer readOptionalInt(ByteBuffer in) {
+        int value = in.getInt();
+        return value == NO_QUANTITY ? null : value;
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(unscaled.length);
+        out.write(unscaled);
+        out.writeInt(value.scale());
+    }
+
+    private static BigDecimal readDecimal(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] unscaled = new byte[length];
+        in.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), in.getInt());
+    }
+}
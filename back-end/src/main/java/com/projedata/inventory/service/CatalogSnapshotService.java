@@ -0,0 +1,229 @@
+package com.projedata.inventory.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projedata.inventory.dto.SuggestionQuery;
+import com.projedata.inventory.repository.ProductRepository;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm start for the planner. The planning data is kept in a {@link CatalogSnapshot} file; on startup
+ * the file is memory-mapped and plans are computed from it until the database has been read again in
+ * the background, or until the first write, whichever comes first. Before the application reports
+ * ready, the planner is run on the snapshot for a while so the JIT has compiled it by the first request.
+ * <p>
+ * The snapshot is rewritten after reconciling and then periodically while the data keeps changing:
+ * in full after a change to the catalog structure, otherwise with the stock of the raw materials
+ * reported as changed since the last write, read again by id.
+ * Enabled with {@code inventory.snapshot.enabled=true}.
+ */
+@Service
+@Lazy(false)
+@ConditionalOnProperty(prefix = "inventory.snapshot", name = "enabled", havingValue = "true")
+public class CatalogSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private final Path path;
+    private final ProductRepository productRepository;
+    private final RawMaterialRepository materialRepository;
+    private final TransactionTemplate readOnly;
+    private final CatalogVersion catalogVersion;
+    private final ObjectProvider<ProductionService> productionService;
+    private final ObjectMapper objectMapper;
+    private final long warmupMillis;
+
+    /** Mapped snapshot plans are served from; null once reconciled. */
+    private volatile CatalogSnapshot warm;
+    private volatile long warmVersion;
+    /** The model decoded from {@link #warm}, shared by every plan served from it. */
+    private PlanningModel warmDecoded;
+    /** Data and structure versions the file on disk was written from; -1 before the first write. */
+    private volatile long writtenVersion = -1;
+    private volatile long writtenStructure = -1;
+    /** Raw materials whose stock changed since the file was written. */
+    private final Set<Long> stockChanged = ConcurrentHashMap.newKeySet();
+
+    public CatalogSnapshotService(@Value("${inventory.snapshot.path:data/catalog.snapshot}") String path,
+                                  @Value("${inventory.snapshot.warmup-millis:2000}") long warmupMillis,
+                                  ProductRepository productRepository, RawMaterialRepository materialRepository,
+                                  PlatformTransactionManager transactionManager, CatalogVersion catalogVersion,
+                                  ObjectProvider<ProductionService> productionService, ObjectMapper objectMapper) {
+        this.path = Path.of(path);
+        this.warmupMillis = warmupMillis;
+        this.productRepository = productRepository;
+        this.materialRepository = materialRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.catalogVersion = catalogVersion;
+        this.productionService = productionService;
+        this.objectMapper = objectMapper;
+        catalogVersion.addStockListener(stockUnits -> stockChanged.addAll(stockUnits.keySet()));
+        open();
+    }
+
+    private void open() {
+        if (!Files.exists(path)) {
+            log.info("No catalog snapshot at {}, planning starts from the database", path);
+            return;
+        }
+        try {
+            warm = CatalogSnapshot.open(path);
+            warmVersion = catalogVersion.current();
+            log.info("Serving plans from the catalog snapshot at {} ({} products) until reconciled", path,
+                    warm.productCount());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring catalog snapshot at {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * The model decoded from the snapshot while it may stand in for the database, otherwise null.
+     * It is decoded once and shared, like the {@link CatalogStore} model, so callers must not modify it.
+     */
+    public PlanningModel warmModel() {
+        CatalogSnapshot snapshot = warm;
+        if (snapshot == null || catalogVersion.current() != warmVersion) {
+            return null;
+        }
+        synchronized (this) {
+            if (warmDecoded == null && warm == snapshot) {
+                warmDecoded = snapshot.decode();
+            }
+            return warm == snapshot ? warmDecoded : null;
+        }
+    }
+
+    /**
+     * Runs the planner on the snapshot, then reconciles in the background. Runs before the
+     * application is marked ready, so the warm-up delays readiness rather than the first requests.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        if (warm != null && warmupMillis > 0) {
+            warmUp();
+        }
+        Thread reconciler = new Thread(this::reconcile, "catalog-snapshot-reconcile");
+        reconciler.setDaemon(true);
+        reconciler.start();
+    }
+
+    private void warmUp() {
+        ProductionService planner = productionService.getObject();
+        SuggestionQuery top = new SuggestionQuery(20, null, null, null);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(warmupMillis);
+        int rounds = 0;
+        try {
+            while (System.nanoTime() < deadline && warmModel() != null) {
+                objectMapper.writeValueAsBytes(planner.getSuggestion());
+                objectMapper.writeValueAsBytes(planner.findSuggestions(top));
+                rounds++;
+            }
+            log.info("Planner warmed up on the snapshot: {} rounds in {} ms", rounds, warmupMillis);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Planner warm-up stopped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the database, stops serving the snapshot and, when the data differs from it, bumps the
+     * version so anything computed from the snapshot is computed again. Then writes a fresh snapshot.
+     */
+    void reconcile() {
+        try {
+            CatalogSnapshot snapshot = warm;
+            long version = catalogVersion.current();
+            long structure = catalogVersion.structure();
+            stockChanged.clear();
+            byte[] encoded = load();
+            endWarmMode();
+            boolean changed = snapshot != null && CatalogSnapshot.checksum(encoded) != snapshot.checksum();
+            long written = version;
+            long writtenStructureVersion = structure;
+            if (changed) {
+                // The bump only refreshes what was computed from the snapshot; the file still matches it
+                long bumped = catalogVersion.bump();
+                if (bumped == version + 1) {
+                    written = bumped;
+                    writtenStructureVersion = structure + 1;
+                }
+            }
+            if (snapshot == null || changed) {
+                CatalogSnapshot.write(path, encoded);
+            }
+            writtenStructure = writtenStructureVersion;
+            writtenVersion = written;
+            log.info("Catalog snapshot reconciled with the database{}", changed ? ", snapshot was stale" : "");
+        } catch (IOException | RuntimeException e) {
+            endWarmMode();
+            log.warn("Catalog snapshot reconcile failed, planning from the database: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void endWarmMode() {
+        warm = null;
+        warmDecoded = null;
+    }
+
+    /**
+     * Rewrites the snapshot when the data changed since it was last written. Only a structural change
+     * reads the whole catalog again; stock changes are applied to the file on disk.
+     */
+    @Scheduled(fixedDelayString = "${inventory.snapshot.write-interval-millis:60000}",
+            initialDelayString = "${inventory.snapshot.write-interval-millis:60000}")
+    public void writeIfChanged() {
+        long version = catalogVersion.current();
+        long structure = catalogVersion.structure();
+        if (writtenVersion < 0 || version == writtenVersion) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(stockChanged);
+        stockChanged.removeAll(ids);
+        try {
+            if (structure != writtenStructure) {
+                CatalogSnapshot.write(path, load());
+                writtenStructure = structure;
+            } else if (!ids.isEmpty()) {
+                Map<Long, BigDecimal> stock = new HashMap<>(ids.size() * 2);
+                for (Object[] row : materialRepository.findStockByIds(ids)) {
+                    stock.put((Long) row[0], (BigDecimal) row[1]);
+                }
+                CatalogSnapshot.write(path, CatalogSnapshot.open(path).withStock(stock, System.currentTimeMillis()));
+            }
+            writtenVersion = version;
+            log.debug("Catalog snapshot written at version {}", version);
+        } catch (IOException | RuntimeException e) {
+            stockChanged.addAll(ids);
+            log.warn("Could not write the catalog snapshot: {}", e.getMessage());
+        }
+    }
+
+    private byte[] load() {
+        return readOnly.execute(status -> CatalogSnapshot.encode(productRepository.findAll(),
+                materialRepository.findAll(), System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,471 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.model.Product;
+import com.projedata.inventory.model.ProductMaterial;
+import com.projedata.inventory.model.Quantity;
+import com.projedata.inventory.model.RawMaterial;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Read-optimized copy of the catalog for planning and read-only listings. Products, BOM lines and
+ * raw materials are held in columns: primitive arrays for ids and quantities (BOM lines in the
+ * {@link PlanningModel} layout, about 20 bytes each), and one instance per distinct code, name and
+ * decimal. Entities are only built for the rows a caller reads, fresh for every {@link #model()} or
+ * listing, so callers may modify them as they would entities loaded from the database.
+ * <p>
+ * The store follows {@link CatalogVersion}: a stock-only write reloads the stock column, any other write
+ * reloads everything on the next read. A read never returns a catalog older than the version current when
+ * it was made, as callers key cached results on that version. The previous catalog stays reachable during
+ * a full reload, so the heap briefly holds two copies. Enabled with {@code inventory.catalog-store.enabled=true}.
+ */
+@Service
+@ConditionalOnProperty(prefix = "inventory.catalog-store", name = "enabled", havingValue = "true")
+public class CatalogStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogStore.class);
+
+    private static final int NO_VALUE = Integer.MIN_VALUE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnly;
+    private final CatalogVersion catalogVersion;
+
+    private volatile Catalog catalog;
+
+    public CatalogStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                        CatalogVersion catalogVersion,
+                        @Value("${inventory.catalog-store.fetch-size:10000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        // One snapshot for all the queries of a load, so lines never point at rows read before they existed.
+        // A transaction of its own: joining the caller's would silently keep the caller's isolation level.
+        this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnly.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.catalogVersion = catalogVersion;
+    }
+
+    /**
+     * Loads the catalog in the background, so the first plan does not wait for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        Thread loader = new Thread(() -> {
+            try {
+                current();
+            } catch (RuntimeException e) {
+                log.warn("Catalog store preload failed, loading on first use: {}", e.getMessage());
+            }
+        }, "catalog-store-preload");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * The planning model of the current catalog and stock, products in priority order.
+     */
+    public PlanningModel model() {
+        return current().view().model();
+    }
+
+    /**
+     * All products with their BOM lines, in id order.
+     */
+    public List<Product> products() {
+        return current().view().productsById();
+    }
+
+    /**
+     * All raw materials, in id order.
+     */
+    public List<RawMaterial> materials() {
+        return current().view().materials();
+    }
+
+    Catalog current() {
+        Catalog loaded = catalog;
+        if (loaded != null && loaded.version == catalogVersion.current()) {
+            return loaded;
+        }
+        return refresh();
+    }
+
+    /**
+     * Brings the catalog up to date: only the stock if the structure has not changed, else everything.
+     */
+    private synchronized Catalog refresh() {
+        // Versions are read before the data, so a write committed during the load reloads again
+        long version = catalogVersion.current();
+        long structure = catalogVersion.structure();
+        Catalog previous = catalog;
+        if (previous != null && previous.version == version) {
+            return previous;
+        }
+        long started = System.nanoTime();
+        Catalog fresh;
+        if (previous != null && previous.structure == structure) {
+            fresh = readOnly.execute(status -> loadStock(previous, version));
+        } else {
+            fresh = readOnly.execute(status -> load(version, structure));
+            log.info("Catalog store loaded {} products, {} BOM lines and {} raw materials in {} ms",
+                    fresh.planning.productCount(), fresh.lineIds.length, fresh.planning.materialCount(),
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+        catalog = fresh;
+        return fresh;
+    }
+
+    private Catalog load(long version, long structure) {
+        Map<Object, Object> pool = new HashMap<>();
+
+        // Raw materials, in id order
+        int materialCount = count("raw_material");
+        long[] materialIds = new long[materialCount];
+        String[] materialCodes = new String[materialCount];
+        String[] materialNames = new String[materialCount];
+        BigDecimal[] stock = new BigDecimal[materialCount];
+        int[] rows = {0};
+        jdbcTemplate.query("SELECT id, code, name, stock_quantity FROM raw_material ORDER BY id", (RowCallbackHandler) rs -> {
+            int m = rows[0];
+            if (m < materialCount) {
+                materialIds[m] = rs.getLong(1);
+                materialCodes[m] = dedup(pool, rs.getString(2));
+                materialNames[m] = dedup(pool, rs.getString(3));
+                stock[m] = dedup(pool, rs.getBigDecimal(4));
+                rows[0]++;
+            }
+        });
+        int materials = rows[0];
+        LongIntHashMap materialIndex = new LongIntHashMap(materials);
+        long[] stockUnits = new long[materials];
+        for (int m = 0; m < materials; m++) {
+            materialIndex.put(materialIds[m], m);
+            stockUnits[m] = Quantity.toUnits(stock[m]);
+        }
+
+        // Products, read in id order, then kept in priority order (highest price first, ties by id)
+        int productCount = count("product");
+        long[] ids = new long[productCount];
+        String[] codes = new String[productCount];
+        String[] names = new String[productCount];
+        BigDecimal[] prices = new BigDecimal[productCount];
+        int[] capacities = new int[productCount];
+        int[] days = new int[productCount];
+        rows[0] = 0;
+        jdbcTemplate.query("SELECT id, code, name, price, daily_capacity, production_days FROM product ORDER BY id",
+                (RowCallbackHandler) rs -> {
+                    int p = rows[0];
+                    if (p < productCount) {
+                        ids[p] = rs.getLong(1);
+                        codes[p] = dedup(pool, rs.getString(2));
+                        names[p] = dedup(pool, rs.getString(3));
+                        prices[p] = dedup(pool, rs.getBigDecimal(4));
+                        capacities[p] = rs.getInt(5);
+                        capacities[p] = rs.wasNull() ? NO_VALUE : capacities[p];
+                        days[p] = rs.getInt(6);
+                        days[p] = rs.wasNull() ? NO_VALUE : days[p];
+                        rows[0]++;
+                    }
+                });
+        int products = rows[0];
+        int[] byPriority = IntStream.range(0, products).boxed()
+                .sorted(Comparator.comparing((Integer p) -> prices[p]).reversed())
+                .mapToInt(Integer::intValue)
+                .toArray();
+        int[] rank = new int[products];
+        long[] productIds = new long[products];
+        long[] priceUnits = new long[products];
+        Columns columns = new Columns(products);
+        for (int i = 0; i < products; i++) {
+            int p = byPriority[i];
+            rank[p] = i;
+            productIds[i] = ids[p];
+            priceUnits[i] = Quantity.toUnits(prices[p]);
+            columns.codes[i] = codes[p];
+            columns.names[i] = names[p];
+            columns.prices[i] = prices[p];
+            columns.dailyCapacity[i] = capacities[p];
+            columns.productionDays[i] = days[p];
+        }
+        LongIntHashMap productIndex = new LongIntHashMap(products);
+        for (int p = 0; p < products; p++) {
+            productIndex.put(ids[p], p);
+            columns.productsById[p] = rank[p];
+        }
+
+        // BOM lines, read in id order, then grouped by product in priority order
+        int lineCount = count("product_material");
+        long[] readIds = new long[lineCount];
+        int[] readProduct = new int[lineCount];
+        int[] readMaterial = new int[lineCount];
+        int[] readQuantity = new int[lineCount];
+        int[] lineStart = new int[products + 1];
+        rows[0] = 0;
+        jdbcTemplate.query("SELECT id, product_id, raw_material_id, quantity_required FROM product_material ORDER BY id",
+                (RowCallbackHandler) rs -> {
+                    int l = rows[0];
+                    int product = productIndex.get(rs.getLong(2));
+                    if (l < lineCount && product != LongIntHashMap.MISSING) {
+                        readIds[l] = rs.getLong(1);
+                        readProduct[l] = rank[product];
+                        long materialId = rs.getLong(3);
+                        readMaterial[l] = rs.wasNull() ? LongIntHashMap.MISSING : materialIndex.get(materialId);
+                        readQuantity[l] = rs.getInt(4);
+                        readQuantity[l] = rs.wasNull() ? NO_VALUE : readQuantity[l];
+                        lineStart[rank[product] + 1]++;
+                        rows[0]++;
+                    }
+                });
+        int lines = rows[0];
+        for (int i = 0; i < products; i++) {
+            lineStart[i + 1] += lineStart[i];
+        }
+        int[] next = Arrays.copyOf(lineStart, products);
+        long[] lineIds = new long[lines];
+        int[] lineMaterial = new int[lines];
+        long[] lineRequired = new long[lines];
+        List<int[]> invalid = new ArrayList<>();
+        for (int r = 0; r < lines; r++) {
+            int l = next[readProduct[r]]++;
+            lineIds[l] = readIds[r];
+            if (readMaterial[r] == LongIntHashMap.MISSING || readQuantity[r] == NO_VALUE || readQuantity[r] <= 0) {
+                lineMaterial[l] = PlanningModel.INVALID_LINE;
+                invalid.add(new int[]{l, readMaterial[r], readQuantity[r]});
+            } else {
+                lineMaterial[l] = readMaterial[r];
+                lineRequired[l] = Quantity.of(readQuantity[r]).units();
+            }
+        }
+        invalid.sort(Comparator.comparingInt(line -> line[0]));
+        columns.invalidLines = invalid.stream().mapToInt(line -> line[0]).toArray();
+        columns.invalidMaterial = invalid.stream().mapToInt(line -> line[1]).toArray();
+        columns.invalidQuantity = invalid.stream().mapToInt(line -> line[2]).toArray();
+
+        PlanningModel planning = new PlanningModel(null, null, productIds, priceUnits, lineStart, lineMaterial,
+                lineRequired, Arrays.copyOf(materialIds, materials), stockUnits, materialIndex);
+        return new Catalog(version, structure, planning, columns, lineIds,
+                Arrays.copyOf(materialCodes, materials), Arrays.copyOf(materialNames, materials),
+                Arrays.copyOf(stock, materials));
+    }
+
+    private Catalog loadStock(Catalog previous, long version) {
+        Map<Object, Object> pool = new HashMap<>();
+        BigDecimal[] stock = previous.stock.clone();
+        long[] stockUnits = previous.planning.initialStock();
+        jdbcTemplate.query("SELECT id, stock_quantity FROM raw_material", (RowCallbackHandler) rs -> {
+            int m = previous.planning.materialIndex(rs.getLong(1));
+            if (m >= 0) {
+                stock[m] = dedup(pool, rs.getBigDecimal(2));
+                stockUnits[m] = Quantity.toUnits(stock[m]);
+            }
+        });
+        return new Catalog(version, previous.structure, previous.planning.withStock(stockUnits), previous.columns,
+                previous.lineIds, previous.materialCodes, previous.materialNames, stock);
+    }
+
+    private int count(String table) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * The instance equal to {@code value} seen first in this load.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T dedup(Map<Object, Object> pool, T value) {
+        return value == null ? null : (T) pool.computeIfAbsent(value, v -> v);
+    }
+
+    /**
+     * Product columns only needed to build entities, in priority order.
+     */
+    private static final class Columns {
+        final String[] codes;
+        final String[] names;
+        final BigDecimal[] prices;
+        final int[] dailyCapacity;
+        final int[] productionDays;
+        /** Priority index of the products in id order. */
+        final int[] productsById;
+        /** Lines with {@link PlanningModel#INVALID_LINE}, sorted, with their material index (or -1) and quantity. */
+        int[] invalidLines;
+        int[] invalidMaterial;
+        int[] invalidQuantity;
+
+        Columns(int products) {
+            codes = new String[products];
+            names = new String[products];
+            prices = new BigDecimal[products];
+            dailyCapacity = new int[products];
+            productionDays = new int[products];
+            productsById = new int[products];
+        }
+    }
+
+    /**
+     * One immutable load of the catalog; stock-only reloads share everything but the stock columns.
+     */
+    static final class Catalog {
+        final long version;
+        final long structure;
+        /** Planning arrays without entity lists. */
+        final PlanningModel planning;
+        final Columns columns;
+        final long[] lineIds;
+        final String[] materialCodes;
+        final String[] materialNames;
+        final BigDecimal[] stock;
+
+        Catalog(long version, long structure, PlanningModel planning, Columns columns, long[] lineIds,
+                String[] materialCodes, String[] materialNames, BigDecimal[] stock) {
+            this.version = version;
+            this.structure = structure;
+            this.planning = planning;
+            this.columns = columns;
+            this.lineIds = lineIds;
+            this.materialCodes = materialCodes;
+            this.materialNames = materialNames;
+            this.stock = stock;
+        }
+
+        View view() {
+            return new View(this);
+        }
+    }
+
+    /**
+     * Entities of one caller, built on first access, so BOM lines point at the same raw material
+     * instances as the material list. Not thread-safe, like the entities it hands out.
+     */
+    static final class View {
+        private final Catalog catalog;
+        private final PlanningModel planning;
+        private final Product[] products;
+        private final RawMaterial[] materials;
+
+        View(Catalog catalog) {
+            this.catalog = catalog;
+            this.planning = catalog.planning;
+            this.products = new Product[planning.productCount()];
+            this.materials = new RawMaterial[planning.materialCount()];
+        }
+
+        PlanningModel model() {
+            return planning.withEntities(new AbstractList<>() {
+                @Override
+                public Product get(int i) {
+                    return product(i);
+                }
+
+                @Override
+                public int size() {
+                    return products.length;
+                }
+            }, materials());
+        }
+
+        List<Product> productsById() {
+            int[] byId = catalog.columns.productsById;
+            return new AbstractList<>() {
+                @Override
+                public Product get(int k) {
+                    return product(byId[k]);
+                }
+
+                @Override
+                public int size() {
+                    return byId.length;
+                }
+            };
+        }
+
+        List<RawMaterial> materials() {
+            return new AbstractList<>() {
+                @Override
+                public RawMaterial get(int m) {
+                    return material(m);
+                }
+
+                @Override
+                public int size() {
+                    return materials.length;
+                }
+            };
+        }
+
+        private Product product(int i) {
+            Product product = products[i];
+            if (product != null) {
+                return product;
+            }
+            Columns columns = catalog.columns;
+            product = new Product();
+            product.setId(planning.productId(i));
+            product.setCode(columns.codes[i]);
+            product.setName(columns.names[i]);
+            product.setPrice(columns.prices[i]);
+            product.setDailyCapacity(columns.dailyCapacity[i] == NO_VALUE ? null : columns.dailyCapacity[i]);
+            product.setProductionDays(columns.productionDays[i] == NO_VALUE ? null : columns.productionDays[i]);
+            List<ProductMaterial> lines = new ArrayList<>(planning.lineEnd(i) - planning.lineStart(i));
+            for (int l = planning.lineStart(i); l < planning.lineEnd(i); l++) {
+                lines.add(line(product, l));
+            }
+            product.setMaterials(lines);
+            products[i] = product;
+            return product;
+        }
+
+        private ProductMaterial line(Product product, int l) {
+            ProductMaterial line = new ProductMaterial();
+            line.setId(catalog.lineIds[l]);
+            line.setProduct(product);
+            int material = planning.lineMaterial(l);
+            if (material != PlanningModel.INVALID_LINE) {
+                line.setRawMaterial(material(material));
+                line.setQuantityRequired((int) (planning.lineRequired(l) / Quantity.ONE));
+                return line;
+            }
+            Columns columns = catalog.columns;
+            int k = Arrays.binarySearch(columns.invalidLines, l);
+            material = columns.invalidMaterial[k];
+            line.setRawMaterial(material == LongIntHashMap.MISSING ? null : material(material));
+            line.setQuantityRequired(columns.invalidQuantity[k] == NO_VALUE ? null : columns.invalidQuantity[k]);
+            return line;
+        }
+
+        private RawMaterial material(int m) {
+            RawMaterial material = materials[m];
+            if (material == null) {
+                material = new RawMaterial();
+                material.setId(planning.materialId(m));
+                material.setCode(catalog.materialCodes[m]);
+                material.setName(catalog.materialNames[m]);
+                material.setStockQuantity(catalog.stock[m]);
+                materials[m] = material;
+            }
+            return material;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.projedata.inventory.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the planning data (products, BOM lines, stock), bumped after every committed write.
+ * Anything computed from that data can be keyed by the version it was computed from.
+ * <p>
+ * Writes that only change stock also report the new stock to {@link StockListener}s, and leave the
+ * {@linkplain #structure() structure version} alone so incremental consumers can skip a rebuild.
+ */
+@Component
+public class CatalogVersion {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogVersion.class);
+
+    /**
+     * Receives committed stock values, in {@link com.projedata.inventory.model.Quantity} units by raw material id.
+     * Concurrent commits may report in any order, so a value can be older than one received before it;
+     * listeners that keep stock should treat the ids as changed and read their stock again.
+     */
+    public interface StockListener {
+        void stockChanged(Map<Long, Long> stockUnits);
+    }
+
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong structure = new AtomicLong();
+    private final List<StockListener> listeners = new CopyOnWriteArrayList<>();
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Version of everything but stock quantities: products, BOM lines, and the set, codes and names of raw materials.
+     */
+    public long structure() {
+        return structure.get();
+    }
+
+    public long bump() {
+        structure.incrementAndGet();
+        return version.incrementAndGet();
+    }
+
+    /**
+     * Bumps the version once the current transaction commits.
+     */
+    public void bumpAfterCommit() {
+        AfterCommit.run(this::bump);
+    }
+
+    /**
+     * Bumps the version for a stock-only write once the current transaction commits
+     * and hands the new stock to the listeners.
+     */
+    public void stockChangedAfterCommit(Map<Long, Long> stockUnits) {
+        AfterCommit.run(() -> stockChanged(stockUnits));
+    }
+
+    /**
+     * Bumps the version for stock written elsewhere (e.g. another node) and hands it to the listeners.
+     */
+    public void stockChanged(Map<Long, Long> stockUnits) {
+        version.incrementAndGet();
+        for (StockListener listener : listeners) {
+            try {
+                listener.stockChanged(stockUnits);
+            } catch (RuntimeException e) {
+                log.warn("Stock listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    public void addStockListener(StockListener listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,317 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.model.Quantity;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the in-memory state of this node (stock ledger, {@link CatalogVersion} and everything keyed by it)
+ * in step with writes made through other nodes, using PostgreSQL {@code LISTEN/NOTIFY}.
+ * <p>
+ * Statement-level triggers on {@code product}, {@code product_material} and {@code raw_material} notify
+ * the channel, raw materials with the ids a statement touched; PostgreSQL delivers the notifications
+ * only once the writing transaction commits. A dedicated connection listens, opened with the
+ * {@code spring.datasource} and {@code spring.datasource.hikari} settings but outside the application
+ * pool, and each burst is coalesced into one version bump and one stock update. Notifications only say which raw materials changed: their stock is read again from
+ * the database, so the values applied are the latest committed ones whatever order bursts arrive in.
+ * After (re)connecting, all stock is read again to cover anything missed meanwhile. Writes made by
+ * this node come back too; applying them again is harmless, as stock values are absolute.
+ * <p>
+ * Enabled with {@code inventory.cluster.notify.enabled=true}.
+ */
+@Service
+@Lazy(false)
+@ConditionalOnProperty(prefix = "inventory.cluster.notify", name = "enabled", havingValue = "true")
+public class ClusterChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterChangeListener.class);
+
+    /** Longest a single wait for notifications blocks, so shutdown is noticed. */
+    private static final int POLL_MILLIS = 1000;
+    private static final int MAX_BATCH = 10_000;
+    private static final long RETRY_MILLIS = 5000;
+    /** Ids per raw material notification, so a payload stays well below PostgreSQL's 8000 byte limit. */
+    private static final int IDS_PER_NOTIFICATION = 300;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final Environment environment;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RawMaterialRepository materialRepository;
+    private final StockReservationService reservations;
+    private final CatalogVersion catalogVersion;
+    private final String channel;
+    private final int batchWindowMillis;
+    private final boolean installTriggers;
+
+    private volatile boolean running;
+    private Thread thread;
+    private HikariDataSource listenerDataSource;
+
+    public ClusterChangeListener(DataSourceProperties dataSourceProperties, Environment environment, JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager, RawMaterialRepository materialRepository,
+                                 StockReservationService reservations, CatalogVersion catalogVersion,
+                                 @Value("${inventory.cluster.notify.channel:inventory_changes}") String channel,
+                                 @Value("${inventory.cluster.notify.batch-window-millis:20}") int batchWindowMillis,
+                                 @Value("${inventory.cluster.notify.install-triggers:true}") boolean installTriggers) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid notification channel: " + channel);
+        }
+        this.dataSourceProperties = dataSourceProperties;
+        this.environment = environment;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.materialRepository = materialRepository;
+        this.reservations = reservations;
+        this.catalogVersion = catalogVersion;
+        this.channel = channel;
+        this.batchWindowMillis = batchWindowMillis;
+        this.installTriggers = installTriggers;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (installTriggers) {
+            installTriggers();
+        }
+        listenerDataSource = listenerDataSource();
+        running = true;
+        thread = new Thread(this::listen, "cluster-change-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(POLL_MILLIS * 2L);
+        }
+        if (listenerDataSource != null) {
+            listenerDataSource.close();
+        }
+    }
+
+    /**
+     * A pool of one connection for LISTEN, with the same {@code spring.datasource.hikari} settings as the
+     * application pool (timeouts, driver properties) and auto-commit on.
+     */
+    private HikariDataSource listenerDataSource() {
+        HikariDataSource pool = new HikariDataSource();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName("cluster-listener");
+        pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        pool.setJdbcUrl(dataSourceProperties.determineUrl());
+        pool.setUsername(dataSourceProperties.determineUsername());
+        pool.setPassword(dataSourceProperties.determinePassword());
+        pool.setMaximumPoolSize(1);
+        pool.setMinimumIdle(0);
+        pool.setAutoCommit(true);
+        return pool;
+    }
+
+    /**
+     * Creates or replaces the notification triggers. Serialized across nodes with an advisory lock.
+     */
+    void installTriggers() {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute((Statement statement) -> {
+            statement.execute("SELECT pg_advisory_xact_lock(hashtext('" + channel + "'))");
+            statement.execute("""
+                    CREATE OR REPLACE FUNCTION %1$s_catalog() RETURNS trigger AS $$
+                    BEGIN
+                        PERFORM pg_notify('%1$s', TG_TABLE_NAME);
+                        RETURN NULL;
+                    END $$ LANGUAGE plpgsql""".formatted(channel));
+            // Raw material ids of a statement, from its transition table, in as few notifications as fit;
+            // an update that renames or re-codes any material is sent as A, as it changes the catalog structure
+            statement.execute("""
+                    CREATE OR REPLACE FUNCTION %1$s_stock() RETURNS trigger AS $$
+                    DECLARE
+                        op text := left(TG_OP, 1);
+                        ids text;
+                    BEGIN
+                        IF TG_OP = 'UPDATE' AND EXISTS (
+                                SELECT 1 FROM changed_rows n JOIN old_rows o ON o.id = n.id
+                                WHERE o.code IS DISTINCT FROM n.code OR o.name IS DISTINCT FROM n.name) THEN
+                            op := 'A';
+                        END IF;
+                        FOR ids IN
+                            SELECT string_agg(id::text, ' ')
+                            FROM (SELECT id, (row_number() OVER (ORDER BY id) - 1) / %2$d AS chunk FROM changed_rows) numbered
+                            GROUP BY chunk
+                        LOOP
+                            PERFORM pg_notify('%1$s', 'raw_material,' || op || ',' || ids);
+                        END LOOP;
+                        RETURN NULL;
+                    END $$ LANGUAGE plpgsql""".formatted(channel, IDS_PER_NOTIFICATION));
+            // Catalog tables only need to say that something changed: one notification per statement,
+            // and PostgreSQL folds identical ones within a transaction
+            for (String table : List.of("product", "product_material")) {
+                statement.execute("DROP TRIGGER IF EXISTS %1$s_notify ON %2$s".formatted(channel, table));
+                statement.execute(("CREATE TRIGGER %1$s_notify AFTER INSERT OR UPDATE OR DELETE ON %2$s "
+                        + "FOR EACH STATEMENT EXECUTE FUNCTION %1$s_catalog()").formatted(channel, table));
+            }
+            // A trigger with a transition table handles a single event, so one per event
+            statement.execute("DROP TRIGGER IF EXISTS %1$s_notify ON raw_material".formatted(channel));
+            for (String event : List.of("INSERT", "UPDATE", "DELETE")) {
+                statement.execute("DROP TRIGGER IF EXISTS %1$s_notify_%2$s ON raw_material"
+                        .formatted(channel, event.toLowerCase()));
+                statement.execute(("CREATE TRIGGER %1$s_notify_%2$s AFTER %3$s ON raw_material "
+                        + "REFERENCING %4$s FOR EACH STATEMENT EXECUTE FUNCTION %1$s_stock()")
+                        .formatted(channel, event.toLowerCase(), event, switch (event) {
+                            case "UPDATE" -> "OLD TABLE AS old_rows NEW TABLE AS changed_rows";
+                            case "DELETE" -> "OLD TABLE AS changed_rows";
+                            default -> "NEW TABLE AS changed_rows";
+                        }));
+            }
+            return null;
+        }));
+        log.info("Change notification triggers installed on channel {}", channel);
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = listenerDataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                resync();
+                log.info("Listening for cluster changes on channel {}", channel);
+
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_MILLIS);
+                    if (notifications == null || notifications.length == 0) {
+                        continue;
+                    }
+                    List<String> payloads = new ArrayList<>();
+                    addPayloads(payloads, notifications);
+                    // Gather the rest of the burst before applying it
+                    while (payloads.size() < MAX_BATCH) {
+                        notifications = pg.getNotifications(batchWindowMillis);
+                        if (notifications == null || notifications.length == 0) {
+                            break;
+                        }
+                        addPayloads(payloads, notifications);
+                    }
+                    apply(payloads);
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cluster change listener disconnected, retrying in {} ms: {}", RETRY_MILLIS, e.getMessage());
+                try {
+                    Thread.sleep(RETRY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void addPayloads(List<String> payloads, PGNotification[] notifications) {
+        for (PGNotification notification : notifications) {
+            payloads.add(notification.getParameter());
+        }
+    }
+
+    /**
+     * Reloads all stock and bumps the version, for changes made while nobody was listening. Raw materials
+     * the ledger knew before the reload and the database no longer has were deleted in the meantime.
+     */
+    public void resync() {
+        Set<Long> known = reservations.materialIds();
+        Map<Long, BigDecimal> stock = new HashMap<>();
+        jdbcTemplate.query("SELECT id, stock_quantity FROM raw_material",
+                row -> { stock.put(row.getLong(1), row.getBigDecimal(2)); });
+        stock.forEach(reservations::stockChanged);
+        for (Long id : known) {
+            if (!stock.containsKey(id)) {
+                reservations.materialRemoved(id);
+            }
+        }
+        catalogVersion.bump();
+    }
+
+    /**
+     * Applies one burst of notification payloads: {@code product}, {@code product_material}, or
+     * {@code raw_material,<I|U|A|D>,<ids separated by spaces>}, where A is an update that changed a code
+     * or name. The stock of inserted and updated raw materials is read from the database.
+     */
+    public void apply(List<String> payloads) {
+        boolean structural = false;
+        Set<Long> changed = new LinkedHashSet<>();
+        Set<Long> removed = new LinkedHashSet<>();
+        for (String payload : payloads) {
+            String[] parts = payload.split(",");
+            if (!parts[0].equals("raw_material")) {
+                structural = true;
+                continue;
+            }
+            for (String value : parts[2].split(" ")) {
+                long id = Long.parseLong(value);
+                if (parts[1].equals("D")) {
+                    changed.remove(id);
+                    removed.add(id);
+                    structural = true;
+                } else {
+                    changed.add(id);
+                    removed.remove(id);
+                    structural |= !parts[1].equals("U");
+                }
+            }
+        }
+
+        Map<Long, BigDecimal> stock = new LinkedHashMap<>();
+        if (!changed.isEmpty()) {
+            for (Object[] row : materialRepository.findStockByIds(changed)) {
+                stock.put((Long) row[0], (BigDecimal) row[1]);
+            }
+        }
+
+        removed.forEach(reservations::materialRemoved);
+        stock.forEach(reservations::stockChanged);
+        if (structural) {
+            catalogVersion.bump();
+        }
+        if (!stock.isEmpty()) {
+            Map<Long, Long> stockUnits = new LinkedHashMap<>();
+            stock.forEach((id, quantity) -> stockUnits.put(id, Quantity.toUnits(quantity)));
+            catalogVersion.stockChanged(stockUnits);
+        }
+        log.debug("Applied {} change notifications", payloads.size());
+    }
+}
@@ -0,0 +1,15 @@
+package com.projedata.inventory.service;
+
+/**
+ * LIKE patterns for code filters, escaped with {@code !} as the repository queries expect.
+ */
+public final class CodePatterns {
+
+    private CodePatterns() {
+    }
+
+    /** Matches codes starting with {@code prefix}, taken literally. */
+    public static String startingWith(String prefix) {
+        return prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+}
@@ -0,0 +1,57 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.DeliveryLine;
+import com.projedata.inventory.model.MaterialDelivery;
+import com.projedata.inventory.model.RawMaterial;
+import com.projedata.inventory.repository.MaterialDeliveryRepository;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Expected raw material deliveries, used by the production schedule.
+ */
+@Service
+public class DeliveryService {
+
+    private final MaterialDeliveryRepository deliveryRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+
+    public DeliveryService(MaterialDeliveryRepository deliveryRepository, RawMaterialRepository rawMaterialRepository) {
+        this.deliveryRepository = deliveryRepository;
+        this.rawMaterialRepository = rawMaterialRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<DeliveryLine> findFrom(LocalDate from) {
+        return deliveryRepository.findLinesFrom(from);
+    }
+
+    @Transactional
+    public DeliveryLine create(DeliveryLine delivery) {
+        if (delivery.rawMaterialId() == null || delivery.quantity() == null || delivery.expectedDate() == null) {
+            throw new RuntimeException("Deliveries need a raw material, a quantity and an expected date");
+        }
+        if (delivery.quantity().units() <= 0) {
+            throw new RuntimeException("Delivery quantity must be positive");
+        }
+        RawMaterial material = rawMaterialRepository.findById(delivery.rawMaterialId())
+                .orElseThrow(() -> new RuntimeException("Raw material not found"));
+
+        MaterialDelivery created = new MaterialDelivery();
+        created.setRawMaterial(material);
+        created.setQuantity(delivery.quantity());
+        created.setExpectedDate(delivery.expectedDate());
+        deliveryRepository.save(created);
+        return new DeliveryLine(created.getId(), material.getId(), material.getCode(), material.getName(),
+                created.getQuantity(), created.getExpectedDate());
+    }
+
+    @Transactional
+    public void delete(Long id) {
+        deliveryRepository.deleteById(id);
+    }
+}
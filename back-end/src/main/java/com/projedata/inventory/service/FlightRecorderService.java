@@ -0,0 +1,127 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.RecordingView;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * On-demand Java Flight Recorder recordings of this instance: one at a time, always bounded in
+ * duration and size. The recording includes the planner and repository events next to the JVM's own.
+ * Enabled with {@code inventory.jfr.endpoint.enabled=true}.
+ */
+@Service
+@ConditionalOnProperty(prefix = "inventory.jfr.endpoint", name = "enabled", havingValue = "true")
+public class FlightRecorderService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+
+    /** The current or last recording; guarded by this. */
+    private Recording recording;
+    private String settings;
+    private boolean productEvents;
+
+    public FlightRecorderService(@Value("${inventory.jfr.max-duration-seconds:300}") long maxDurationSeconds,
+                                 @Value("${inventory.jfr.max-size-mb:100}") long maxSizeMb) {
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    /**
+     * Starts a recording with the JDK's {@code default} or {@code profile} settings. It stops by itself
+     * after {@code duration} (capped at {@code inventory.jfr.max-duration-seconds}); the oldest data is
+     * dropped beyond {@code inventory.jfr.max-size-mb}.
+     */
+    public synchronized RecordingView start(Duration duration, String settings, boolean productEvents) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new RecordingStateException("A recording is already running");
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new RuntimeException("Unknown recording settings: " + settings);
+        }
+
+        if (recording != null) {
+            recording.close();
+        }
+        Duration bounded = duration == null || duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0
+                ? maxDuration : duration;
+        Recording started = new Recording(configuration);
+        started.setName("inventory-diagnostics");
+        started.setToDisk(true);
+        started.setDuration(bounded);
+        started.setMaxSize(maxSizeBytes);
+        if (productEvents) {
+            started.enable(PlannerProductEvent.class);
+        }
+        started.start();
+
+        recording = started;
+        this.settings = settings;
+        this.productEvents = productEvents;
+        log.info("JFR recording {} started for {} with '{}' settings", started.getId(), bounded, settings);
+        return view();
+    }
+
+    public synchronized RecordingView stop() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            throw new RecordingStateException("No recording is running");
+        }
+        recording.stop();
+        log.info("JFR recording {} stopped", recording.getId());
+        return view();
+    }
+
+    public synchronized Optional<RecordingView> find() {
+        return recording == null ? Optional.empty() : Optional.of(view());
+    }
+
+    /**
+     * Writes what the current or last recording holds to a new temporary file, which the caller deletes.
+     */
+    public synchronized Path dump() {
+        if (recording == null || recording.getState() == RecordingState.NEW || recording.getState() == RecordingState.CLOSED) {
+            throw new RecordingStateException("No recording to download");
+        }
+        try {
+            Path file = Files.createTempFile("inventory-", ".jfr");
+            recording.dump(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private RecordingView view() {
+        return new RecordingView(recording.getId(), recording.getName(), recording.getState().name(), settings,
+                recording.getStartTime(), recording.getStopTime(), recording.getDuration(), recording.getMaxSize(),
+                productEvents);
+    }
+}
@@ -0,0 +1,180 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.PlanDiff;
+import com.projedata.inventory.dto.StockReading;
+import com.projedata.inventory.model.Product;
+import com.projedata.inventory.model.Quantity;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Keeps the last production plan and updates it when raw material stock changes. Products
+ * before the first one (in priority order) that uses a changed material cannot be affected,
+ * so their allocation is reused and only the rest of the order is allocated again.
+ * <p>
+ * Committed stock writes arrive through {@link CatalogVersion}, but only mark their raw materials
+ * as changed: the callbacks of concurrent commits may run in any order, so the values they carry
+ * can be older than what is in the database. The next call reads the stock of the changed materials
+ * again and replans from it. Any other catalog write changes the structure version and the next call
+ * rebuilds the plan from the database.
+ */
+@Service
+public class IncrementalPlanner implements CatalogVersion.StockListener {
+
+    private static final Logger log = LoggerFactory.getLogger(IncrementalPlanner.class);
+
+    private final ProductionService productionService;
+    private final RawMaterialRepository materialRepository;
+    private final CatalogVersion catalogVersion;
+
+    private PlanningModel model;
+    private long structure;
+    /** Stock before allocation, kept up to date with committed writes. */
+    private long[] stock;
+    private int[] producible;
+    private PlanDiff latest;
+    /** Raw materials whose stock changed since it was last read. */
+    private final Set<Long> changed = new LinkedHashSet<>();
+
+    public IncrementalPlanner(ProductionService productionService, RawMaterialRepository materialRepository,
+                              CatalogVersion catalogVersion) {
+        this.productionService = productionService;
+        this.materialRepository = materialRepository;
+        this.catalogVersion = catalogVersion;
+        catalogVersion.addStockListener(this);
+    }
+
+    /**
+     * Marks the raw materials of a committed stock write as changed. Ignored until a plan has been
+     * built, or when the catalog changed since, as the next call rebuilds from the database anyway.
+     */
+    @Override
+    public synchronized void stockChanged(Map<Long, Long> stockUnits) {
+        if (model == null || structure != catalogVersion.structure()) {
+            return;
+        }
+        changed.addAll(stockUnits.keySet());
+    }
+
+    /**
+     * What the plan would look like with the given stock, without applying it.
+     */
+    public synchronized PlanDiff preview(List<StockReading> readings) {
+        ensureCurrent();
+        Map<Long, Long> stockUnits = new LinkedHashMap<>();
+        for (StockReading reading : readings) {
+            if (reading.rawMaterialId() == null || reading.stockQuantity() == null) {
+                throw new RuntimeException("Stock readings need a raw material and a quantity");
+            }
+            stockUnits.put(reading.rawMaterialId(), Quantity.toUnits(reading.stockQuantity()));
+        }
+        return replan(stockUnits, false);
+    }
+
+    /**
+     * Producible quantity by product id, in priority order.
+     */
+    public synchronized Map<Long, Integer> quantities() {
+        ensureCurrent();
+        Map<Long, Integer> quantities = new LinkedHashMap<>(producible.length * 2);
+        for (int i = 0; i < producible.length; i++) {
+            quantities.put(model.productId(i), producible[i]);
+        }
+        return quantities;
+    }
+
+    /**
+     * The last committed stock change that moved the plan, if any since the last rebuild.
+     */
+    public synchronized Optional<PlanDiff> latest() {
+        ensureCurrent();
+        return Optional.ofNullable(latest);
+    }
+
+    private void ensureCurrent() {
+        long current = catalogVersion.structure();
+        if (model != null && structure == current) {
+            if (!changed.isEmpty()) {
+                applyChangedStock();
+            }
+            return;
+        }
+        changed.clear();
+        model = productionService.buildModel();
+        structure = current;
+        stock = model.initialStock();
+        producible = new int[model.productCount()];
+        model.allocate(model.initialStock(), producible);
+        latest = null;
+    }
+
+    /**
+     * Reads the stock of the changed raw materials and applies it to the kept plan.
+     */
+    private void applyChangedStock() {
+        List<Long> ids = new ArrayList<>(changed);
+        changed.clear();
+        Map<Long, Long> stockUnits = new LinkedHashMap<>(ids.size() * 2);
+        for (Object[] row : materialRepository.findStockByIds(ids)) {
+            stockUnits.put((Long) row[0], Quantity.toUnits((BigDecimal) row[1]));
+        }
+        PlanDiff diff = replan(stockUnits, true);
+        if (!diff.changes().isEmpty()) {
+            latest = diff;
+        }
+        log.debug("Replanned from product {} of {}: {} changed", diff.replannedFrom(), diff.productCount(),
+                diff.changes().size());
+    }
+
+    private PlanDiff replan(Map<Long, Long> stockUnits, boolean apply) {
+        long[] nextStock = stock.clone();
+        int from = model.productCount();
+        for (Map.Entry<Long, Long> entry : stockUnits.entrySet()) {
+            int m = model.materialIndex(entry.getKey());
+            if (m >= 0 && nextStock[m] != entry.getValue()) {
+                nextStock[m] = entry.getValue();
+                from = Math.min(from, model.firstUser(m));
+            }
+        }
+
+        int[] nextProducible = producible;
+        List<PlanDiff.Change> changes = new ArrayList<>();
+        if (from < model.productCount()) {
+            // Replay what the untouched prefix consumed, then allocate the rest again
+            long[] remaining = nextStock.clone();
+            for (int i = 0; i < from; i++) {
+                if (producible[i] > 0) {
+                    model.consume(i, producible[i], remaining);
+                }
+            }
+            nextProducible = producible.clone();
+            model.allocate(from, remaining, nextProducible);
+
+            List<Product> products = model.getProducts();
+            for (int i = from; i < nextProducible.length; i++) {
+                if (nextProducible[i] != producible[i]) {
+                    Product product = products.get(i);
+                    changes.add(new PlanDiff.Change(product.getId(), product.getCode(), product.getName(),
+                            producible[i], nextProducible[i]));
+                }
+            }
+        }
+
+        if (apply) {
+            stock = nextStock;
+            producible = nextProducible;
+        }
+        return new PlanDiff(from, model.productCount(), changes);
+    }
+}
@@ -0,0 +1,15 @@
+package com.projedata.inventory.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * All plan workers are busy and the job queue is full.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PlanJobRejectedException extends RuntimeException {
+
+    public PlanJobRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,46 @@
+package com.projedata.inventory.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one phase of a production plan: {@code snapshot} (model decoded from the warm-start
+ * snapshot), {@code load} (catalog and stock queries), {@code build} (the BOM matrix), {@code allocate}
+ * (per-product evaluation and stock consumption) and {@code results} (response rows).
+ */
+@Name("com.projedata.inventory.PlannerPhase")
+@Label("Planner Phase")
+@Category({"Inventory", "Planner"})
+@Description("A phase of a production plan")
+@StackTrace(false)
+public class PlannerPhaseEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Products")
+    int products;
+
+    @Label("Materials")
+    int materials;
+
+    static PlannerPhaseEvent start(String phase) {
+        PlannerPhaseEvent event = new PlannerPhaseEvent();
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+
+    void finish(int products, int materials) {
+        end();
+        if (shouldCommit()) {
+            this.products = products;
+            this.materials = materials;
+            commit();
+        }
+    }
+}
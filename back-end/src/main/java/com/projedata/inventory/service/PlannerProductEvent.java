@@ -0,0 +1,31 @@
+package com.projedata.inventory.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for the allocation of a single product. Off by default, as a large catalog emits one per
+ * product and plan; enable it for a recording to find the products that dominate the allocate phase.
+ */
+@Name("com.projedata.inventory.PlannerProduct")
+@Label("Planner Product")
+@Category({"Inventory", "Planner"})
+@Description("Evaluation and allocation of one product in a production plan")
+@StackTrace(false)
+@Enabled(false)
+public class PlannerProductEvent extends Event {
+
+    @Label("Product Id")
+    long productId;
+
+    @Label("BOM Lines")
+    int lines;
+
+    @Label("Producible Quantity")
+    int quantity;
+}
@@ -0,0 +1,334 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.model.Product;
+import com.projedata.inventory.model.ProductMaterial;
+import com.projedata.inventory.model.Quantity;
+import com.projedata.inventory.model.RawMaterial;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Planning data compiled into flat arrays: products in priority order (highest price first),
+ * their BOM lines in CSR layout ({@code lineStart[i]..lineStart[i + 1]}) and the stock of every
+ * raw material, all as {@link Quantity} units. Built once per plan so the allocation loop only
+ * touches primitives. The reverse index ({@code usersStart[m]..usersStart[m + 1]}) lists the products
+ * using each material, in priority order.
+ */
+public final class PlanningModel {
+
+    /** Producible quantity reported for products without a bill of materials. */
+    public static final int UNBOUNDED_QUANTITY = 999;
+
+    /** Material index of lines that can never be satisfied (unknown material or no positive quantity). */
+    public static final int INVALID_LINE = -1;
+
+    private final List<Product> products;
+    private final List<RawMaterial> materials;
+    private final long[] productIds;
+    private final long[] priceUnits;
+    private final int[] lineStart;
+    private final int[] lineMaterial;
+    private final long[] lineRequired;
+    private final long[] materialIds;
+    private final long[] initialStock;
+    private final LongIntHashMap materialIndex;
+    private final int[] usersStart;
+    private final int[] users;
+
+    /**
+     * Wraps already compiled arrays, which the model shares rather than copies, and derives the reverse index.
+     * {@code products} and {@code materials} must be in the same order as the arrays.
+     */
+    PlanningModel(List<Product> products, List<RawMaterial> materials, long[] productIds, long[] priceUnits,
+                  int[] lineStart, int[] lineMaterial, long[] lineRequired,
+                  long[] materialIds, long[] initialStock, LongIntHashMap materialIndex) {
+        this.products = products;
+        this.materials = materials;
+        this.productIds = productIds;
+        this.priceUnits = priceUnits;
+        this.lineStart = lineStart;
+        this.lineMaterial = lineMaterial;
+        this.lineRequired = lineRequired;
+        this.materialIds = materialIds;
+        this.initialStock = initialStock;
+        this.materialIndex = materialIndex;
+
+        // Reverse index: count distinct users per material, then fill in product order so each run is sorted
+        int productCount = productIds.length;
+        int materialCount = materialIds.length;
+        usersStart = new int[materialCount + 1];
+        int[] lastUser = new int[materialCount];
+        Arrays.fill(lastUser, -1);
+        for (int i = 0; i < productCount; i++) {
+            for (int l = lineStart[i]; l < lineStart[i + 1]; l++) {
+                int material = lineMaterial[l];
+                if (material != INVALID_LINE && lastUser[material] != i) {
+                    lastUser[material] = i;
+                    usersStart[material + 1]++;
+                }
+            }
+        }
+        for (int m = 0; m < materialCount; m++) {
+            usersStart[m + 1] += usersStart[m];
+        }
+        users = new int[usersStart[materialCount]];
+        int[] next = Arrays.copyOf(usersStart, materialCount);
+        Arrays.fill(lastUser, -1);
+        for (int i = 0; i < productCount; i++) {
+            for (int l = lineStart[i]; l < lineStart[i + 1]; l++) {
+                int material = lineMaterial[l];
+                if (material != INVALID_LINE && lastUser[material] != i) {
+                    lastUser[material] = i;
+                    users[next[material]++] = i;
+                }
+            }
+        }
+    }
+
+    private PlanningModel(PlanningModel source, List<Product> products, List<RawMaterial> materials,
+                          long[] initialStock) {
+        this.products = products;
+        this.materials = materials;
+        this.productIds = source.productIds;
+        this.priceUnits = source.priceUnits;
+        this.lineStart = source.lineStart;
+        this.lineMaterial = source.lineMaterial;
+        this.lineRequired = source.lineRequired;
+        this.materialIds = source.materialIds;
+        this.initialStock = initialStock;
+        this.materialIndex = source.materialIndex;
+        this.usersStart = source.usersStart;
+        this.users = source.users;
+    }
+
+    public static PlanningModel build(List<Product> products, List<RawMaterial> materials) {
+        List<Product> ordered = products.stream()
+                .sorted(Comparator.comparing(Product::getPrice).reversed())
+                .toList();
+
+        int materialCount = materials == null ? 0 : materials.size();
+        long[] materialIds = new long[materialCount];
+        long[] initialStock = new long[materialCount];
+        LongIntHashMap materialIndex = new LongIntHashMap(materialCount);
+        for (int m = 0; m < materialCount; m++) {
+            RawMaterial material = materials.get(m);
+            materialIds[m] = material.getId();
+            initialStock[m] = Quantity.toUnits(material.getStockQuantity());
+            materialIndex.put(material.getId(), m);
+        }
+
+        int productCount = ordered.size();
+        long[] productIds = new long[productCount];
+        long[] priceUnits = new long[productCount];
+        int[] lineStart = new int[productCount + 1];
+        int lineCount = 0;
+        for (int i = 0; i < productCount; i++) {
+            Product product = ordered.get(i);
+            productIds[i] = product.getId() == null ? 0 : product.getId();
+            priceUnits[i] = Quantity.toUnits(product.getPrice());
+            lineStart[i] = lineCount;
+            lineCount += product.getMaterials() == null ? 0 : product.getMaterials().size();
+        }
+        lineStart[productCount] = lineCount;
+
+        int[] lineMaterial = new int[lineCount];
+        long[] lineRequired = new long[lineCount];
+        for (int i = 0; i < productCount; i++) {
+            List<ProductMaterial> lines = ordered.get(i).getMaterials();
+            for (int l = lineStart[i]; l < lineStart[i + 1]; l++) {
+                ProductMaterial pm = lines.get(l - lineStart[i]);
+                int index = pm.getRawMaterial() == null ? LongIntHashMap.MISSING : materialIndex.get(pm.getRawMaterial().getId());
+                if (index == LongIntHashMap.MISSING || pm.getQuantityRequired() == null || pm.getQuantityRequired() <= 0) {
+                    lineMaterial[l] = INVALID_LINE;
+                } else {
+                    lineMaterial[l] = index;
+                    lineRequired[l] = Quantity.of(pm.getQuantityRequired()).units();
+                }
+            }
+        }
+
+        return new PlanningModel(ordered, materials == null ? List.of() : materials, productIds, priceUnits, lineStart, lineMaterial, lineRequired,
+                materialIds, initialStock, materialIndex);
+    }
+
+    /**
+     * This model with other entity lists, in the same order; all arrays are shared.
+     */
+    PlanningModel withEntities(List<Product> products, List<RawMaterial> materials) {
+        return new PlanningModel(this, products, materials, initialStock);
+    }
+
+    /**
+     * This model with other stock, in material index order; all other arrays are shared.
+     */
+    PlanningModel withStock(long[] initialStock) {
+        return new PlanningModel(this, products, materials, initialStock);
+    }
+
+    /**
+     * Greedy allocation in priority order: every product takes as many units as the remaining stock allows.
+     * Fills {@code producible} and consumes {@code stock}; allocates nothing.
+     */
+    public void allocate(long[] stock, int[] producible) {
+        allocate(0, stock, producible);
+    }
+
+    /**
+     * Same as {@link #allocate(long[], int[])} but starting at product {@code from},
+     * with {@code stock} holding what is left after the products before it.
+     */
+    public void allocate(int from, long[] stock, int[] producible) {
+        allocate(from, productIds.length, stock, producible);
+    }
+
+    /**
+     * Allocates products {@code from} (inclusive) to {@code to} (exclusive) only,
+     * so long plans can be run in slices.
+     */
+    public void allocate(int from, int to, long[] stock, int[] producible) {
+        for (int i = from; i < to; i++) {
+            int quantity = maxProducible(i, stock);
+            producible[i] = quantity;
+            if (quantity > 0) {
+                consume(i, quantity, stock);
+            }
+        }
+    }
+
+    /**
+     * How many units of product {@code i} the given stock allows.
+     */
+    public int maxProducible(int i, long[] stock) {
+        int start = lineStart[i];
+        int end = lineStart[i + 1];
+        if (start == end) {
+            return UNBOUNDED_QUANTITY;
+        }
+
+        int max = Integer.MAX_VALUE;
+        for (int l = start; l < end; l++) {
+            int material = lineMaterial[l];
+            if (material == INVALID_LINE) {
+                return 0;
+            }
+            max = Math.min(max, Quantity.fits(stock[material], lineRequired[l]));
+            if (max == 0) {
+                return 0;
+            }
+        }
+        return max;
+    }
+
+    /**
+     * The BOM line of product {@code i} that limits it under the given stock (the first one on ties),
+     * or -1 when it has no bill of materials. May be an {@link #INVALID_LINE} line.
+     */
+    public int bindingLine(int i, long[] stock) {
+        int binding = -1;
+        int min = Integer.MAX_VALUE;
+        for (int l = lineStart[i]; l < lineStart[i + 1]; l++) {
+            int material = lineMaterial[l];
+            if (material == INVALID_LINE) {
+                return l;
+            }
+            int fits = Quantity.fits(stock[material], lineRequired[l]);
+            if (fits < min) {
+                min = fits;
+                binding = l;
+            }
+        }
+        return binding;
+    }
+
+    public void consume(int i, int quantity, long[] stock) {
+        for (int l = lineStart[i]; l < lineStart[i + 1]; l++) {
+            int material = lineMaterial[l];
+            if (material != INVALID_LINE) {
+                stock[material] = Math.subtractExact(stock[material], Math.multiplyExact(lineRequired[l], quantity));
+            }
+        }
+    }
+
+    /**
+     * Fresh copy of the stock the model was built with.
+     */
+    public long[] initialStock() {
+        return initialStock.clone();
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    /**
+     * Raw materials in model index order.
+     */
+    public List<RawMaterial> getMaterials() {
+        return materials;
+    }
+
+    public int productCount() {
+        return productIds.length;
+    }
+
+    public int materialCount() {
+        return materialIds.length;
+    }
+
+    public long productId(int i) {
+        return productIds[i];
+    }
+
+    public long priceUnits(int i) {
+        return priceUnits[i];
+    }
+
+    public int lineStart(int i) {
+        return lineStart[i];
+    }
+
+    public int lineEnd(int i) {
+        return lineStart[i + 1];
+    }
+
+    public int lineMaterial(int line) {
+        return lineMaterial[line];
+    }
+
+    public long lineRequired(int line) {
+        return lineRequired[line];
+    }
+
+    public long materialId(int m) {
+        return materialIds[m];
+    }
+
+    /**
+     * First product, in priority order, with a BOM line on material {@code m};
+     * {@link #productCount()} when no product uses it.
+     */
+    public int firstUser(int m) {
+        return usersStart[m] == usersStart[m + 1] ? productIds.length : users[usersStart[m]];
+    }
+
+    public int usersStart(int m) {
+        return usersStart[m];
+    }
+
+    public int usersEnd(int m) {
+        return usersStart[m + 1];
+    }
+
+    public int user(int u) {
+        return users[u];
+    }
+
+    /**
+     * Index of the raw material with the given id, or -1 when it is not part of the model.
+     */
+    public int materialIndex(Long materialId) {
+        return materialId == null ? -1 : materialIndex.get(materialId);
+    }
+}
@@ -0,0 +1,101 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.ProductionTarget;
+import com.projedata.inventory.dto.PurchaseLine;
+import com.projedata.inventory.model.Quantity;
+import com.projedata.inventory.model.RawMaterial;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The inverse of the production plan: what has to be bought to make a given set of products.
+ * Targets are summed per product first, then BOM requirements are accumulated per material over
+ * the {@link PlanningModel} arrays, so a material shared by many products appears once.
+ */
+@Service
+public class ProcurementService {
+
+    private final ProductionService productionService;
+
+    public ProcurementService(ProductionService productionService) {
+        this.productionService = productionService;
+    }
+
+    public List<PurchaseLine> requirements(List<ProductionTarget> targets) {
+        return requirements(productionService.buildModel(), targets);
+    }
+
+    /**
+     * Purchase list for {@code targets}, largest shortage value first. Materials already in stock are left out.
+     */
+    public List<PurchaseLine> requirements(PlanningModel model, List<ProductionTarget> targets) {
+        Map<Long, Integer> productIndex = new HashMap<>(model.productCount() * 2);
+        for (int i = 0; i < model.productCount(); i++) {
+            productIndex.put(model.productId(i), i);
+        }
+
+        long[] quantity = new long[model.productCount()];
+        for (ProductionTarget target : targets) {
+            if (target.productId() == null || target.quantity() == null || target.quantity() < 0) {
+                throw new RuntimeException("Targets need a product and a quantity that is not negative");
+            }
+            Integer i = productIndex.get(target.productId());
+            if (i == null) {
+                throw new RuntimeException("Product not found");
+            }
+            quantity[i] = Math.addExact(quantity[i], target.quantity());
+        }
+
+        // Required units and the value of targeted production depending on each material
+        long[] required = new long[model.materialCount()];
+        long[] dependentValue = new long[model.materialCount()];
+        int[] lastProduct = new int[model.materialCount()];
+        Arrays.fill(lastProduct, -1);
+        for (int i = 0; i < quantity.length; i++) {
+            if (quantity[i] == 0) {
+                continue;
+            }
+            long value = Math.multiplyExact(model.priceUnits(i), quantity[i]);
+            for (int l = model.lineStart(i); l < model.lineEnd(i); l++) {
+                int m = model.lineMaterial(l);
+                if (m == PlanningModel.INVALID_LINE) {
+                    continue;
+                }
+                required[m] = Math.addExact(required[m], Math.multiplyExact(model.lineRequired(l), quantity[i]));
+                if (lastProduct[m] != i) {
+                    lastProduct[m] = i;
+                    dependentValue[m] = Math.addExact(dependentValue[m], value);
+                }
+            }
+        }
+
+        long[] stock = model.initialStock();
+        List<RawMaterial> materials = model.getMaterials();
+        List<PurchaseLine> lines = new ArrayList<>();
+        for (int m = 0; m < required.length; m++) {
+            long shortfall = required[m] - Math.max(stock[m], 0);
+            if (shortfall <= 0) {
+                continue;
+            }
+            long shortageValue = BigDecimal.valueOf(dependentValue[m])
+                    .multiply(BigDecimal.valueOf(shortfall))
+                    .divide(BigDecimal.valueOf(required[m]), 0, RoundingMode.HALF_UP)
+                    .longValueExact();
+            RawMaterial material = materials.get(m);
+            lines.add(new PurchaseLine(material.getId(), material.getCode(), material.getName(),
+                    Quantity.toBigDecimal(required[m]), material.getStockQuantity(),
+                    Quantity.toBigDecimal(shortfall), Quantity.toBigDecimal(shortageValue)));
+        }
+
+        lines.sort(Comparator.comparing(PurchaseLine::shortageValue).reversed());
+        return lines;
+    }
+}
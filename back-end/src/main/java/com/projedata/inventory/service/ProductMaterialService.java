@@ -0,0 +1,86 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.model.ProductMaterial;
+import com.projedata.inventory.repository.ProductMaterialRepository;
+import com.projedata.inventory.repository.ProductRepository;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * BOM line use cases. Reads join-fetch the product and raw material of every line
+ * instead of loading each EAGER association with its own select.
+ */
+@Service
+public class ProductMaterialService {
+
+    @Autowired
+    private ProductMaterialRepository repository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Transactional(readOnly = true)
+    public List<ProductMaterial> findAll() {
+        return repository.findAll();
+    }
+
+    @Transactional(readOnly = true)
+    public ProductMaterial findById(Long id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new RuntimeException("ProductMaterial not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductMaterial> findByProductId(Long productId) {
+        return repository.findByProductId(productId);
+    }
+
+    @Transactional
+    public ProductMaterial create(ProductMaterial productMaterial) {
+        resolveReferences(productMaterial, productMaterial);
+        catalogVersion.bumpAfterCommit();
+        return repository.save(productMaterial);
+    }
+
+    @Transactional
+    public ProductMaterial update(Long id, ProductMaterial updated) {
+        ProductMaterial productMaterial = findById(id);
+
+        resolveReferences(productMaterial, updated);
+        productMaterial.setQuantityRequired(updated.getQuantityRequired());
+
+        catalogVersion.bumpAfterCommit();
+        return productMaterial;
+    }
+
+    @Transactional
+    public void delete(Long id) {
+        repository.deleteById(id);
+        catalogVersion.bumpAfterCommit();
+    }
+
+    /**
+     * Points the target line at managed instances of the product and raw material referenced by the source.
+     * The product is only needed as a foreign key, so a reference is enough.
+     */
+    private void resolveReferences(ProductMaterial target, ProductMaterial source) {
+        target.setProduct(source.getProduct() != null && source.getProduct().getId() != null
+                ? productRepository.getReferenceById(source.getProduct().getId())
+                : source.getProduct());
+
+        target.setRawMaterial(source.getRawMaterial() != null && source.getRawMaterial().getId() != null
+                ? rawMaterialRepository.findById(source.getRawMaterial().getId())
+                        .orElseThrow(() -> new RuntimeException("Raw material not found"))
+                : source.getRawMaterial());
+    }
+}
@@ -0,0 +1,158 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.BulkDeleteResult;
+import com.projedata.inventory.model.Product;
+import com.projedata.inventory.model.ProductMaterial;
+import com.projedata.inventory.model.RawMaterial;
+import com.projedata.inventory.repository.ProductMaterialRepository;
+import com.projedata.inventory.repository.ProductRepository;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Product use cases. Reads run in read-only transactions (flush mode MANUAL, no dirty-checking
+ * snapshots) and always load the product with its BOM lines and raw materials in one query.
+ * Deletes are set-based statements (BOM lines first, then products) that never load the entities.
+ */
+@Service
+public class ProductService {
+
+    /** Ids per DELETE statement, well under the bind parameter limit of the driver. */
+    private static final int DELETE_BATCH = 1000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductMaterialRepository productMaterialRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired(required = false)
+    private CatalogStore catalogStore;
+
+    @Transactional(readOnly = true)
+    public List<Product> findAll() {
+        if (catalogStore != null) {
+            return catalogStore.products();
+        }
+        return productRepository.findAll();
+    }
+
+    @Transactional(readOnly = true)
+    public Product findById(Long id) {
+        return productRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+    }
+
+    @Transactional
+    public Product create(Product product) {
+        product.setId(null);
+
+        if (product.getMaterials() != null) {
+            Map<Long, RawMaterial> rawMaterials = loadRawMaterials(product.getMaterials());
+
+            for (ProductMaterial pm : product.getMaterials()) {
+                if (pm.getRawMaterial() != null && pm.getRawMaterial().getId() != null) {
+                    pm.setId(null);
+                    pm.setProduct(product);
+                    pm.setRawMaterial(rawMaterials.get(pm.getRawMaterial().getId()));
+                }
+            }
+        }
+
+        catalogVersion.bumpAfterCommit();
+        return productRepository.save(product);
+    }
+
+    @Transactional
+    public Product update(Long id, Product updatedProduct) {
+        Product product = findById(id);
+
+        product.setName(updatedProduct.getName());
+        product.setPrice(updatedProduct.getPrice());
+        product.setCode(updatedProduct.getCode());
+        product.setDailyCapacity(updatedProduct.getDailyCapacity());
+        product.setProductionDays(updatedProduct.getProductionDays());
+
+        product.getMaterials().clear();
+
+        if (updatedProduct.getMaterials() != null) {
+            Map<Long, RawMaterial> rawMaterials = loadRawMaterials(updatedProduct.getMaterials());
+
+            for (ProductMaterial pm : updatedProduct.getMaterials()) {
+                pm.setId(null);
+                pm.setProduct(product);
+                pm.setRawMaterial(rawMaterials.get(pm.getRawMaterial().getId()));
+
+                product.getMaterials().add(pm);
+            }
+        }
+
+        catalogVersion.bumpAfterCommit();
+        return product;
+    }
+
+    @Transactional
+    public void delete(Long id) {
+        deleteAll(List.of(id));
+    }
+
+    /**
+     * Deletes the products and their BOM lines in one transaction, {@link #DELETE_BATCH} ids per statement.
+     */
+    @Transactional
+    public BulkDeleteResult deleteAll(Collection<Long> ids) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        int deleted = 0;
+        int bomLines = 0;
+        for (int from = 0; from < distinct.size(); from += DELETE_BATCH) {
+            List<Long> batch = distinct.subList(from, Math.min(distinct.size(), from + DELETE_BATCH));
+            bomLines += productMaterialRepository.deleteByProductIds(batch);
+            deleted += productRepository.deleteByIds(batch);
+        }
+        if (deleted > 0 || bomLines > 0) {
+            catalogVersion.bumpAfterCommit();
+        }
+        return new BulkDeleteResult(deleted, bomLines);
+    }
+
+    @Transactional
+    public BulkDeleteResult deleteByCodePrefix(String codePrefix) {
+        return deleteAll(productRepository.findIdsByCodeLike(CodePatterns.startingWith(codePrefix)));
+    }
+
+    /**
+     * Resolves the raw materials referenced by the given BOM lines with a single query.
+     */
+    private Map<Long, RawMaterial> loadRawMaterials(List<ProductMaterial> lines) {
+        List<Long> ids = lines.stream()
+                .map(ProductMaterial::getRawMaterial)
+                .filter(Objects::nonNull)
+                .map(RawMaterial::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        Map<Long, RawMaterial> rawMaterials = rawMaterialRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(RawMaterial::getId, Function.identity()));
+
+        if (rawMaterials.size() != ids.size()) {
+            throw new RuntimeException("Raw material not found");
+        }
+        return rawMaterials;
+    }
+}
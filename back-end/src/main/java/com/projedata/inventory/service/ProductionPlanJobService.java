@@ -0,0 +1,193 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.PlanJobView;
+import com.projedata.inventory.model.Product;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs production plans for large catalogs in the background on a bounded pool.
+ * Requests for a data version that already has a queued, running or finished job get that job back
+ * instead of starting another computation. A finished job keeps only product ids and quantities, and
+ * is dropped once it is older than the retention period; at most the most recent jobs are retained.
+ */
+@Service
+public class ProductionPlanJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductionPlanJobService.class);
+
+    enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    private static final class PlanJob {
+        final UUID id = UUID.randomUUID();
+        final long dataVersion;
+        final Instant createdAt;
+        final AtomicInteger processed = new AtomicInteger();
+        volatile int total;
+        volatile Status status = Status.QUEUED;
+        volatile Instant finishedAt;
+        volatile String error;
+        /** Product ids and their producible quantities in planning order; set before the status turns DONE. */
+        long[] productIds;
+        int[] quantities;
+
+        PlanJob(long dataVersion, Instant createdAt) {
+            this.dataVersion = dataVersion;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private final ProductionService productionService;
+    private final CatalogVersion catalogVersion;
+    private final ThreadPoolExecutor executor;
+    private final Duration retention;
+    private final Clock clock;
+
+    /** Jobs by id, oldest first; guarded by itself. */
+    private final LinkedHashMap<UUID, PlanJob> jobs;
+    /** Retained jobs by the data version they compute; guarded by {@link #jobs}. */
+    private final Map<Long, PlanJob> jobsByVersion = new HashMap<>();
+
+    @Autowired
+    public ProductionPlanJobService(ProductionService productionService, CatalogVersion catalogVersion,
+                                    @Value("${inventory.plan-jobs.threads:2}") int threads,
+                                    @Value("${inventory.plan-jobs.queue-capacity:16}") int queueCapacity,
+                                    @Value("${inventory.plan-jobs.retained:32}") int retained,
+                                    @Value("${inventory.plan-jobs.retention-seconds:3600}") long retentionSeconds) {
+        this(productionService, catalogVersion, threads, queueCapacity, retained, retentionSeconds, Clock.systemUTC());
+    }
+
+    public ProductionPlanJobService(ProductionService productionService, CatalogVersion catalogVersion,
+                                    int threads, int queueCapacity, int retained, long retentionSeconds, Clock clock) {
+        this.productionService = productionService;
+        this.catalogVersion = catalogVersion;
+        this.retention = Duration.ofSeconds(retentionSeconds);
+        this.clock = clock;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> new Thread(r, "plan-job-" + threadNumber.incrementAndGet()));
+
+        this.jobs = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, PlanJob> eldest) {
+                if (size() <= retained) {
+                    return false;
+                }
+                jobsByVersion.remove(eldest.getValue().dataVersion, eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Starts a plan for the current data version, or returns the job already computing it.
+     */
+    public PlanJobView start() {
+        long version = catalogVersion.current();
+        PlanJob job;
+        synchronized (jobs) {
+            expire();
+            PlanJob existing = jobsByVersion.get(version);
+            if (existing != null && existing.status != Status.FAILED) {
+                return view(existing);
+            }
+
+            job = new PlanJob(version, clock.instant());
+            try {
+                PlanJob submitted = job;
+                executor.execute(() -> run(submitted));
+            } catch (RejectedExecutionException e) {
+                throw new PlanJobRejectedException("Too many production plans in progress");
+            }
+            jobs.put(job.id, job);
+            jobsByVersion.put(version, job);
+        }
+        return view(job);
+    }
+
+    public Optional<PlanJobView> find(UUID id) {
+        synchronized (jobs) {
+            expire();
+            return Optional.ofNullable(jobs.get(id)).map(ProductionPlanJobService::view);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(PlanJob job) {
+        job.status = Status.RUNNING;
+        try {
+            List<Product> products = productionService.getSuggestion((processed, total) -> {
+                job.total = total;
+                job.processed.set(processed);
+            });
+            long[] productIds = new long[products.size()];
+            int[] quantities = new int[products.size()];
+            for (int i = 0; i < productIds.length; i++) {
+                productIds[i] = products.get(i).getId();
+                quantities[i] = products.get(i).getProducibleQuantity();
+            }
+            job.productIds = productIds;
+            job.quantities = quantities;
+            job.status = Status.DONE;
+        } catch (RuntimeException e) {
+            log.warn("Production plan {} failed", job.id, e);
+            job.error = e.getMessage();
+            job.status = Status.FAILED;
+        } finally {
+            job.finishedAt = clock.instant();
+        }
+    }
+
+    /** Drops finished jobs older than the retention period; called holding {@link #jobs}. */
+    private void expire() {
+        Instant cutoff = clock.instant().minus(retention);
+        for (Iterator<PlanJob> it = jobs.values().iterator(); it.hasNext(); ) {
+            PlanJob job = it.next();
+            Instant finishedAt = job.finishedAt;
+            if (finishedAt != null && finishedAt.isBefore(cutoff)) {
+                it.remove();
+                jobsByVersion.remove(job.dataVersion, job);
+            }
+        }
+    }
+
+    private static PlanJobView view(PlanJob job) {
+        Status status = job.status;
+        List<PlanJobView.PlannedProduct> result = null;
+        if (status == Status.DONE) {
+            result = new ArrayList<>(job.productIds.length);
+            for (int i = 0; i < job.productIds.length; i++) {
+                result.add(new PlanJobView.PlannedProduct(job.productIds[i], job.quantities[i]));
+            }
+        }
+        return new PlanJobView(job.id, status.name(), job.dataVersion, job.processed.get(), job.total,
+                job.createdAt, job.finishedAt, job.error, result);
+    }
+}
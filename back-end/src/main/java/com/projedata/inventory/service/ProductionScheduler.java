@@ -0,0 +1,225 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.ProductionSchedule;
+import com.projedata.inventory.model.Product;
+import com.projedata.inventory.model.Quantity;
+import com.projedata.inventory.repository.MaterialDeliveryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Schedules production day by day over a horizon. Each day, deliveries expected that day are added
+ * to stock and products are started in the same priority order as {@link ProductionService}, each
+ * as many units as stock and its daily capacity allow. Materials are consumed when a unit starts,
+ * and a unit is only started if it is finished ({@code productionDays} later) within the horizon.
+ * <p>
+ * A day's schedule depends only on the stock at its start and its deliveries. The last schedule is
+ * kept, and a new one starting on one of its days reuses it (a rolling-horizon warm start) for as long
+ * as the stock at that start, the deliveries and the catalog are unchanged, and the horizon end cannot
+ * have affected the day; from there on, days are computed again.
+ */
+@Service
+public class ProductionScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductionScheduler.class);
+
+    public static final int MAX_HORIZON_DAYS = 366;
+
+    private final ProductionService productionService;
+    private final MaterialDeliveryRepository deliveryRepository;
+    private final CatalogVersion catalogVersion;
+
+    /** Deliveries of one day, by material index in ascending order. */
+    private record Arrivals(int[] materials, long[] units) {
+
+        static final Arrivals NONE = new Arrivals(new int[0], new long[0]);
+
+        boolean sameAs(Arrivals other) {
+            return Arrays.equals(materials, other.materials) && Arrays.equals(units, other.units);
+        }
+    }
+
+    private record Solution(long structure, LocalDate start, int days, int maxProductionDays,
+                            Arrivals[] arrivals, long[][] stockAtStart, int[][] started, long[] stockAtEnd) {
+
+        /** Stock at the start of day {@code d}; day {@link #days()} is the end of the horizon. */
+        long[] stockAt(int d) {
+            return d == days ? stockAtEnd : stockAtStart[d];
+        }
+    }
+
+    /** The last schedule, the warm start of the next; guarded by this. */
+    private Solution last;
+
+    public ProductionScheduler(ProductionService productionService, MaterialDeliveryRepository deliveryRepository,
+                               CatalogVersion catalogVersion) {
+        this.productionService = productionService;
+        this.deliveryRepository = deliveryRepository;
+        this.catalogVersion = catalogVersion;
+    }
+
+    /**
+     * Not transactional: the model and the deliveries are read in transactions of their own, so no
+     * connection is held while waiting for the lock that guards the warm start.
+     */
+    public ProductionSchedule schedule(LocalDate start, int days) {
+        if (days < 1 || days > MAX_HORIZON_DAYS) {
+            throw new RuntimeException("Horizon must be between 1 and " + MAX_HORIZON_DAYS + " days");
+        }
+        long structure = catalogVersion.structure();
+        PlanningModel model = productionService.buildModel();
+        List<Product> products = model.getProducts();
+        int productCount = model.productCount();
+
+        int[] capacity = new int[productCount];
+        int[] productionDays = new int[productCount];
+        int maxProductionDays = 0;
+        for (int i = 0; i < productCount; i++) {
+            Product product = products.get(i);
+            capacity[i] = product.getDailyCapacity() == null ? Integer.MAX_VALUE : Math.max(0, product.getDailyCapacity());
+            productionDays[i] = product.getProductionDays() == null ? 0 : Math.max(0, product.getProductionDays());
+            maxProductionDays = Math.max(maxProductionDays, productionDays[i]);
+        }
+        Arrivals[] arrivals = arrivals(model, start, days);
+
+        long[][] stockAtStart = new long[days][];
+        int[][] started = new int[days][];
+        int reused;
+        synchronized (this) {
+            long[] stock = model.initialStock();
+            reused = warmStart(structure, start, days, maxProductionDays, stock, arrivals, stockAtStart, started);
+            if (reused > 0) {
+                stock = last.stockAt(offset(last, start) + reused).clone();
+            }
+
+            for (int d = reused; d < days; d++) {
+                stockAtStart[d] = stock.clone();
+                Arrivals today = arrivals[d];
+                for (int k = 0; k < today.materials().length; k++) {
+                    stock[today.materials()[k]] += today.units()[k];
+                }
+                int[] startedToday = new int[productCount];
+                for (int i = 0; i < productCount; i++) {
+                    if (d + productionDays[i] >= days || capacity[i] == 0) {
+                        continue;
+                    }
+                    int quantity = Math.min(model.maxProducible(i, stock), capacity[i]);
+                    if (quantity > 0) {
+                        startedToday[i] = quantity;
+                        model.consume(i, quantity, stock);
+                    }
+                }
+                started[d] = startedToday;
+            }
+
+            last = new Solution(structure, start, days, maxProductionDays, arrivals, stockAtStart, started, stock.clone());
+            log.debug("Scheduled {} days from {}: {} reused", days, start, reused);
+        }
+        return toSchedule(model, start, days, reused, productionDays, started);
+    }
+
+    /**
+     * Copies the leading days of the last schedule that this one would compute the same way, and
+     * returns how many. They need the same catalog, the same stock at {@code start}, the same deliveries
+     * on each day, and to lie far enough from both horizon ends that no product was cut off by them.
+     */
+    private int warmStart(long structure, LocalDate start, int days, int maxProductionDays, long[] stock,
+                          Arrivals[] arrivals, long[][] stockAtStart, int[][] started) {
+        Solution previous = last;
+        if (previous == null || previous.structure() != structure) {
+            return 0;
+        }
+        int offset = offset(previous, start);
+        if (offset < 0 || offset >= previous.days() || !Arrays.equals(previous.stockAtStart()[offset], stock)) {
+            return 0;
+        }
+        int horizonEnd = Math.min(days, previous.days() - offset);
+        int limit = horizonEnd - Math.max(maxProductionDays, previous.maxProductionDays());
+        int d = 0;
+        while (d < limit && arrivals[d].sameAs(previous.arrivals()[offset + d])) {
+            stockAtStart[d] = previous.stockAtStart()[offset + d];
+            started[d] = previous.started()[offset + d];
+            d++;
+        }
+        return d;
+    }
+
+    private static int offset(Solution solution, LocalDate start) {
+        long offset = ChronoUnit.DAYS.between(solution.start(), start);
+        return offset < 0 || offset > Integer.MAX_VALUE ? -1 : (int) offset;
+    }
+
+    private Arrivals[] arrivals(PlanningModel model, LocalDate start, int days) {
+        List<Map<Integer, Long>> byDay = new ArrayList<>(days);
+        for (int d = 0; d < days; d++) {
+            byDay.add(null);
+        }
+        for (Object[] row : deliveryRepository.findQuantitiesBetween(start, start.plusDays(days))) {
+            int material = model.materialIndex((Long) row[0]);
+            int day = (int) ChronoUnit.DAYS.between(start, (LocalDate) row[1]);
+            if (material < 0 || day < 0 || day >= days) {
+                continue;
+            }
+            if (byDay.get(day) == null) {
+                byDay.set(day, new TreeMap<>());
+            }
+            byDay.get(day).merge(material, ((Quantity) row[2]).units(), Math::addExact);
+        }
+
+        Arrivals[] arrivals = new Arrivals[days];
+        for (int d = 0; d < days; d++) {
+            Map<Integer, Long> day = byDay.get(d);
+            if (day == null) {
+                arrivals[d] = Arrivals.NONE;
+                continue;
+            }
+            int[] materials = new int[day.size()];
+            long[] units = new long[day.size()];
+            int k = 0;
+            for (Map.Entry<Integer, Long> entry : day.entrySet()) {
+                materials[k] = entry.getKey();
+                units[k++] = entry.getValue();
+            }
+            arrivals[d] = new Arrivals(materials, units);
+        }
+        return arrivals;
+    }
+
+    private static ProductionSchedule toSchedule(PlanningModel model, LocalDate start, int days, int reused,
+                                                 int[] productionDays, int[][] started) {
+        List<Product> products = model.getProducts();
+        List<ProductionSchedule.ScheduledDay> scheduled = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (int d = 0; d < days; d++) {
+            List<ProductionSchedule.ScheduledRun> runs = new ArrayList<>();
+            BigDecimal dayValue = BigDecimal.ZERO;
+            LocalDate date = start.plusDays(d);
+            for (int i = 0; i < model.productCount(); i++) {
+                int quantity = started[d][i];
+                if (quantity == 0) {
+                    continue;
+                }
+                Product product = products.get(i);
+                BigDecimal value = product.getPrice().multiply(BigDecimal.valueOf(quantity));
+                runs.add(new ProductionSchedule.ScheduledRun(product.getId(), product.getCode(), product.getName(),
+                        quantity, date.plusDays(productionDays[i]), value));
+                dayValue = dayValue.add(value);
+            }
+            if (!runs.isEmpty()) {
+                scheduled.add(new ProductionSchedule.ScheduledDay(date, dayValue, runs));
+                total = total.add(dayValue);
+            }
+        }
+        return new ProductionSchedule(start, days, reused, total, scheduled);
+    }
+}
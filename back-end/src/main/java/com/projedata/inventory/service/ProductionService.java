@@ -1,97 +1,269 @@
 package com.projedata.inventory.service;
 
+import com.projedata.inventory.dto.ProductionSuggestion;
+import com.projedata.inventory.dto.SuggestionQuery;
+import com.projedata.inventory.dto.WarehousePlanReport;
 import com.projedata.inventory.model.Product;
-import com.projedata.inventory.model.ProductMaterial;
+import com.projedata.inventory.model.Quantity;
 import com.projedata.inventory.model.RawMaterial;
+import com.projedata.inventory.model.Warehouse;
 import com.projedata.inventory.repository.ProductRepository;
 import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.repository.WarehouseRepository;
+import com.projedata.inventory.repository.WarehouseStockRepository;
+import jdk.jfr.EventType;
+import org.springframework.data.domain.Sort;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.math.RoundingMode;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+/**
+ * Production planning on the current catalog and stock. Each phase of a plan is recorded as a
+ * {@link PlannerPhaseEvent} for Java Flight Recorder, and each product as a {@link PlannerProductEvent}
+ * when a recording enables it.
+ */
 @Service
 public class ProductionService {
     @Autowired private ProductRepository productRepository;
     @Autowired private RawMaterialRepository materialRepository;
+    @Autowired private WarehouseRepository warehouseRepository;
+    @Autowired private WarehouseStockRepository warehouseStockRepository;
+    @Autowired(required = false) private CatalogSnapshotService catalogSnapshot;
+    @Autowired(required = false) private CatalogStore catalogStore;
 
+    /**
+     * Receives the number of products allocated so far out of the total.
+     */
+    public interface Progress {
+        void update(int processed, int total);
+    }
+
+    /** Products allocated between two progress reports. */
+    private static final int PROGRESS_SLICE = 1024;
+
+    @Transactional(readOnly = true)
     public List<Product> getSuggestion() {
-        
-        List<Product> products = productRepository.findAll().stream()
-            .sorted(Comparator.comparing(Product::getPrice).reversed())
-            .toList();
+        return getSuggestion((processed, total) -> { });
+    }
 
-        Map<Long, BigDecimal> tempStock;
-        List<RawMaterial> materials = materialRepository.findAll();
-        if (materials == null || materials.isEmpty()) {
-            tempStock = new java.util.HashMap<>();
-        } else {
-            tempStock = materials.stream()
-                .collect(Collectors.toMap(RawMaterial::getId, RawMaterial::getStockQuantity));
+    /**
+     * Computes the plan, reporting the number of products processed so far to {@code progress}.
+     */
+    @Transactional(readOnly = true)
+    public List<Product> getSuggestion(Progress progress) {
+        PlanningModel model = buildModel();
+        int[] producible = allocate(model, progress);
+
+        // Always set the values, even if it's 0, and return all products, not just those that can be produced
+        PlannerPhaseEvent results = PlannerPhaseEvent.start("results");
+        List<Product> suggestions = model.getProducts();
+        for (int i = 0; i < suggestions.size(); i++) {
+            Product product = suggestions.get(i);
+            product.setProducibleQuantity(producible[i]);
+            product.setTotalValue(product.getPrice().multiply(BigDecimal.valueOf(producible[i])));
         }
+        results.finish(model.productCount(), model.materialCount());
+        return suggestions;
+    }
+
+    /**
+     * Computes the full plan and returns only the rows matching {@code query}. Filters apply to the
+     * plan's output, so a product's quantity is the same as in the unfiltered plan. With a limit, rows
+     * are the top products by total value, highest first; otherwise they keep planning order.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductionSuggestion> findSuggestions(SuggestionQuery query) {
+        PlanningModel model = buildModel();
+        int[] producible = allocate(model, (processed, total) -> { });
+        List<Product> products = model.getProducts();
 
-        List<Product> suggestions = new ArrayList<>();
-
-        for (Product product : products) {
-            int canProduce = calculateMaxProduction(product, tempStock);
-            
-            // Always set the values, even if it's 0
-            product.setProducibleQuantity(canProduce);
-            product.setTotalValue(product.getPrice().multiply(BigDecimal.valueOf(canProduce)));
-            
-            // Add all products, not just those that can be produced
-            suggestions.add(product);
-               
-            // Update stock only if production is possible
-            if (canProduce > 0) {
-                updateTempStock(product, canProduce, tempStock);
+        PlannerPhaseEvent results = PlannerPhaseEvent.start("results");
+        if (query.limit() == null) {
+            List<ProductionSuggestion> rows = new ArrayList<>();
+            for (int i = 0; i < model.productCount(); i++) {
+                if (matches(query, products.get(i), producible[i])) {
+                    rows.add(toSuggestion(products.get(i), producible[i]));
+                }
             }
+            results.finish(model.productCount(), model.materialCount());
+            return rows;
         }
-        return suggestions;
+
+        TopK top = new TopK(Math.max(0, Math.min(query.limit(), model.productCount())));
+        for (int i = 0; i < model.productCount(); i++) {
+            if (matches(query, products.get(i), producible[i])) {
+                top.offer(i, totalValueUnits(model.priceUnits(i), producible[i]));
+            }
+        }
+        int[] best = top.drainSorted();
+        List<ProductionSuggestion> rows = new ArrayList<>(best.length);
+        for (int i : best) {
+            rows.add(toSuggestion(products.get(i), producible[i]));
+        }
+        results.finish(model.productCount(), model.materialCount());
+        return rows;
     }
 
-    private int calculateMaxProduction(Product p, Map<Long, BigDecimal> stock) {
-        // If no materials are associated, return a default value (e.g., 999)
-        if (p.getMaterials() == null || p.getMaterials().isEmpty()) {
-            return 999; // Consider as producible in large quantities
+    /**
+     * Plans every warehouse on its own stock, in parallel, and sums the results per product.
+     * Warehouses share the read-only {@link PlanningModel}; each allocation only touches its own arrays.
+     */
+    @Transactional(readOnly = true)
+    public WarehousePlanReport getWarehousePlans() {
+        PlanningModel model = buildModel();
+        List<Warehouse> warehouses = warehouseRepository.findAll(Sort.by("code"));
+        Map<Long, Integer> warehouseIndex = new HashMap<>(warehouses.size() * 2);
+        for (int w = 0; w < warehouses.size(); w++) {
+            warehouseIndex.put(warehouses.get(w).getId(), w);
         }
-        
-        return p.getMaterials().stream()
-            .mapToInt(pm -> {
-                if (pm.getRawMaterial() == null || pm.getQuantityRequired() == null || pm.getQuantityRequired() <= 0) {
-                    return 0;
-                }
-                BigDecimal materialStock = stock.get(pm.getRawMaterial().getId());
-                if (materialStock == null || materialStock.compareTo(BigDecimal.ZERO) <= 0) {
-                    return 0;
+
+        long[][] stock = new long[warehouses.size()][model.materialCount()];
+        for (Object[] row : warehouseStockRepository.findAllQuantities()) {
+            Integer w = warehouseIndex.get((Long) row[0]);
+            int m = model.materialIndex((Long) row[1]);
+            if (w != null && m >= 0) {
+                stock[w][m] = ((Quantity) row[2]).units();
+            }
+        }
+
+        PlannerPhaseEvent allocation = PlannerPhaseEvent.start("allocate");
+        int[][] producible = new int[warehouses.size()][];
+        IntStream.range(0, warehouses.size()).parallel().forEach(w -> {
+            producible[w] = new int[model.productCount()];
+            model.allocate(stock[w], producible[w]);
+        });
+        allocation.finish(model.productCount(), model.materialCount());
+
+        List<Product> products = model.getProducts();
+        List<WarehousePlanReport.WarehousePlan> plans = new ArrayList<>(warehouses.size());
+        long[] total = new long[model.productCount()];
+        for (int w = 0; w < warehouses.size(); w++) {
+            List<ProductionSuggestion> rows = new ArrayList<>();
+            BigDecimal value = BigDecimal.ZERO;
+            for (int i = 0; i < model.productCount(); i++) {
+                if (producible[w][i] > 0) {
+                    ProductionSuggestion row = toSuggestion(products.get(i), producible[w][i]);
+                    rows.add(row);
+                    value = value.add(row.totalValue());
+                    total[i] += producible[w][i];
                 }
-                return materialStock.divide(BigDecimal.valueOf(pm.getQuantityRequired()), RoundingMode.DOWN).intValue();
-            })
-            .min().orElse(0);
+            }
+            Warehouse warehouse = warehouses.get(w);
+            plans.add(new WarehousePlanReport.WarehousePlan(warehouse.getId(), warehouse.getCode(),
+                    warehouse.getName(), value, rows));
+        }
+
+        List<ProductionSuggestion> totals = new ArrayList<>();
+        BigDecimal totalValue = BigDecimal.ZERO;
+        for (int i = 0; i < model.productCount(); i++) {
+            if (total[i] > 0) {
+                ProductionSuggestion row = toSuggestion(products.get(i), (int) Math.min(total[i], Integer.MAX_VALUE));
+                totals.add(row);
+                totalValue = totalValue.add(row.totalValue());
+            }
+        }
+        return new WarehousePlanReport(plans, totals, totalValue);
     }
 
-    private void updateTempStock(Product product, int quantity, Map<Long, BigDecimal> stock) {
-        if (product.getMaterials() == null) {
-            return;
+    /**
+     * Loads the catalog and stock into a {@link PlanningModel}, from the warm-start
+     * {@link CatalogSnapshotService snapshot} while it stands in for the database, then from the
+     * {@link CatalogStore} when it is enabled.
+     */
+    @Transactional(readOnly = true)
+    public PlanningModel buildModel() {
+        if (catalogSnapshot != null) {
+            PlannerPhaseEvent snapshot = PlannerPhaseEvent.start("snapshot");
+            PlanningModel warm = catalogSnapshot.warmModel();
+            if (warm != null) {
+                snapshot.finish(warm.productCount(), warm.materialCount());
+                return warm;
+            }
+        }
+
+        if (catalogStore != null) {
+            PlannerPhaseEvent store = PlannerPhaseEvent.start("store");
+            PlanningModel model = catalogStore.model();
+            store.finish(model.productCount(), model.materialCount());
+            return model;
         }
-        
-        for (ProductMaterial pm : product.getMaterials()) {
-            if (pm.getRawMaterial() == null || pm.getQuantityRequired() == null) {
-                continue;
+
+        PlannerPhaseEvent load = PlannerPhaseEvent.start("load");
+        List<Product> products = productRepository.findAll();
+        List<RawMaterial> materials = materialRepository.findAll();
+        load.finish(products.size(), materials.size());
+
+        PlannerPhaseEvent build = PlannerPhaseEvent.start("build");
+        PlanningModel model = PlanningModel.build(products, materials);
+        build.finish(model.productCount(), model.materialCount());
+        return model;
+    }
+
+    private static int[] allocate(PlanningModel model, Progress progress) {
+        PlannerPhaseEvent allocation = PlannerPhaseEvent.start("allocate");
+        boolean productEvents = EventType.getEventType(PlannerProductEvent.class).isEnabled();
+        long[] stock = model.initialStock();
+        int[] producible = new int[model.productCount()];
+        progress.update(0, model.productCount());
+        for (int from = 0; from < model.productCount(); from += PROGRESS_SLICE) {
+            int to = Math.min(from + PROGRESS_SLICE, model.productCount());
+            if (productEvents) {
+                allocateRecorded(model, from, to, stock, producible);
+            } else {
+                model.allocate(from, to, stock, producible);
             }
-            
-            Long materialId = pm.getRawMaterial().getId();
-            BigDecimal currentStock = stock.get(materialId);
-            if (currentStock != null) {
-                BigDecimal usedQuantity = BigDecimal.valueOf(pm.getQuantityRequired() * quantity);
-                stock.put(materialId, currentStock.subtract(usedQuantity));
+            progress.update(to, model.productCount());
+        }
+        allocation.finish(model.productCount(), model.materialCount());
+        return producible;
+    }
+
+    /** Same as {@link PlanningModel#allocate(int, int, long[], int[])}, one {@link PlannerProductEvent} per product. */
+    private static void allocateRecorded(PlanningModel model, int from, int to, long[] stock, int[] producible) {
+        for (int i = from; i < to; i++) {
+            PlannerProductEvent event = new PlannerProductEvent();
+            event.begin();
+            model.allocate(i, i + 1, stock, producible);
+            event.end();
+            if (event.shouldCommit()) {
+                event.productId = model.productId(i);
+                event.lines = model.lineEnd(i) - model.lineStart(i);
+                event.quantity = producible[i];
+                event.commit();
             }
         }
     }
-}
\ No newline at end of file
+
+    private static boolean matches(SuggestionQuery query, Product product, int producible) {
+        if (query.minQuantity() != null && producible < query.minQuantity()) {
+            return false;
+        }
+        if (query.productIds() != null && !query.productIds().contains(product.getId())) {
+            return false;
+        }
+        return query.codePrefix() == null
+                || (product.getCode() != null && product.getCode().startsWith(query.codePrefix()));
+    }
+
+    /** Total value in {@link com.projedata.inventory.model.Quantity} units, saturating instead of overflowing. */
+    private static long totalValueUnits(long priceUnits, int producible) {
+        long high = Math.multiplyHigh(priceUnits, producible);
+        long low = priceUnits * producible;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return low;
+        }
+        return high < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+    }
+
+    private static ProductionSuggestion toSuggestion(Product product, int producible) {
+        return new ProductionSuggestion(product.getId(), product.getCode(), product.getName(), product.getPrice(),
+                producible, product.getPrice().multiply(BigDecimal.valueOf(producible)));
+    }
+}
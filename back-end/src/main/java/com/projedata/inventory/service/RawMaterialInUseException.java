@@ -0,0 +1,28 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.WhereUsedLine;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Raw materials to be deleted are still used in BOMs.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class RawMaterialInUseException extends RuntimeException {
+
+    private final List<WhereUsedLine> uses;
+
+    public RawMaterialInUseException(List<WhereUsedLine> uses) {
+        super("Raw materials in use: " + uses.stream().limit(10)
+                .map(use -> use.code() + " (" + use.productCount() + " products)")
+                .collect(Collectors.joining(", ")) + (uses.size() > 10 ? ", ..." : ""));
+        this.uses = uses;
+    }
+
+    public List<WhereUsedLine> getUses() {
+        return uses;
+    }
+}
@@ -0,0 +1,153 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.BulkDeleteResult;
+import com.projedata.inventory.dto.WhereUsedLine;
+import com.projedata.inventory.model.Quantity;
+import com.projedata.inventory.model.RawMaterial;
+import com.projedata.inventory.repository.MaterialDeliveryRepository;
+import com.projedata.inventory.repository.ProductMaterialRepository;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.repository.WarehouseStockRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Raw material use cases. Raw materials have no associations, so reads are plain read-only queries.
+ * Deletes are set-based statements that never load the entities: a raw material used in a BOM is
+ * only deleted when asked to delete those BOM lines too.
+ */
+@Service
+public class RawMaterialService {
+
+    /** Ids per statement, well under the bind parameter limit of the driver. */
+    private static final int DELETE_BATCH = 1000;
+
+    private final RawMaterialRepository repository;
+    private final StockReservationService reservations;
+    private final CatalogVersion catalogVersion;
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final MaterialDeliveryRepository deliveryRepository;
+    private final ProductMaterialRepository productMaterialRepository;
+    private final ObjectProvider<CatalogStore> catalogStore;
+
+    public RawMaterialService(RawMaterialRepository repository, StockReservationService reservations,
+                              CatalogVersion catalogVersion, WarehouseStockRepository warehouseStockRepository,
+                              MaterialDeliveryRepository deliveryRepository,
+                              ProductMaterialRepository productMaterialRepository,
+                              ObjectProvider<CatalogStore> catalogStore) {
+        this.repository = repository;
+        this.reservations = reservations;
+        this.catalogVersion = catalogVersion;
+        this.warehouseStockRepository = warehouseStockRepository;
+        this.deliveryRepository = deliveryRepository;
+        this.productMaterialRepository = productMaterialRepository;
+        this.catalogStore = catalogStore;
+    }
+
+    @Transactional(readOnly = true)
+    public List<RawMaterial> findAll() {
+        CatalogStore store = catalogStore.getIfAvailable();
+        if (store != null) {
+            return store.materials();
+        }
+        return repository.findAll();
+    }
+
+    @Transactional(readOnly = true)
+    public RawMaterial findById(Long id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Raw material not found"));
+    }
+
+    @Transactional
+    public RawMaterial create(RawMaterial rawMaterial) {
+        RawMaterial saved = repository.save(rawMaterial);
+        AfterCommit.run(() -> reservations.stockChanged(saved.getId(), saved.getStockQuantity()));
+        catalogVersion.bumpAfterCommit();
+        return saved;
+    }
+
+    @Transactional
+    public RawMaterial update(Long id, RawMaterial updated) {
+        RawMaterial material = findById(id);
+        boolean renamed = !Objects.equals(material.getName(), updated.getName())
+                || !Objects.equals(material.getCode(), updated.getCode());
+
+        material.setName(updated.getName());
+        material.setCode(updated.getCode());
+        material.setStockQuantity(updated.getStockQuantity());
+
+        AfterCommit.run(() -> reservations.stockChanged(id, updated.getStockQuantity()));
+        // Codes and names are part of the catalog structure, so only a pure stock change is reported as one
+        if (renamed) {
+            catalogVersion.bumpAfterCommit();
+        } else {
+            catalogVersion.stockChangedAfterCommit(Map.of(id, Quantity.toUnits(updated.getStockQuantity())));
+        }
+        return material;
+    }
+
+    @Transactional
+    public void delete(Long id) {
+        deleteAll(List.of(id), false);
+    }
+
+    /**
+     * The BOM usage of the given raw materials; unused ones are left out.
+     */
+    @Transactional(readOnly = true)
+    public List<WhereUsedLine> whereUsed(Collection<Long> ids) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        List<WhereUsedLine> uses = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += DELETE_BATCH) {
+            List<Long> batch = distinct.subList(from, Math.min(distinct.size(), from + DELETE_BATCH));
+            uses.addAll(productMaterialRepository.findWhereUsed(batch));
+        }
+        return uses;
+    }
+
+    /**
+     * Deletes the raw materials with their warehouse stock and expected deliveries, in one transaction.
+     * Fails with {@link RawMaterialInUseException} when any of them is used in a BOM, unless
+     * {@code deleteBomLines} is set, in which case those BOM lines are deleted first.
+     */
+    @Transactional
+    public BulkDeleteResult deleteAll(Collection<Long> ids, boolean deleteBomLines) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (!deleteBomLines) {
+            List<WhereUsedLine> uses = whereUsed(distinct);
+            if (!uses.isEmpty()) {
+                throw new RawMaterialInUseException(uses);
+            }
+        }
+
+        int deleted = 0;
+        int bomLines = 0;
+        for (int from = 0; from < distinct.size(); from += DELETE_BATCH) {
+            List<Long> batch = distinct.subList(from, Math.min(distinct.size(), from + DELETE_BATCH));
+            if (deleteBomLines) {
+                bomLines += productMaterialRepository.deleteByRawMaterialIds(batch);
+            }
+            warehouseStockRepository.deleteByRawMaterialIds(batch);
+            deliveryRepository.deleteByRawMaterialIds(batch);
+            deleted += repository.deleteByIds(batch);
+        }
+        if (deleted > 0 || bomLines > 0) {
+            AfterCommit.run(() -> distinct.forEach(reservations::materialRemoved));
+            catalogVersion.bumpAfterCommit();
+        }
+        return new BulkDeleteResult(deleted, bomLines);
+    }
+
+    @Transactional
+    public BulkDeleteResult deleteByCodePrefix(String codePrefix, boolean deleteBomLines) {
+        return deleteAll(repository.findIdsByCodeLike(CodePatterns.startingWith(codePrefix)), deleteBomLines);
+    }
+}
@@ -0,0 +1,15 @@
+package com.projedata.inventory.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A diagnostics recording is already running, or there is none to stop or download.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class RecordingStateException extends RuntimeException {
+
+    public RecordingStateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,75 @@
+package com.projedata.inventory.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller computes, callers arriving while it runs
+ * wait for and share its result (or its exception). Nothing is kept once the computation finishes,
+ * so keys should carry everything the result depends on, such as the {@link CatalogVersion}.
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * Receives whether a call computed the value or shared another caller's computation.
+     */
+    public interface Listener {
+        void completed(boolean shared);
+    }
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Listener listener;
+
+    public SingleFlight() {
+        this(shared -> { });
+    }
+
+    public SingleFlight(Listener listener) {
+        this.listener = listener;
+    }
+
+    public V execute(K key, Supplier<V> supplier) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            listener.completed(true);
+            return await(existing);
+        }
+
+        try {
+            V value = supplier.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+            listener.completed(false);
+        }
+    }
+
+    /** Number of computations currently running. */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+}
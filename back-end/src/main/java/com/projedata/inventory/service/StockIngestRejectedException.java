@@ -0,0 +1,15 @@
+package com.projedata.inventory.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The stock ingest queue is full; the client should retry later.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class StockIngestRejectedException extends RuntimeException {
+
+    public StockIngestRejectedException(String message) {
+        super(message);
+    }
+}
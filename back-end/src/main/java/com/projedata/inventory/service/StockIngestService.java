@@ -0,0 +1,173 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.StockReading;
+import com.projedata.inventory.model.Quantity;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Write-behind path for high-frequency stock readings. Readings are queued, readings for the same
+ * material within one flush window are coalesced (the latest wins, since values are absolute) and
+ * each window is written as a single batched update. Readings for raw materials that do not exist
+ * are not reported as stock changes, and fail for callers waiting on the flush.
+ */
+@Service
+@Lazy(false)
+public class StockIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockIngestService.class);
+
+    /** When a reading is acknowledged to the client. */
+    public enum Durability {
+        /** As soon as it is queued. */
+        ENQUEUE,
+        /** Once the batch containing it has been committed. */
+        FLUSH
+    }
+
+    private record PendingReading(long materialId, BigDecimal stockQuantity, CompletableFuture<Void> written) {
+    }
+
+    private final BlockingQueue<PendingReading> queue;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockReservationService reservations;
+    private final CatalogVersion catalogVersion;
+    private final Durability defaultDurability;
+    private final long flushTimeoutMillis;
+
+    public StockIngestService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              StockReservationService reservations, CatalogVersion catalogVersion,
+                              @Value("${inventory.stock-ingest.queue-capacity:10000}") int capacity,
+                              @Value("${inventory.stock-ingest.durability:ENQUEUE}") Durability defaultDurability,
+                              @Value("${inventory.stock-ingest.flush-timeout-millis:5000}") long flushTimeoutMillis) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reservations = reservations;
+        this.catalogVersion = catalogVersion;
+        this.defaultDurability = defaultDurability;
+        this.flushTimeoutMillis = flushTimeoutMillis;
+    }
+
+    public Durability getDefaultDurability() {
+        return defaultDurability;
+    }
+
+    /**
+     * Queues the readings and, for {@link Durability#FLUSH}, waits until they are written.
+     * Rejects the request when the queue cannot take it; resending is safe because readings are absolute.
+     */
+    public void submit(List<StockReading> readings, Durability durability) {
+        if (queue.remainingCapacity() < readings.size()) {
+            throw new StockIngestRejectedException("Stock ingest queue is full");
+        }
+
+        for (StockReading reading : readings) {
+            if (reading.rawMaterialId() == null || reading.stockQuantity() == null) {
+                throw new RuntimeException("Stock readings need a raw material and a quantity");
+            }
+        }
+
+        List<CompletableFuture<Void>> written = new ArrayList<>(readings.size());
+        for (StockReading reading : readings) {
+            PendingReading pending = new PendingReading(reading.rawMaterialId(), reading.stockQuantity(), new CompletableFuture<>());
+            if (!queue.offer(pending)) {
+                throw new StockIngestRejectedException("Stock ingest queue is full");
+            }
+            written.add(pending.written());
+        }
+
+        if (durability == Durability.FLUSH) {
+            awaitFlush(written);
+        }
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${inventory.stock-ingest.flush-interval-millis:500}")
+    public void flush() {
+        List<PendingReading> drained = new ArrayList<>();
+        queue.drainTo(drained);
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        Map<Long, BigDecimal> latest = new LinkedHashMap<>();
+        for (PendingReading reading : drained) {
+            latest.put(reading.materialId(), reading.stockQuantity());
+        }
+        List<Object[]> batch = new ArrayList<>(latest.size());
+        latest.forEach((materialId, stock) -> batch.add(new Object[]{stock, materialId}));
+
+        try {
+            Set<Long> unknown = transactionTemplate.execute(status -> {
+                int[] updated = jdbcTemplate.batchUpdate("UPDATE raw_material SET stock_quantity = ? WHERE id = ?", batch);
+                // Readings for raw materials that do not exist updated nothing and are not reported as stock
+                Set<Long> missing = new HashSet<>();
+                for (int k = 0; k < updated.length; k++) {
+                    if (updated[k] == 0) {
+                        missing.add((Long) batch.get(k)[1]);
+                    }
+                }
+                latest.keySet().removeAll(missing);
+                AfterCommit.run(() -> latest.forEach(reservations::stockChanged));
+                Map<Long, Long> stockUnits = new LinkedHashMap<>();
+                latest.forEach((materialId, stock) -> stockUnits.put(materialId, Quantity.toUnits(stock)));
+                catalogVersion.stockChangedAfterCommit(stockUnits);
+                return missing;
+            });
+            for (PendingReading reading : drained) {
+                if (unknown.contains(reading.materialId())) {
+                    reading.written().completeExceptionally(new RuntimeException("Raw material not found: " + reading.materialId()));
+                } else {
+                    reading.written().complete(null);
+                }
+            }
+            if (!unknown.isEmpty()) {
+                log.warn("Dropped stock readings for unknown raw materials {}", unknown);
+            }
+            log.debug("Flushed {} stock readings as {} updates", drained.size(), latest.size());
+        } catch (RuntimeException e) {
+            log.warn("Stock ingest flush failed for {} readings: {}", drained.size(), e.getMessage());
+            drained.forEach(reading -> reading.written().completeExceptionally(e));
+        }
+    }
+
+    private void awaitFlush(List<CompletableFuture<Void>> written) {
+        try {
+            CompletableFuture.allOf(written.toArray(CompletableFuture[]::new))
+                    .get(flushTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for stock flush", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RuntimeException("Stock readings were not written", e);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.projedata.inventory.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory view of raw material stock split into available, reserved and confirmed-but-not-yet-written
+ * ("pending") quantities, all in {@link com.projedata.inventory.model.Quantity} units.
+ *
+ * Each material has its own counters, so reservations on different materials never contend;
+ * reservations on the same material race on a single CAS and can never drive availability below zero.
+ */
+public class StockLedger {
+
+    private final ConcurrentHashMap<Long, Account> accounts = new ConcurrentHashMap<>();
+
+    private static final class Account {
+        final AtomicLong available = new AtomicLong();
+        final AtomicLong reserved = new AtomicLong();
+        final AtomicLong pending = new AtomicLong();
+
+        /** Stock currently stored in the database; guarded by the account monitor. */
+        long recorded;
+
+        Account(long stock) {
+            available.set(stock);
+            recorded = stock;
+        }
+    }
+
+    /**
+     * Replaces the account of a material with its stock as read from the database.
+     */
+    public void load(long materialId, long stock) {
+        accounts.put(materialId, new Account(stock));
+    }
+
+    public void clear() {
+        accounts.clear();
+    }
+
+    public void remove(long materialId) {
+        accounts.remove(materialId);
+    }
+
+    /**
+     * The materials that have an account, as a copy.
+     */
+    public Set<Long> materialIds() {
+        return new HashSet<>(accounts.keySet());
+    }
+
+    /**
+     * Applies a stock value written to the database by someone else (e.g. a manual count).
+     * Reservations and pending consumption are kept; only the difference reaches availability.
+     */
+    public void stockChanged(long materialId, long stock) {
+        Account account = accounts.computeIfAbsent(materialId, id -> new Account(stock));
+        synchronized (account) {
+            long delta = stock - account.recorded;
+            account.recorded = stock;
+            account.available.addAndGet(delta);
+        }
+    }
+
+    /**
+     * Takes {@code units} out of the available stock, or returns false when there is not enough.
+     */
+    public boolean tryReserve(long materialId, long units) {
+        Account account = accounts.get(materialId);
+        if (account == null || units <= 0) {
+            return false;
+        }
+        long current;
+        do {
+            current = account.available.get();
+            if (current < units) {
+                return false;
+            }
+        } while (!account.available.compareAndSet(current, current - units));
+
+        account.reserved.addAndGet(units);
+        return true;
+    }
+
+    public void release(long materialId, long units) {
+        Account account = accounts.get(materialId);
+        if (account != null) {
+            account.reserved.addAndGet(-units);
+            account.available.addAndGet(units);
+        }
+    }
+
+    public void confirm(long materialId, long units) {
+        Account account = accounts.get(materialId);
+        if (account != null) {
+            account.reserved.addAndGet(-units);
+            account.pending.addAndGet(units);
+        }
+    }
+
+    /**
+     * Takes all confirmed consumption not yet written to the database, keyed by material id.
+     */
+    public Map<Long, Long> drainPending() {
+        Map<Long, Long> drained = new HashMap<>();
+        accounts.forEach((materialId, account) -> {
+            long units = account.pending.getAndSet(0);
+            if (units != 0) {
+                synchronized (account) {
+                    account.recorded -= units;
+                }
+                drained.put(materialId, units);
+            }
+        });
+        return drained;
+    }
+
+    /**
+     * Puts back consumption taken by {@link #drainPending()} that could not be written.
+     */
+    public void restorePending(Map<Long, Long> drained) {
+        drained.forEach((materialId, units) -> {
+            Account account = accounts.get(materialId);
+            if (account != null) {
+                synchronized (account) {
+                    account.recorded += units;
+                }
+                account.pending.addAndGet(units);
+            }
+        });
+    }
+
+    /**
+     * Stock as last written to the database, i.e. net of flushed consumption only.
+     */
+    public long recorded(long materialId) {
+        Account account = accounts.get(materialId);
+        if (account == null) {
+            return 0;
+        }
+        synchronized (account) {
+            return account.recorded;
+        }
+    }
+
+    public long available(long materialId) {
+        Account account = accounts.get(materialId);
+        return account == null ? 0 : account.available.get();
+    }
+
+    public long reserved(long materialId) {
+        Account account = accounts.get(materialId);
+        return account == null ? 0 : account.reserved.get();
+    }
+
+    public long pending(long materialId) {
+        Account account = accounts.get(materialId);
+        return account == null ? 0 : account.pending.get();
+    }
+}
@@ -0,0 +1,15 @@
+package com.projedata.inventory.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A reservation could not be granted or is no longer active.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class StockReservationException extends RuntimeException {
+
+    public StockReservationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,263 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.ReservationRequest;
+import com.projedata.inventory.dto.ReservationView;
+import com.projedata.inventory.model.Quantity;
+import com.projedata.inventory.model.RawMaterial;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Grants and tracks raw material reservations against the in-memory {@link StockLedger}
+ * instead of row locks. Confirmed consumption is written to {@code raw_material} in batches
+ * by a scheduled flush; the ledger is rebuilt from the database on first use, so startup
+ * needs no database.
+ */
+@Service
+public class StockReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationService.class);
+
+    enum Status { ACTIVE, CONFIRMED, RELEASED, EXPIRED }
+
+    private record Line(long materialId, long units) {
+    }
+
+    private static final class Reservation {
+        final UUID id = UUID.randomUUID();
+        final List<Line> lines;
+        final Instant expiresAt;
+        final AtomicReference<Status> status = new AtomicReference<>(Status.ACTIVE);
+
+        Reservation(List<Line> lines, Instant expiresAt) {
+            this.lines = lines;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final StockLedger ledger = new StockLedger();
+    private final Map<UUID, Reservation> reservations = new ConcurrentHashMap<>();
+
+    private final RawMaterialRepository rawMaterialRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogVersion catalogVersion;
+    private final Clock clock;
+
+    /** Whether the ledger has been loaded; set under this. */
+    private volatile boolean recovered;
+
+    @Value("${inventory.reservations.default-ttl-seconds:900}")
+    private long defaultTtlSeconds;
+
+    @Autowired
+    public StockReservationService(RawMaterialRepository rawMaterialRepository, JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager, CatalogVersion catalogVersion) {
+        this(rawMaterialRepository, jdbcTemplate, transactionManager, catalogVersion, Clock.systemUTC());
+    }
+
+    public StockReservationService(RawMaterialRepository rawMaterialRepository, JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager, CatalogVersion catalogVersion,
+                                   Clock clock) {
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.catalogVersion = catalogVersion;
+        this.clock = clock;
+    }
+
+    /**
+     * Rebuilds the ledger from the stock stored in the database.
+     */
+    public synchronized void recover() {
+        List<RawMaterial> materials = rawMaterialRepository.findAll();
+        ledger.clear();
+        for (RawMaterial material : materials) {
+            ledger.load(material.getId(), Quantity.toUnits(material.getStockQuantity()));
+        }
+        recovered = true;
+        log.info("Stock ledger loaded for {} raw materials", materials.size());
+    }
+
+    public ReservationView reserve(ReservationRequest request) {
+        if (request.lines() == null || request.lines().isEmpty()) {
+            throw new StockReservationException("Reservation has no lines");
+        }
+        ensureRecovered();
+
+        List<Line> granted = new ArrayList<>(request.lines().size());
+        for (ReservationRequest.Line line : request.lines()) {
+            if (line.rawMaterialId() == null || line.quantity() == null || !line.quantity().isPositive()) {
+                releaseAll(granted);
+                throw new StockReservationException("Reservation lines need a raw material and a positive quantity");
+            }
+            if (!ledger.tryReserve(line.rawMaterialId(), line.quantity().units())) {
+                releaseAll(granted);
+                throw new StockReservationException("Insufficient stock for raw material " + line.rawMaterialId());
+            }
+            granted.add(new Line(line.rawMaterialId(), line.quantity().units()));
+        }
+
+        long ttl = request.ttlSeconds() != null ? request.ttlSeconds() : defaultTtlSeconds;
+        Reservation reservation = new Reservation(List.copyOf(granted), clock.instant().plusSeconds(ttl));
+        reservations.put(reservation.id, reservation);
+        return view(reservation);
+    }
+
+    public ReservationView confirm(UUID id) {
+        Reservation reservation = finish(id, Status.CONFIRMED);
+        reservation.lines.forEach(line -> ledger.confirm(line.materialId(), line.units()));
+        return view(reservation);
+    }
+
+    public ReservationView release(UUID id) {
+        Reservation reservation = finish(id, Status.RELEASED);
+        releaseAll(reservation.lines);
+        return view(reservation);
+    }
+
+    public ReservationView find(UUID id) {
+        Reservation reservation = reservations.get(id);
+        if (reservation == null) {
+            throw new RuntimeException("Reservation not found");
+        }
+        return view(reservation);
+    }
+
+    /**
+     * Available quantity of a raw material, net of active reservations.
+     */
+    public BigDecimal available(Long materialId) {
+        ensureRecovered();
+        return Quantity.toBigDecimal(ledger.available(materialId));
+    }
+
+    /**
+     * Applies a stock value written through the raw material endpoints.
+     */
+    public void stockChanged(Long materialId, BigDecimal stockQuantity) {
+        if (!skipBeforeRecovery()) {
+            ledger.stockChanged(materialId, Quantity.toUnits(stockQuantity));
+        }
+    }
+
+    public void materialRemoved(Long materialId) {
+        if (!skipBeforeRecovery()) {
+            ledger.remove(materialId);
+        }
+    }
+
+    /**
+     * The raw materials the ledger holds stock for; empty before it has been recovered.
+     */
+    public Set<Long> materialIds() {
+        return skipBeforeRecovery() ? Set.of() : ledger.materialIds();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservations.expiry-check-millis:1000}")
+    public void expireStale() {
+        Instant now = clock.instant();
+        for (Reservation reservation : reservations.values()) {
+            if (reservation.expiresAt.isBefore(now)
+                    && reservation.status.compareAndSet(Status.ACTIVE, Status.EXPIRED)) {
+                reservations.remove(reservation.id);
+                releaseAll(reservation.lines);
+            }
+        }
+    }
+
+    /**
+     * Writes confirmed consumption to the database as one batched update.
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${inventory.reservations.flush-interval-millis:1000}")
+    public void flush() {
+        Map<Long, Long> drained = ledger.drainPending();
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(drained.size());
+        drained.forEach((materialId, units) -> batch.add(new Object[]{Quantity.toBigDecimal(units), materialId}));
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate("UPDATE raw_material SET stock_quantity = stock_quantity - ? WHERE id = ?", batch);
+                Map<Long, Long> stockUnits = new HashMap<>(drained.size() * 2);
+                drained.keySet().forEach(materialId -> stockUnits.put(materialId, ledger.recorded(materialId)));
+                catalogVersion.stockChangedAfterCommit(stockUnits);
+            });
+        } catch (RuntimeException e) {
+            ledger.restorePending(drained);
+            log.warn("Stock consumption flush failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private void ensureRecovered() {
+        if (!recovered) {
+            synchronized (this) {
+                if (!recovered) {
+                    recover();
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether a committed stock change can be ignored because the ledger has not been loaded yet
+     * (it will read the change from the database). Waits for a recovery in progress, which may have
+     * read the database before the change was committed.
+     */
+    private boolean skipBeforeRecovery() {
+        if (recovered) {
+            return false;
+        }
+        synchronized (this) {
+            return !recovered;
+        }
+    }
+
+    private Reservation finish(UUID id, Status target) {
+        Reservation reservation = reservations.get(id);
+        if (reservation == null) {
+            throw new RuntimeException("Reservation not found");
+        }
+        if (!reservation.status.compareAndSet(Status.ACTIVE, target)) {
+            throw new StockReservationException("Reservation is " + reservation.status.get());
+        }
+        reservations.remove(id);
+        return reservation;
+    }
+
+    private void releaseAll(List<Line> lines) {
+        lines.forEach(line -> ledger.release(line.materialId(), line.units()));
+    }
+
+    private static ReservationView view(Reservation reservation) {
+        return new ReservationView(reservation.id, reservation.status.get().name(), reservation.expiresAt,
+                reservation.lines.stream()
+                        .map(line -> new ReservationRequest.Line(line.materialId(), Quantity.ofUnits(line.units())))
+                        .toList());
+    }
+}
@@ -0,0 +1,89 @@
+package com.projedata.inventory.service;
+
+/**
+ * Keeps the {@code k} indices with the highest scores seen so far in a primitive min-heap,
+ * so picking the best rows out of n costs O(n log k) and no boxing. On equal scores the lower
+ * index (higher planning priority) wins.
+ */
+public final class TopK {
+
+    private final int[] indices;
+    private final long[] scores;
+    private int size;
+
+    public TopK(int k) {
+        this.indices = new int[k];
+        this.scores = new long[k];
+    }
+
+    public void offer(int index, long score) {
+        if (indices.length == 0) {
+            return;
+        }
+        if (size < indices.length) {
+            indices[size] = index;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (worse(0, index, score)) {
+            indices[0] = index;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Drains the heap and returns the retained indices, best first.
+     */
+    public int[] drainSorted() {
+        int[] sorted = new int[size];
+        while (size > 0) {
+            sorted[size - 1] = indices[0];
+            size--;
+            indices[0] = indices[size];
+            scores[0] = scores[size];
+            siftDown(0);
+        }
+        return sorted;
+    }
+
+    /** Whether the entry at heap slot {@code slot} ranks below the given candidate. */
+    private boolean worse(int slot, int index, long score) {
+        return scores[slot] < score || (scores[slot] == score && indices[slot] > index);
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (!worse(slot, indices[parent], scores[parent])) {
+                break;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int left = 2 * slot + 1;
+            if (left >= size) {
+                return;
+            }
+            int right = left + 1;
+            int smallest = right < size && worse(right, indices[left], scores[left]) ? right : left;
+            if (!worse(smallest, indices[slot], scores[slot])) {
+                return;
+            }
+            swap(slot, smallest);
+            slot = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int index = indices[a];
+        indices[a] = indices[b];
+        indices[b] = index;
+        long score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
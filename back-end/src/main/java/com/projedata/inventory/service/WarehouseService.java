@@ -0,0 +1,118 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.WarehouseStockLine;
+import com.projedata.inventory.model.Quantity;
+import com.projedata.inventory.model.RawMaterial;
+import com.projedata.inventory.model.Warehouse;
+import com.projedata.inventory.model.WarehouseStock;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.repository.WarehouseRepository;
+import com.projedata.inventory.repository.WarehouseStockRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Warehouses and the stock of raw materials held in each of them. The stock of a raw material
+ * ({@code raw_material.stock_quantity}) stays the total used for planning: every change to a warehouse
+ * row changes that total by the same amount, in the same transaction and under a lock on the raw
+ * material, and is reported like any other stock change.
+ */
+@Service
+public class WarehouseService {
+
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseStockRepository stockRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final StockReservationService reservations;
+    private final CatalogVersion catalogVersion;
+
+    public WarehouseService(WarehouseRepository warehouseRepository, WarehouseStockRepository stockRepository,
+                            RawMaterialRepository rawMaterialRepository, StockReservationService reservations,
+                            CatalogVersion catalogVersion) {
+        this.warehouseRepository = warehouseRepository;
+        this.stockRepository = stockRepository;
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.reservations = reservations;
+        this.catalogVersion = catalogVersion;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Warehouse> findAll() {
+        return warehouseRepository.findAll();
+    }
+
+    @Transactional
+    public Warehouse create(Warehouse warehouse) {
+        warehouse.setId(null);
+        return warehouseRepository.save(warehouse);
+    }
+
+    /**
+     * Deletes a warehouse; the stock it held is taken off the raw material totals.
+     */
+    @Transactional
+    public void delete(Long id) {
+        Map<Long, Quantity> held = new HashMap<>();
+        for (Object[] row : stockRepository.findQuantitiesByWarehouseId(id)) {
+            held.put((Long) row[0], (Quantity) row[1]);
+        }
+        if (!held.isEmpty()) {
+            Map<Long, Long> stockUnits = new HashMap<>(held.size() * 2);
+            for (RawMaterial material : rawMaterialRepository.findAllForUpdate(held.keySet())) {
+                BigDecimal total = material.getStockQuantity().subtract(held.get(material.getId()).toBigDecimal());
+                material.setStockQuantity(total);
+                stockUnits.put(material.getId(), Quantity.toUnits(total));
+            }
+            AfterCommit.run(() -> stockUnits.forEach((materialId, units) ->
+                    reservations.stockChanged(materialId, Quantity.toBigDecimal(units))));
+            catalogVersion.stockChangedAfterCommit(stockUnits);
+        }
+        stockRepository.deleteByWarehouseId(id);
+        warehouseRepository.deleteById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WarehouseStockLine> findStock(Long warehouseId) {
+        if (!warehouseRepository.existsById(warehouseId)) {
+            throw new RuntimeException("Warehouse not found");
+        }
+        return stockRepository.findLinesByWarehouseId(warehouseId);
+    }
+
+    /**
+     * Sets the quantity of a raw material held in a warehouse, creating the row on first use, and moves the
+     * raw material's total by the difference. The raw material is locked first, so concurrent writes for it
+     * run one after the other: the first one creates the row and the others find and update it.
+     */
+    @Transactional
+    public WarehouseStockLine setStock(Long warehouseId, Long rawMaterialId, Quantity quantity) {
+        if (quantity == null) {
+            throw new RuntimeException("Quantity is required");
+        }
+        RawMaterial material = rawMaterialRepository.findAllForUpdate(List.of(rawMaterialId)).stream().findFirst()
+                .orElseThrow(() -> new RuntimeException("Raw material not found"));
+        WarehouseStock stock = stockRepository.findByWarehouseIdAndRawMaterialId(warehouseId, rawMaterialId)
+                .orElseGet(() -> {
+                    WarehouseStock created = new WarehouseStock();
+                    created.setWarehouse(warehouseRepository.findById(warehouseId)
+                            .orElseThrow(() -> new RuntimeException("Warehouse not found")));
+                    created.setRawMaterial(material);
+                    created.setQuantity(Quantity.ZERO);
+                    return created;
+                });
+        Quantity previous = stock.getQuantity();
+        stock.setQuantity(quantity);
+        stockRepository.save(stock);
+
+        BigDecimal total = material.getStockQuantity().add(quantity.minus(previous).toBigDecimal());
+        material.setStockQuantity(total);
+        AfterCommit.run(() -> reservations.stockChanged(rawMaterialId, total));
+        catalogVersion.stockChangedAfterCommit(Map.of(rawMaterialId, Quantity.toUnits(total)));
+        return new WarehouseStockLine(material.getId(), material.getCode(), material.getName(), quantity);
+    }
+}
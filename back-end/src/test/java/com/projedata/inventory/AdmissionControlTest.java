@@ -0,0 +1,117 @@
+package com.projedata.inventory;
+
+import com.projedata.inventory.config.AdmissionControlFilter;
+import com.projedata.inventory.config.AdmissionControlFilter.EndpointClass;
+import com.projedata.inventory.config.AdmissionProperties;
+import com.projedata.inventory.config.Bulkhead;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControlTest {
+
+    @Test
+    void testClassifiesEndpoints() {
+        assertEquals(EndpointClass.STOCK, AdmissionControlFilter.classify("PUT", "/raw-materials/4"));
+        assertEquals(EndpointClass.STOCK, AdmissionControlFilter.classify("POST", "/raw-materials/stock-ingest"));
+        assertEquals(EndpointClass.STOCK, AdmissionControlFilter.classify("POST", "/reservations/9/confirm"));
+        assertEquals(EndpointClass.STOCK, AdmissionControlFilter.classify("PUT", "/warehouses/1/stock/4"));
+        assertEquals(EndpointClass.REPORTS, AdmissionControlFilter.classify("GET", "/production/suggestions"));
+        assertEquals(EndpointClass.REPORTS, AdmissionControlFilter.classify("POST", "/production/requirements"));
+        assertEquals(EndpointClass.LISTINGS, AdmissionControlFilter.classify("GET", "/raw-materials"));
+        assertEquals(EndpointClass.OTHER, AdmissionControlFilter.classify("GET", "/raw-materials/4"));
+        assertEquals(EndpointClass.OTHER, AdmissionControlFilter.classify("POST", "/products"));
+        assertEquals(EndpointClass.OTHER, AdmissionControlFilter.classify("DELETE", "/raw-materials"));
+        assertEquals(EndpointClass.OTHER, AdmissionControlFilter.classify("DELETE", "/raw-materials/4"));
+    }
+
+    @Test
+    void testLimitsMustFitInTheRequestThreads() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.checkThreads(200);
+
+        properties.setListings(new AdmissionProperties.Limits(8, 2, 32, 64, 1000, true));
+
+        assertTrue(properties.threadsRequired() > 200);
+        assertThrows(IllegalStateException.class, () -> properties.checkThreads(200));
+    }
+
+    @Test
+    void testFullReportsBulkheadRejectsReportsButAdmitsStockWrites() throws Exception {
+        // Arrange: one report slot, no queue, and it is taken
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setRetryAfterSeconds(3);
+        properties.setReports(new AdmissionProperties.Limits(1, 1, 1, 0, 0, false));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, registry);
+        assertEquals(Bulkhead.Admission.ADMITTED, filter.bulkhead(EndpointClass.REPORTS).acquire());
+
+        // Act
+        MockHttpServletResponse report = new MockHttpServletResponse();
+        MockFilterChain reportChain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/production/suggestions"), report, reportChain);
+        MockHttpServletResponse stock = new MockHttpServletResponse();
+        MockFilterChain stockChain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("PUT", "/raw-materials/4"), stock, stockChain);
+
+        // Assert
+        assertEquals(429, report.getStatus());
+        assertEquals("3", report.getHeader("Retry-After"));
+        assertNull(reportChain.getRequest());
+        assertEquals(200, stock.getStatus());
+        assertNotNull(stockChain.getRequest());
+        assertEquals(0, filter.bulkhead(EndpointClass.STOCK).inFlight());
+        assertEquals(1.0, registry.get("inventory.admission.rejected").tag("class", "reports").counter().count());
+    }
+
+    @Test
+    void testQueuedRequestTimesOut() {
+        Bulkhead bulkhead = new Bulkhead(new AdmissionProperties.Limits(1, 1, 1, 4, 20, false));
+        bulkhead.acquire();
+
+        assertEquals(Bulkhead.Admission.TIMED_OUT, bulkhead.acquire());
+        assertEquals(0, bulkhead.queued());
+
+        bulkhead.release(0);
+        assertEquals(Bulkhead.Admission.ADMITTED, bulkhead.acquire());
+    }
+
+    @Test
+    void testAdaptiveLimitBacksOffWhenLatencyRisesAndRecovers() {
+        // Arrange
+        Bulkhead bulkhead = new Bulkhead(new AdmissionProperties.Limits(8, 1, 16, 0, 0, true));
+        long fast = TimeUnit.MILLISECONDS.toNanos(10);
+        long slow = TimeUnit.MILLISECONDS.toNanos(200);
+        saturate(bulkhead, 50, fast);
+        int steady = bulkhead.limit();
+
+        // Act: latency climbs well above the baseline
+        saturate(bulkhead, 20, slow);
+        int backedOff = bulkhead.limit();
+        saturate(bulkhead, 500, fast);
+
+        // Assert
+        assertTrue(steady >= 8, "limit " + steady);
+        assertTrue(backedOff < steady, backedOff + " < " + steady);
+        assertTrue(bulkhead.limit() > backedOff, bulkhead.limit() + " > " + backedOff);
+    }
+
+    /** Runs rounds that use every slot, each request taking {@code latency}. */
+    private static void saturate(Bulkhead bulkhead, int rounds, long latency) {
+        for (int round = 0; round < rounds; round++) {
+            int slots = bulkhead.limit();
+            for (int i = 0; i < slots; i++) {
+                assertEquals(Bulkhead.Admission.ADMITTED, bulkhead.acquire());
+            }
+            for (int i = 0; i < slots; i++) {
+                bulkhead.release(latency);
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.projedata.inventory;
+
+import com.projedata.inventory.model.BomImportJob;
+import com.projedata.inventory.repository.BomImportErrorRepository;
+import com.projedata.inventory.repository.BomImportJobRepository;
+import com.projedata.inventory.repository.ProductRepository;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.service.BomImportService;
+import com.projedata.inventory.service.CatalogVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BomImportServiceTest {
+
+    private static final String LINES = "product_code,raw_material_code,quantity_required\r\n"
+            + "P1,RM1,2\r\n"
+            + "P1,RM2,1\r\n"
+            + "P2,RM9,4\r\n"
+            + "\"P2\",\"RM1\",3\r\n"
+            + "P2,RM2,zero\r\n"
+            + "\r\n"
+            + "P3,RM2,5\r\n"
+            + "P3,RM1\r\n"
+            + "P1,RM3,7";
+
+    @TempDir
+    Path dir;
+
+    private BomImportJob job;
+    private JdbcTemplate jdbcTemplate;
+    private BomImportJobRepository jobRepository;
+    private BomImportService service;
+    private CatalogVersion catalogVersion;
+
+    /** Lines inserted into product_material, in order. */
+    private final List<Object[]> inserted = new ArrayList<>();
+    /** Quantity of the BOM lines in product_material, by "productId/rawMaterialId". */
+    private final Map<String, Integer> bom = new LinkedHashMap<>();
+    private final List<Object[]> errors = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path file = dir.resolve("bom.csv");
+        Files.writeString(file, LINES, StandardCharsets.UTF_8);
+        job = new BomImportJob();
+        job.setId(1L);
+        job.setFileName("bom.csv");
+        job.setPath(file.toString());
+        job.setFileBytes(Files.size(file));
+
+        jobRepository = mock(BomImportJobRepository.class);
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(jobRepository.recordChunk(eq(1L), anyLong(), anyLong(), anyLong(), anyLong())).thenAnswer(invocation -> {
+            job.setCommittedOffset(invocation.getArgument(1));
+            job.setCommittedLines(invocation.getArgument(2));
+            job.setImportedLines(job.getImportedLines() + (long) invocation.getArgument(3));
+            job.setRejectedLines(job.getRejectedLines() + (long) invocation.getArgument(4));
+            return 1;
+        });
+        when(jobRepository.updateStatus(eq(1L), any(), any(), any())).thenAnswer(invocation -> {
+            job.setStatus(invocation.getArgument(1));
+            job.setError(invocation.getArgument(2));
+            return 1;
+        });
+
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.findCodeIds()).thenReturn(codes("P", 3));
+        RawMaterialRepository materialRepository = mock(RawMaterialRepository.class);
+        when(materialRepository.findCodeIds()).thenReturn(codes("RM", 3));
+
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(this::batchUpdate);
+
+        catalogVersion = new CatalogVersion();
+        service = new BomImportService(jobRepository, mock(BomImportErrorRepository.class), productRepository,
+                materialRepository, jdbcTemplate, mock(PlatformTransactionManager.class), catalogVersion,
+                dir.toString(), 2, 3, 1000);
+    }
+
+    @Test
+    void testImportsValidLinesAndReportsTheRest() {
+        // Act
+        service.run(1L);
+
+        // Assert: rows in file order, header and blank line skipped, rejected lines with their line numbers
+        assertEquals(BomImportJob.Status.DONE, job.getStatus());
+        assertEquals(List.of("1/1/2", "1/2/1", "2/1/3", "3/2/5", "1/3/7"), inserted.stream().map(BomImportServiceTest::row).toList());
+        assertEquals(List.of(4L, 6L, 9L), errors.stream().map(error -> (Long) error[1]).toList());
+        assertTrue(((String) errors.get(0)[2]).contains("RM9"));
+        assertEquals(5, job.getImportedLines());
+        assertEquals(3, job.getRejectedLines());
+        assertEquals(10, job.getCommittedLines());
+        assertEquals(job.getFileBytes(), job.getCommittedOffset());
+        verify(jobRepository, times(4)).recordChunk(eq(1L), anyLong(), anyLong(), anyLong(), anyLong());
+        assertEquals(1, catalogVersion.structure());
+    }
+
+    @Test
+    void testResumesAfterTheLastCommittedChunk() {
+        // Arrange: the third chunk's insert fails
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO product_material"), anyList()))
+                .thenAnswer(invocation -> {
+                    List<Object[]> rows = invocation.getArgument(1);
+                    if (row(rows.get(0)).equals("3/2/5")) {
+                        throw new DataAccessResourceFailureException("connection lost");
+                    }
+                    return batchUpdate(invocation);
+                });
+        service.run(1L);
+        assertEquals(BomImportJob.Status.FAILED, job.getStatus());
+        assertEquals("connection lost", job.getError());
+        assertEquals(6, job.getCommittedLines());
+        assertEquals(1, catalogVersion.structure());
+
+        // Act: the database is back
+        reset(jdbcTemplate);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(this::batchUpdate);
+        service.run(1L);
+
+        // Assert: every line imported exactly once
+        assertEquals(BomImportJob.Status.DONE, job.getStatus());
+        assertEquals(List.of("1/1/2", "1/2/1", "2/1/3", "3/2/5", "1/3/7"), inserted.stream().map(BomImportServiceTest::row).toList());
+        assertEquals(List.of(4L, 6L, 9L), errors.stream().map(error -> (Long) error[1]).toList());
+        assertEquals(5, job.getImportedLines());
+        assertEquals(job.getFileBytes(), job.getCommittedOffset());
+        assertEquals(2, catalogVersion.structure());
+    }
+
+    @Test
+    void testImportingTheSameFileAgainSetsQuantitiesInsteadOfAddingLines() throws IOException {
+        // Arrange: the file was imported once, then P1 needs 9 of RM1 and the file has P1/RM2 twice
+        service.run(1L);
+        Path again = dir.resolve("again.csv");
+        Files.writeString(again, LINES.replace("P1,RM1,2", "P1,RM1,9") + "\r\nP1,RM2,6", StandardCharsets.UTF_8);
+        BomImportJob second = new BomImportJob();
+        second.setId(2L);
+        second.setFileName("again.csv");
+        second.setPath(again.toString());
+        second.setFileBytes(Files.size(again));
+        when(jobRepository.findById(2L)).thenReturn(Optional.of(second));
+
+        // Act
+        service.run(2L);
+
+        // Assert: no line was added, the changed quantities were set
+        assertEquals(5, inserted.size());
+        assertEquals(Map.of("1/1", 9, "1/2", 6, "2/1", 3, "3/2", 5, "1/3", 7), bom);
+    }
+
+    /** Answers batchUpdate like the database would for the statements of an import. */
+    private int[] batchUpdate(InvocationOnMock invocation) {
+        String sql = invocation.getArgument(0);
+        List<Object[]> rows = invocation.getArgument(1);
+        int[] counts = new int[rows.size()];
+        for (int k = 0; k < rows.size(); k++) {
+            Object[] row = rows.get(k);
+            if (sql.startsWith("UPDATE product_material")) {
+                counts[k] = bom.replace(row[1] + "/" + row[2], (Integer) row[0]) == null ? 0 : 1;
+            } else if (sql.startsWith("INSERT INTO product_material")) {
+                inserted.add(row);
+                bom.put(row[0] + "/" + row[1], (Integer) row[2]);
+                counts[k] = 1;
+            } else {
+                errors.add(row);
+                counts[k] = 1;
+            }
+        }
+        return counts;
+    }
+
+    private static List<Object[]> codes(String prefix, int count) {
+        List<Object[]> codes = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            codes.add(new Object[]{prefix + id, id});
+        }
+        return codes;
+    }
+
+    private static String row(Object[] row) {
+        return row[0] + "/" + row[1] + "/" + row[2];
+    }
+}
@@ -0,0 +1,97 @@
+package com.projedata.inventory;
+
+import com.projedata.inventory.dto.BottleneckReport;
+import com.projedata.inventory.dto.BottleneckReport.MaterialBottleneck;
+import com.projedata.inventory.model.Product;
+import com.projedata.inventory.model.RawMaterial;
+import com.projedata.inventory.service.BottleneckService;
+import com.projedata.inventory.service.PlanningModel;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.projedata.inventory.PlanningFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BottleneckServiceTest {
+
+    private final BottleneckService service = new BottleneckService(null);
+
+    @Test
+    void testBindingMaterialAndMarginalValue() {
+        // Arrange: the chair needs 4 wood (40 in stock) and 1 screw box (5 in stock)
+        RawMaterial wood = material(1L, "WOOD", "40");
+        RawMaterial screws = material(2L, "SCREWS", "5");
+        RawMaterial paint = material(3L, "PAINT", "1000");
+        Product chair = product(1L, "CHAIR", "120.00", line(wood, 4), line(screws, 1));
+        Product stool = product(2L, "STOOL", "30.00", line(wood, 2), line(paint, 1));
+
+        // Act
+        BottleneckReport report = service.analyze(PlanningModel.build(List.of(chair, stool), List.of(wood, screws, paint)));
+
+        // Assert: screws limit the chair (5), the stool gets the remaining 20 wood (10)
+        assertEquals(2L, report.products().get(0).bindingMaterialId());
+        assertEquals(5, report.products().get(0).producibleQuantity());
+        assertEquals(1L, report.products().get(1).bindingMaterialId());
+        assertEquals(10, report.products().get(1).producibleQuantity());
+
+        // One more screw box: one more chair (+120) takes 4 wood from the stool (-2 x 30)
+        MaterialBottleneck top = report.materials().get(0);
+        assertEquals(2L, top.rawMaterialId());
+        assertEquals(0, new BigDecimal("60").compareTo(top.marginalValue()));
+        assertEquals(1, top.bindingFor());
+
+        // Two more wood make a stool (+30) only every second unit, so one unit adds nothing
+        assertEquals(0, BigDecimal.ZERO.compareTo(valueOf(report, 1L)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(valueOf(report, 3L)));
+    }
+
+    @Test
+    void testMarginalValuesMatchFullRecompute() {
+        // Arrange
+        Random random = new Random(7);
+        List<RawMaterial> materials = new ArrayList<>();
+        for (long m = 1; m <= 30; m++) {
+            materials.add(material(m, "M" + m, String.valueOf(20 + random.nextInt(200))));
+        }
+        List<Product> products = new ArrayList<>();
+        for (long p = 1; p <= 200; p++) {
+            products.add(product(p, "P" + p, (10 + random.nextInt(500)) + ".25",
+                    line(materials.get(random.nextInt(30)), 1 + random.nextInt(4)),
+                    line(materials.get(random.nextInt(30)), 1 + random.nextInt(3))));
+        }
+        PlanningModel model = PlanningModel.build(products, materials);
+        BigDecimal baseValue = totalValue(model, model.initialStock());
+
+        // Act
+        BottleneckReport report = service.analyze(model);
+
+        // Assert: every marginal value equals rerunning the whole plan with one more unit
+        for (MaterialBottleneck row : report.materials()) {
+            int m = model.materialIndex(row.rawMaterialId());
+            long[] stock = model.initialStock();
+            stock[m] += 10_000L;
+            BigDecimal expected = totalValue(model, stock).subtract(baseValue);
+            assertEquals(0, expected.compareTo(row.marginalValue()), "material " + row.rawMaterialId());
+        }
+    }
+
+    private static BigDecimal valueOf(BottleneckReport report, Long materialId) {
+        return report.materials().stream()
+                .filter(row -> row.rawMaterialId().equals(materialId))
+                .findFirst().orElseThrow().marginalValue();
+    }
+
+    private static BigDecimal totalValue(PlanningModel model, long[] stock) {
+        int[] producible = new int[model.productCount()];
+        model.allocate(stock, producible);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < producible.length; i++) {
+            total = total.add(model.getProducts().get(i).getPrice().multiply(BigDecimal.valueOf(producible[i])));
+        }
+        return total;
+    }
+}
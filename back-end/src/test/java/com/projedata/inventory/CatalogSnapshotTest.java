@@ -0,0 +1,229 @@
+package com.projedata.inventory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projedata.inventory.model.Product;
+import com.projedata.inventory.model.ProductMaterial;
+import com.projedata.inventory.model.RawMaterial;
+import com.projedata.inventory.repository.ProductRepository;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.service.CatalogSnapshot;
+import com.projedata.inventory.service.CatalogSnapshotService;
+import com.projedata.inventory.service.CatalogVersion;
+import com.projedata.inventory.service.PlanningModel;
+import com.projedata.inventory.service.ProductionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CatalogSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    private List<RawMaterial> materials;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        materials = new ArrayList<>();
+        for (long m = 1; m <= 10; m++) {
+            RawMaterial material = new RawMaterial();
+            material.setId(m);
+            material.setCode("RM" + m);
+            material.setName("Matéria " + m);
+            material.setStockQuantity(new BigDecimal(100 * m + ".25"));
+            materials.add(material);
+        }
+        products = new ArrayList<>();
+        for (long p = 1; p <= 40; p++) {
+            Product product = new Product();
+            product.setId(p);
+            product.setCode("P" + p);
+            product.setName("Product " + p);
+            product.setPrice(new BigDecimal((p * 37) % 500 + ".90"));
+            List<ProductMaterial> lines = new ArrayList<>();
+            lines.add(line(product, p, materials.get((int) (p % 10)), 1 + (int) (p % 4)));
+            lines.add(line(product, 100 + p, materials.get((int) ((p * 3) % 10)), 2));
+            product.setMaterials(lines);
+            products.add(product);
+        }
+    }
+
+    @Test
+    void testRoundTripPlansLikeTheDatabase() throws IOException {
+        // Arrange
+        Path file = dir.resolve("catalog.snapshot");
+        CatalogSnapshot.write(file, CatalogSnapshot.encode(products, materials, 1L));
+
+        // Act
+        PlanningModel decoded = CatalogSnapshot.open(file).decode();
+
+        // Assert: same entities and the same plan as the model built from the originals
+        PlanningModel original = PlanningModel.build(products, materials);
+        assertEquals(plan(original), plan(decoded));
+        Product first = decoded.getProducts().get(0);
+        assertEquals(original.getProducts().get(0).getPrice(), first.getPrice());
+        assertEquals("Matéria 1", decoded.getMaterials().get(0).getName());
+        assertEquals(new BigDecimal("100.25"), decoded.getMaterials().get(0).getStockQuantity());
+        assertSame(first, first.getMaterials().get(0).getProduct());
+        assertNotSame(first, CatalogSnapshot.open(file).decode().getProducts().get(0));
+    }
+
+    @Test
+    void testChecksumIgnoresRowOrderAndRejectsCorruption() throws IOException {
+        byte[] encoded = CatalogSnapshot.encode(products, materials, 1L);
+        List<Product> reversed = new ArrayList<>(products);
+        Collections.reverse(reversed);
+
+        assertEquals(CatalogSnapshot.checksum(encoded), CatalogSnapshot.checksum(CatalogSnapshot.encode(reversed, materials, 2L)));
+
+        Path file = dir.resolve("corrupt.snapshot");
+        encoded[encoded.length - 1] ^= 1;
+        Files.write(file, encoded);
+        assertThrows(IOException.class, () -> CatalogSnapshot.open(file));
+    }
+
+    @Test
+    void testServesSnapshotUntilWriteOrReconcile() throws IOException {
+        // Arrange: a snapshot on disk, and the database has moved on since it was written
+        Path file = dir.resolve("catalog.snapshot");
+        CatalogSnapshot.write(file, CatalogSnapshot.encode(products, materials, 1L));
+        ProductRepository productRepository = mock(ProductRepository.class);
+        RawMaterialRepository materialRepository = mock(RawMaterialRepository.class);
+        when(productRepository.findAll()).thenReturn(products);
+        when(materialRepository.findAll()).thenReturn(materials);
+        CatalogVersion catalogVersion = new CatalogVersion();
+        @SuppressWarnings("unchecked")
+        ObjectProvider<ProductionService> productionService = mock(ObjectProvider.class);
+        CatalogSnapshotService service = new CatalogSnapshotService(file.toString(), 0, productRepository,
+                materialRepository, mock(PlatformTransactionManager.class), catalogVersion, productionService,
+                new ObjectMapper());
+        materials.get(3).setStockQuantity(BigDecimal.ZERO);
+
+        // Act + Assert: served from the snapshot, without touching the database
+        assertNotNull(service.warmModel());
+        verifyNoInteractions(productRepository);
+
+        service.writeIfChanged();
+        verifyNoInteractions(productRepository);
+
+        // Reconciling notices the stale stock, refreshes dependants and rewrites the file
+        long before = catalogVersion.current();
+        service.start();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!BigDecimal.ZERO.equals(snapshotStock(file, 3)) && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        assertEquals(BigDecimal.ZERO, snapshotStock(file, 3));
+        assertNull(service.warmModel());
+        assertTrue(catalogVersion.current() > before);
+    }
+
+    @Test
+    void testWriteEndsWarmMode() throws IOException {
+        Path file = dir.resolve("catalog.snapshot");
+        CatalogSnapshot.write(file, CatalogSnapshot.encode(products, materials, 1L));
+        CatalogVersion catalogVersion = new CatalogVersion();
+        @SuppressWarnings("unchecked")
+        ObjectProvider<ProductionService> productionService = mock(ObjectProvider.class);
+        CatalogSnapshotService service = new CatalogSnapshotService(file.toString(), 0, mock(ProductRepository.class),
+                mock(RawMaterialRepository.class), mock(PlatformTransactionManager.class), catalogVersion,
+                productionService, new ObjectMapper());
+
+        catalogVersion.bump();
+
+        assertNull(service.warmModel());
+    }
+
+    @Test
+    void testWarmModelIsDecodedOnce() throws IOException {
+        Path file = dir.resolve("catalog.snapshot");
+        CatalogSnapshot.write(file, CatalogSnapshot.encode(products, materials, 1L));
+        CatalogSnapshotService service = service(file, mock(ProductRepository.class), mock(RawMaterialRepository.class),
+                new CatalogVersion());
+
+        assertSame(service.warmModel(), service.warmModel());
+    }
+
+    @Test
+    void testStockChangesRewriteTheFileWithoutReadingTheCatalog() {
+        // Arrange: no snapshot yet, so the reconcile writes the first one
+        Path file = dir.resolve("catalog.snapshot");
+        ProductRepository productRepository = mock(ProductRepository.class);
+        RawMaterialRepository materialRepository = mock(RawMaterialRepository.class);
+        when(productRepository.findAll()).thenReturn(products);
+        when(materialRepository.findAll()).thenReturn(materials);
+        CatalogVersion catalogVersion = new CatalogVersion();
+        CatalogSnapshotService service = service(file, productRepository, materialRepository, catalogVersion);
+        service.start();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (snapshotStock(file, 4) == null && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        clearInvocations(productRepository, materialRepository);
+        when(materialRepository.findStockByIds(List.of(5L))).thenReturn(List.<Object[]>of(new Object[]{5L, new BigDecimal("7.5")}));
+
+        // Act: a committed stock write to material 5, written once the reconcile has finished
+        catalogVersion.stockChanged(Map.of(5L, 75_000L));
+        while (!new BigDecimal("7.5").equals(snapshotStock(file, 4)) && System.currentTimeMillis() < deadline) {
+            service.writeIfChanged();
+        }
+
+        // Assert: only that stock was read again
+        assertEquals(new BigDecimal("7.5"), snapshotStock(file, 4));
+        assertEquals(new BigDecimal("600.25"), snapshotStock(file, 5));
+        verifyNoInteractions(productRepository);
+        verify(materialRepository, never()).findAll();
+
+        // A structural change reads the catalog again
+        catalogVersion.bump();
+        service.writeIfChanged();
+        verify(productRepository).findAll();
+    }
+
+    private static CatalogSnapshotService service(Path file, ProductRepository productRepository,
+                                                  RawMaterialRepository materialRepository, CatalogVersion catalogVersion) {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<ProductionService> productionService = mock(ObjectProvider.class);
+        return new CatalogSnapshotService(file.toString(), 0, productRepository, materialRepository,
+                mock(PlatformTransactionManager.class), catalogVersion, productionService, new ObjectMapper());
+    }
+
+    private static BigDecimal snapshotStock(Path file, int material) {
+        try {
+            return CatalogSnapshot.open(file).decode().getMaterials().get(material).getStockQuantity();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static List<Integer> plan(PlanningModel model) {
+        int[] producible = new int[model.productCount()];
+        model.allocate(model.initialStock(), producible);
+        return Arrays.stream(producible).boxed().toList();
+    }
+
+    private static ProductMaterial line(Product product, long id, RawMaterial material, int quantity) {
+        ProductMaterial pm = new ProductMaterial();
+        pm.setId(id);
+        pm.setProduct(product);
+        pm.setRawMaterial(material);
+        pm.setQuantityRequired(quantity);
+        return pm;
+    }
+}
@@ -0,0 +1,214 @@
+package com.projedata.inventory;
+
+import com.projedata.inventory.model.Product;
+import com.projedata.inventory.model.ProductMaterial;
+import com.projedata.inventory.model.RawMaterial;
+import com.projedata.inventory.service.CatalogStore;
+import com.projedata.inventory.service.CatalogVersion;
+import com.projedata.inventory.service.LongIntHashMap;
+import com.projedata.inventory.service.PlanningModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogStoreTest {
+
+    private EmbeddedDatabase database;
+    private DataSourceTransactionManager transactionManager;
+    private JdbcTemplate jdbcTemplate;
+    private CatalogVersion catalogVersion;
+    private CatalogStore store;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE raw_material (id BIGINT PRIMARY KEY, code VARCHAR(255), name VARCHAR(255), "
+                + "stock_quantity DECIMAL(19, 4))");
+        jdbcTemplate.execute("CREATE TABLE product (id BIGINT PRIMARY KEY, code VARCHAR(255), name VARCHAR(255), "
+                + "price DECIMAL(19, 2), daily_capacity INT, production_days INT)");
+        jdbcTemplate.execute("CREATE TABLE product_material (id BIGINT PRIMARY KEY, product_id BIGINT, "
+                + "raw_material_id BIGINT, quantity_required INT)");
+        catalogVersion = new CatalogVersion();
+        transactionManager = new DataSourceTransactionManager(database);
+        store = new CatalogStore(jdbcTemplate, transactionManager, catalogVersion, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testPlansLikeTheEntityModel() {
+        // Arrange: 300 products over 40 materials, with price ties, lines out of id order and invalid lines
+        Random random = new Random(11);
+        for (long id = 1; id <= 40; id++) {
+            material(id, String.valueOf(100 + random.nextInt(900)));
+        }
+        long lineId = 1000;
+        for (long id = 1; id <= 300; id++) {
+            jdbcTemplate.update("INSERT INTO product VALUES (?, ?, ?, ?, ?, ?)", id, "P" + id, "Product " + (id % 7),
+                    new BigDecimal((10 + random.nextInt(50)) + ".00"), id % 3 == 0 ? null : 5, null);
+            for (int l = random.nextInt(4); l > 0; l--) {
+                jdbcTemplate.update("INSERT INTO product_material VALUES (?, ?, ?, ?)", lineId--, id,
+                        1 + random.nextInt(40), random.nextInt(20) == 0 ? 0 : 1 + random.nextInt(5));
+            }
+        }
+        jdbcTemplate.update("INSERT INTO product_material VALUES (?, ?, ?, ?)", 2000, 7, null, 1);
+
+        // Act
+        PlanningModel model = store.model();
+
+        // Assert
+        PlanningModel expected = PlanningModel.build(entityProducts(), entityMaterials());
+        assertEquals(expected.productCount(), model.productCount());
+        int[] producible = new int[model.productCount()];
+        int[] expectedProducible = new int[model.productCount()];
+        model.allocate(model.initialStock(), producible);
+        expected.allocate(expected.initialStock(), expectedProducible);
+        for (int i = 0; i < model.productCount(); i++) {
+            assertEquals(expected.productId(i), model.productId(i));
+            assertEquals(expectedProducible[i], producible[i]);
+            assertEquals(expected.getProducts().get(i).getMaterials().size(), model.getProducts().get(i).getMaterials().size());
+        }
+        Product seven = store.products().get(6);
+        assertEquals(7L, seven.getId());
+        assertNull(seven.getMaterials().get(seven.getMaterials().size() - 1).getRawMaterial());
+    }
+
+    @Test
+    void testDeduplicatesStringsAndSharesMaterialsWithinAView() {
+        material(1L, "10");
+        material(2L, "10");
+        jdbcTemplate.update("INSERT INTO product VALUES (1, 'P1', 'Widget', 10.00, NULL, NULL)");
+        jdbcTemplate.update("INSERT INTO product VALUES (2, 'P2', 'Widget', 10.00, NULL, NULL)");
+        jdbcTemplate.update("INSERT INTO product_material VALUES (1, 1, 1, 2)");
+        jdbcTemplate.update("INSERT INTO product_material VALUES (2, 2, 1, 3)");
+
+        List<Product> products = store.products();
+        List<RawMaterial> materials = store.materials();
+
+        assertSame(products.get(0).getName(), products.get(1).getName());
+        assertSame(products.get(0).getPrice(), products.get(1).getPrice());
+        assertSame(materials.get(0).getStockQuantity(), materials.get(1).getStockQuantity());
+        assertSame(products.get(0).getMaterials().get(0).getRawMaterial(), products.get(1).getMaterials().get(0).getRawMaterial());
+        assertNotSame(products.get(0), store.products().get(0), "every listing gets its own entities");
+    }
+
+    @Test
+    void testFollowsStockAndStructureChanges() {
+        material(1L, "10");
+        jdbcTemplate.update("INSERT INTO product VALUES (1, 'P1', 'Widget', 10.00, NULL, NULL)");
+        jdbcTemplate.update("INSERT INTO product_material VALUES (1, 1, 1, 2)");
+        PlanningModel before = store.model();
+
+        // A stock-only write
+        jdbcTemplate.update("UPDATE raw_material SET stock_quantity = 4 WHERE id = 1");
+        catalogVersion.stockChanged(Map.of(1L, 40_000L));
+        PlanningModel stock = store.model();
+
+        // A structural write, seen by the very next read
+        jdbcTemplate.update("INSERT INTO product VALUES (2, 'P2', 'Gadget', 20.00, NULL, NULL)");
+        catalogVersion.bump();
+        PlanningModel structure = store.model();
+
+        assertEquals(5, maxProducible(before));
+        assertEquals(2, maxProducible(stock));
+        assertEquals(0, new BigDecimal("4").compareTo(store.materials().get(0).getStockQuantity()));
+        assertEquals(2, structure.productCount());
+        assertEquals(2L, structure.productId(0));
+    }
+
+    @Test
+    void testLoadsInATransactionOfItsOwn() {
+        // Arrange: the caller is in a transaction with an uncommitted product
+        material(1L, "10");
+        TransactionTemplate caller = new TransactionTemplate(transactionManager);
+        caller.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        // Act
+        int products = caller.execute(status -> {
+            new JdbcTemplate(database).update("INSERT INTO product VALUES (1, 'P1', 'Widget', 10.00, NULL, NULL)");
+            int seen = store.model().productCount();
+            status.setRollbackOnly();
+            return seen;
+        });
+
+        // Assert: the load did not join the caller's transaction, so it did not see the row
+        assertEquals(0, products);
+    }
+
+    @Test
+    void testLongIntHashMap() {
+        LongIntHashMap map = new LongIntHashMap(2);
+        for (int i = 0; i < 1000; i++) {
+            map.put(i * 31L - 500, i);
+        }
+        map.put(-500L, 7);
+
+        assertEquals(1000, map.size());
+        assertEquals(7, map.get(-500L));
+        assertEquals(999, map.get(999 * 31L - 500));
+        assertEquals(LongIntHashMap.MISSING, map.get(1L));
+    }
+
+    private static int maxProducible(PlanningModel model) {
+        return model.maxProducible(0, model.initialStock());
+    }
+
+    private void material(Long id, String stock) {
+        jdbcTemplate.update("INSERT INTO raw_material VALUES (?, ?, ?, ?)", id, "RM" + id, "Material " + (id % 5),
+                new BigDecimal(stock));
+    }
+
+    private List<RawMaterial> entityMaterials() {
+        return jdbcTemplate.query("SELECT id, code, name, stock_quantity FROM raw_material ORDER BY id", (rs, row) -> {
+            RawMaterial material = new RawMaterial();
+            material.setId(rs.getLong(1));
+            material.setCode(rs.getString(2));
+            material.setName(rs.getString(3));
+            material.setStockQuantity(rs.getBigDecimal(4));
+            return material;
+        });
+    }
+
+    private List<Product> entityProducts() {
+        Map<Long, RawMaterial> materials = new HashMap<>();
+        entityMaterials().forEach(material -> materials.put(material.getId(), material));
+        Map<Long, Product> products = new HashMap<>();
+        List<Product> ordered = jdbcTemplate.query("SELECT id, price FROM product ORDER BY id", (rs, row) -> {
+            Product product = new Product();
+            product.setId(rs.getLong(1));
+            product.setPrice(rs.getBigDecimal(2));
+            product.setMaterials(new ArrayList<>());
+            products.put(product.getId(), product);
+            return product;
+        });
+        jdbcTemplate.query("SELECT product_id, raw_material_id, quantity_required FROM product_material ORDER BY id", rs -> {
+            ProductMaterial line = new ProductMaterial();
+            line.setProduct(products.get(rs.getLong(1)));
+            long materialId = rs.getLong(2);
+            line.setRawMaterial(rs.wasNull() ? null : materials.get(materialId));
+            line.setQuantityRequired(rs.getInt(3));
+            line.getProduct().getMaterials().add(line);
+        });
+        return ordered;
+    }
+}
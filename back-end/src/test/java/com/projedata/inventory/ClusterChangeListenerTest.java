@@ -0,0 +1,137 @@
+package com.projedata.inventory;
+
+import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.service.CatalogVersion;
+import com.projedata.inventory.service.ClusterChangeListener;
+import com.projedata.inventory.service.StockReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ClusterChangeListenerTest {
+
+    private StockReservationService reservations;
+    private CatalogVersion catalogVersion;
+    private ClusterChangeListener listener;
+    private RawMaterialRepository materialRepository;
+    private final Map<Long, BigDecimal> database = new HashMap<>();
+    private final List<Map<Long, Long>> stockUpdates = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        reservations = mock(StockReservationService.class);
+        materialRepository = mock(RawMaterialRepository.class);
+        when(materialRepository.findStockByIds(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(database::containsKey)
+                    .map(id -> new Object[]{id, database.get(id)})
+                    .toList();
+        });
+        catalogVersion = new CatalogVersion();
+        catalogVersion.addStockListener(stockUpdates::add);
+        listener = new ClusterChangeListener(null, null, null, null, materialRepository, reservations, catalogVersion,
+                "inventory_changes", 20, false);
+    }
+
+    @Test
+    void testStockBurstIsCoalesced() {
+        // Arrange: the committed stock, which the notifications do not carry
+        database.put(1L, new BigDecimal("7"));
+        database.put(2L, new BigDecimal("5.5"));
+
+        // Act: three statements touching material 1, one of them material 2 as well, in one burst
+        listener.apply(List.of("raw_material,U,1", "raw_material,U,1 2", "raw_material,U,1"));
+
+        // Assert: one stock update with the committed value per material, no structural change
+        verify(reservations).stockChanged(1L, new BigDecimal("7"));
+        verify(reservations).stockChanged(2L, new BigDecimal("5.5"));
+        verifyNoMoreInteractions(reservations);
+        assertEquals(List.of(Map.of(1L, 70_000L, 2L, 55_000L)), stockUpdates);
+        assertEquals(0, catalogVersion.structure());
+        assertEquals(1, catalogVersion.current());
+    }
+
+    @Test
+    void testCatalogChangesBumpOnce() {
+        listener.apply(List.of("product", "product_material", "product"));
+
+        assertEquals(1, catalogVersion.structure());
+        assertTrue(stockUpdates.isEmpty());
+        verifyNoInteractions(reservations);
+    }
+
+    @Test
+    void testInsertedAndDeletedMaterials() {
+        // Arrange
+        database.put(3L, new BigDecimal("100"));
+
+        // Act: material 3 is created, materials 3 and 4 are updated, then material 4 is deleted
+        listener.apply(List.of("raw_material,I,3", "raw_material,U,3 4", "raw_material,D,4"));
+
+        // Assert
+        verify(reservations).stockChanged(3L, new BigDecimal("100"));
+        verify(reservations).materialRemoved(4L);
+        verify(reservations, never()).stockChanged(eq(4L), any());
+        assertEquals(1, catalogVersion.structure());
+        assertEquals(List.of(Map.of(3L, 1_000_000L)), stockUpdates);
+    }
+
+    @Test
+    void testRenamedMaterialsChangeTheStructure() {
+        database.put(5L, new BigDecimal("3"));
+
+        listener.apply(List.of("raw_material,A,5"));
+
+        verify(reservations).stockChanged(5L, new BigDecimal("3"));
+        assertEquals(1, catalogVersion.structure());
+        assertEquals(List.of(Map.of(5L, 30_000L)), stockUpdates);
+    }
+
+    @Test
+    void testResyncRemovesMaterialsDeletedWhileNotListening() {
+        // Arrange: the ledger knows materials 1 to 3, material 2 was deleted while disconnected
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (long id : new long[]{1, 3}) {
+                ResultSet row = mock(ResultSet.class);
+                when(row.getLong(1)).thenReturn(id);
+                when(row.getBigDecimal(2)).thenReturn(BigDecimal.TEN);
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        when(reservations.materialIds()).thenReturn(Set.of(1L, 2L, 3L));
+        listener = new ClusterChangeListener(null, null, jdbcTemplate, null, materialRepository, reservations,
+                catalogVersion, "inventory_changes", 20, false);
+
+        // Act
+        listener.resync();
+
+        // Assert
+        verify(reservations).stockChanged(1L, BigDecimal.TEN);
+        verify(reservations).stockChanged(3L, BigDecimal.TEN);
+        verify(reservations).materialRemoved(2L);
+        verify(reservations, never()).materialRemoved(1L);
+        assertEquals(1, catalogVersion.structure());
+    }
+
+    @Test
+    void testChannelMustBeAnIdentifier() {
+        assertThrows(IllegalArgumentException.class, () -> new ClusterChangeListener(null, null, null, null, materialRepository,
+                reservations, catalogVersion, "changes; DROP TABLE product", 20, false));
+    }
+}
@@ -0,0 +1,143 @@
+package com.projedata.inventory;
+
+import com.projedata.inventory.config.RepositoryCallInterceptor;
+import com.projedata.inventory.dto.RecordingView;
+import com.projedata.inventory.model.Product;
+import com.projedata.inventory.model.ProductMaterial;
+import com.projedata.inventory.model.RawMaterial;
+import com.projedata.inventory.repository.ProductRepository;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.service.FlightRecorderService;
+import com.projedata.inventory.service.ProductionService;
+import com.projedata.inventory.service.RecordingStateException;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FlightRecorderTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    @InjectMocks
+    private ProductionService productionService;
+
+    private FlightRecorderService recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new FlightRecorderService(30, 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recorder.close();
+    }
+
+    @Test
+    void testRecordsPlannerPhasesAndProducts() throws IOException {
+        // Arrange
+        RawMaterial material = new RawMaterial();
+        material.setId(1L);
+        material.setCode("RM001");
+        material.setStockQuantity(new BigDecimal("10"));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(material));
+        when(productRepository.findAll()).thenReturn(List.of(product(1L, material, 2), product(2L, material, 3)));
+
+        // Act
+        RecordingView started = recorder.start(Duration.ofSeconds(10), "default", true);
+        productionService.getSuggestion();
+        recorder.stop();
+
+        // Assert
+        assertEquals("RUNNING", started.state());
+        List<RecordedEvent> events = read(recorder.dump());
+        List<String> phases = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.projedata.inventory.PlannerPhase"))
+                .map(event -> event.getString("phase"))
+                .toList();
+        assertEquals(List.of("load", "build", "allocate", "results"), phases);
+        List<Long> products = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.projedata.inventory.PlannerProduct"))
+                .map(event -> event.getLong("productId"))
+                .toList();
+        assertEquals(List.of(1L, 2L), products);
+    }
+
+    @Test
+    void testRecordsRepositoryCalls() throws IOException {
+        // Arrange: a repository proxy as Spring Data builds it, with the interceptor in front
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(new RawMaterial(), new RawMaterial()));
+        ProxyFactory proxyFactory = new ProxyFactory(rawMaterialRepository);
+        proxyFactory.addInterface(RawMaterialRepository.class);
+        proxyFactory.addAdvice(new RepositoryCallInterceptor(RawMaterialRepository.class));
+        RawMaterialRepository repository = (RawMaterialRepository) proxyFactory.getProxy();
+
+        // Act
+        recorder.start(Duration.ofSeconds(10), "default", false);
+        repository.findAll();
+        recorder.stop();
+
+        // Assert
+        RecordedEvent call = read(recorder.dump()).stream()
+                .filter(event -> event.getEventType().getName().equals("com.projedata.inventory.RepositoryCall"))
+                .findFirst().orElseThrow();
+        assertEquals("RawMaterialRepository", call.getString("repository"));
+        assertEquals("findAll", call.getString("method"));
+        assertEquals(2, call.getInt("rows"));
+        assertFalse(call.getBoolean("failed"));
+    }
+
+    @Test
+    void testOneBoundedRecordingAtATime() {
+        RecordingView started = recorder.start(Duration.ofHours(5), "profile", false);
+
+        assertEquals(Duration.ofSeconds(30), started.duration());
+        assertEquals(16L * 1024 * 1024, started.maxSizeBytes());
+        assertThrows(RecordingStateException.class, () -> recorder.start(Duration.ofSeconds(10), "default", false));
+        assertEquals("STOPPED", recorder.stop().state());
+        assertThrows(RecordingStateException.class, recorder::stop);
+    }
+
+    private static List<RecordedEvent> read(Path file) throws IOException {
+        try {
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Product product(Long id, RawMaterial material, int quantityRequired) {
+        Product product = new Product();
+        product.setId(id);
+        product.setCode("P" + id);
+        product.setPrice(new BigDecimal("10.00"));
+        ProductMaterial line = new ProductMaterial();
+        line.setProduct(product);
+        line.setRawMaterial(material);
+        line.setQuantityRequired(quantityRequired);
+        product.setMaterials(List.of(line));
+        return product;
+    }
+}
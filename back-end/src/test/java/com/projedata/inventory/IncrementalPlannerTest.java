@@ -0,0 +1,142 @@
+package com.projedata.inventory;
+
+import com.projedata.inventory.dto.PlanDiff;
+import com.projedata.inventory.dto.StockReading;
+import com.projedata.inventory.model.Product;
+import com.projedata.inventory.model.ProductMaterial;
+import com.projedata.inventory.model.Quantity;
+import com.projedata.inventory.model.RawMaterial;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.service.CatalogVersion;
+import com.projedata.inventory.service.IncrementalPlanner;
+import com.projedata.inventory.service.PlanningModel;
+import com.projedata.inventory.service.ProductionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.projedata.inventory.PlanningFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class IncrementalPlannerTest {
+
+    private List<RawMaterial> materials;
+    private List<Product> products;
+    private ProductionService productionService;
+    private CatalogVersion catalogVersion;
+    private IncrementalPlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        // 300 products over 40 materials, two or three lines each
+        materials = new ArrayList<>();
+        for (long m = 1; m <= 40; m++) {
+            materials.add(material(m, String.valueOf(500 + m * 13)));
+        }
+        products = new ArrayList<>();
+        for (long p = 1; p <= 300; p++) {
+            List<ProductMaterial> lines = new ArrayList<>();
+            lines.add(line(materials.get((int) (p % 40)), 1 + (int) (p % 5)));
+            lines.add(line(materials.get((int) ((p * 7) % 40)), 2));
+            if (p % 3 == 0) {
+                lines.add(line(materials.get((int) ((p * 11) % 40)), 3));
+            }
+            products.add(product(p, (1000 - p) + ".50", lines.toArray(ProductMaterial[]::new)));
+        }
+
+        productionService = mock(ProductionService.class);
+        when(productionService.buildModel()).thenAnswer(invocation -> PlanningModel.build(products, materials));
+        RawMaterialRepository materialRepository = mock(RawMaterialRepository.class);
+        when(materialRepository.findStockByIds(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return materials.stream().filter(material -> ids.contains(material.getId()))
+                    .map(material -> new Object[]{material.getId(), material.getStockQuantity()})
+                    .toList();
+        });
+        catalogVersion = new CatalogVersion();
+        planner = new IncrementalPlanner(productionService, materialRepository, catalogVersion);
+    }
+
+    @Test
+    void testIncrementalPlanMatchesFullRecompute() {
+        // Arrange
+        planner.latest();
+        Random random = new Random(42);
+
+        for (int round = 0; round < 200; round++) {
+            RawMaterial changed = materials.get(random.nextInt(materials.size()));
+            changed.setStockQuantity(BigDecimal.valueOf(random.nextInt(800)));
+
+            // Act: a committed stock write outside any transaction is applied immediately
+            catalogVersion.stockChangedAfterCommit(Map.of(changed.getId(), Quantity.toUnits(changed.getStockQuantity())));
+
+            // Assert: same quantities as planning from scratch
+            assertEquals(fullPlan(), planner.quantities(), "round " + round);
+        }
+        verify(productionService, times(1)).buildModel();
+    }
+
+    @Test
+    void testCallbacksArrivingOutOfCommitOrder() {
+        // Arrange: two commits to the same material, 300 then 20
+        planner.latest();
+        RawMaterial material = materials.get(5);
+        material.setStockQuantity(new BigDecimal("20"));
+
+        // Act: the callback of the later commit runs first
+        catalogVersion.stockChangedAfterCommit(Map.of(material.getId(), Quantity.toUnits(new BigDecimal("20"))));
+        planner.quantities();
+        catalogVersion.stockChangedAfterCommit(Map.of(material.getId(), Quantity.toUnits(new BigDecimal("300"))));
+
+        // Assert: the committed stock wins over the stale value
+        assertEquals(fullPlan(), planner.quantities());
+    }
+
+    @Test
+    void testPreviewReusesPrefixAndDoesNotApply() {
+        // Arrange: a material only matters from its first user onwards
+        PlanningModel model = PlanningModel.build(products, materials);
+        RawMaterial material = materials.get(17);
+        int firstUser = model.firstUser(model.materialIndex(material.getId()));
+
+        // Act
+        PlanDiff diff = planner.preview(List.of(new StockReading(material.getId(), BigDecimal.ZERO)));
+
+        // Assert
+        assertEquals(firstUser, diff.replannedFrom());
+        assertFalse(diff.changes().isEmpty());
+        assertTrue(diff.changes().stream().allMatch(change -> change.after() != change.before()));
+        assertEquals(fullPlan(), planner.quantities());
+        assertTrue(planner.latest().isEmpty());
+    }
+
+    @Test
+    void testCatalogChangeRebuilds() {
+        planner.latest();
+
+        catalogVersion.bump();
+        planner.latest();
+
+        verify(productionService, times(2)).buildModel();
+    }
+
+    private Map<Long, Integer> fullPlan() {
+        PlanningModel model = PlanningModel.build(products, materials);
+        int[] producible = new int[model.productCount()];
+        model.allocate(model.initialStock(), producible);
+        Map<Long, Integer> plan = new LinkedHashMap<>();
+        for (int i = 0; i < producible.length; i++) {
+            plan.put(model.productId(i), producible[i]);
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,53 @@
+package com.projedata.inventory;
+
+import com.projedata.inventory.model.Product;
+import com.projedata.inventory.model.ProductMaterial;
+import com.projedata.inventory.model.RawMaterial;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Catalog entities for planning tests. Materials default to code {@code RM<id>} and products to {@code P<id>};
+ * a product owns its BOM lines, which are kept in a mutable list.
+ */
+public final class PlanningFixtures {
+
+    private PlanningFixtures() {
+    }
+
+    public static RawMaterial material(Long id, String stock) {
+        return material(id, "RM" + id, stock);
+    }
+
+    public static RawMaterial material(Long id, String code, String stock) {
+        RawMaterial material = new RawMaterial();
+        material.setId(id);
+        material.setCode(code);
+        material.setStockQuantity(new BigDecimal(stock));
+        return material;
+    }
+
+    public static Product product(Long id, String price, ProductMaterial... lines) {
+        return product(id, "P" + id, price, lines);
+    }
+
+    public static Product product(Long id, String code, String price, ProductMaterial... lines) {
+        Product product = new Product();
+        product.setId(id);
+        product.setCode(code);
+        product.setPrice(new BigDecimal(price));
+        List<ProductMaterial> bom = new ArrayList<>(List.of(lines));
+        bom.forEach(line -> line.setProduct(product));
+        product.setMaterials(bom);
+        return product;
+    }
+
+    public static ProductMaterial line(RawMaterial material, int quantity) {
+        ProductMaterial pm = new ProductMaterial();
+        pm.setRawMaterial(material);
+        pm.setQuantityRequired(quantity);
+        return pm;
+    }
+}
@@ -0,0 +1,85 @@
+package com.projedata.inventory;
+
+import com.projedata.inventory.model.Product;
+import com.projedata.inventory.model.RawMaterial;
+import com.projedata.inventory.service.PlanningModel;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.projedata.inventory.PlanningFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlanningModelTest {
+
+    @Test
+    void testProductsAreOrderedByPriceAndShareStock() {
+        // Arrange: two products competing for material 1
+        RawMaterial material = material(1L, "100");
+        Product cheap = product(1L, "10.00", line(material, 10));
+        Product expensive = product(2L, "50.00", line(material, 30));
+
+        // Act
+        PlanningModel model = PlanningModel.build(List.of(cheap, expensive), List.of(material));
+        long[] stock = model.initialStock();
+        int[] producible = new int[model.productCount()];
+        model.allocate(stock, producible);
+
+        // Assert: expensive first takes 3 x 30, cheap gets the remaining 10
+        assertEquals(2L, model.productId(0));
+        assertEquals(3, producible[0]);
+        assertEquals(1, producible[1]);
+        assertEquals(0, stock[0]);
+    }
+
+    @Test
+    void testUnknownMaterialAndEmptyBom() {
+        RawMaterial known = material(1L, "100");
+        RawMaterial unknown = material(2L, "100");
+        Product withUnknown = product(1L, "20.00", line(unknown, 1));
+        Product withoutBom = product(2L, "10.00");
+
+        PlanningModel model = PlanningModel.build(List.of(withUnknown, withoutBom), List.of(known));
+        int[] producible = new int[2];
+        model.allocate(model.initialStock(), producible);
+
+        assertEquals(0, producible[0]);
+        assertEquals(PlanningModel.UNBOUNDED_QUANTITY, producible[1]);
+    }
+
+    @Test
+    void testAllocationLoopDoesNotAllocate() {
+        // Arrange: 2000 products over 200 materials
+        List<RawMaterial> materials = new ArrayList<>();
+        for (long m = 1; m <= 200; m++) {
+            materials.add(material(m, "100000.5"));
+        }
+        List<Product> products = new ArrayList<>();
+        for (long p = 1; p <= 2000; p++) {
+            products.add(product(p, p + ".99",
+                    line(materials.get((int) (p % 200)), 3),
+                    line(materials.get((int) ((p * 7) % 200)), 2)));
+        }
+        PlanningModel model = PlanningModel.build(products, materials);
+        long[] stock = new long[model.materialCount()];
+        int[] producible = new int[model.productCount()];
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 200; i++) {
+            System.arraycopy(model.initialStock(), 0, stock, 0, stock.length);
+            model.allocate(stock, producible);
+        }
+
+        // Act: measure only the allocation loop
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100; i++) {
+            model.allocate(stock, producible);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        // Assert: nothing beyond measurement noise
+        assertTrue(allocated < 1024, "allocation loop allocated " + allocated + " bytes");
+    }
+}
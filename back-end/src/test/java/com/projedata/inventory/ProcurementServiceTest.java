@@ -0,0 +1,78 @@
+package com.projedata.inventory;
+
+import com.projedata.inventory.dto.ProductionTarget;
+import com.projedata.inventory.dto.PurchaseLine;
+import com.projedata.inventory.model.Product;
+import com.projedata.inventory.model.RawMaterial;
+import com.projedata.inventory.service.PlanningModel;
+import com.projedata.inventory.service.ProcurementService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.projedata.inventory.PlanningFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProcurementServiceTest {
+
+    private final ProcurementService service = new ProcurementService(null);
+
+    private PlanningModel model;
+
+    @BeforeEach
+    void setUp() {
+        // Tables and chairs share wood; only tables need glass
+        RawMaterial wood = material(1L, "WOOD", "100");
+        RawMaterial glass = material(2L, "GLASS", "3");
+        RawMaterial screws = material(3L, "SCREWS", "1000");
+        Product table = product(1L, "TABLE", "500.00", line(wood, 20), line(glass, 1), line(screws, 8));
+        Product chair = product(2L, "CHAIR", "100.00", line(wood, 5), line(screws, 4));
+        model = PlanningModel.build(List.of(table, chair), List.of(wood, glass, screws));
+    }
+
+    @Test
+    void testSharedMaterialIsAggregated() {
+        // Act: 5 tables and 10 chairs need 150 wood, 5 glass, 80 screws
+        List<PurchaseLine> lines = service.requirements(model, List.of(
+                new ProductionTarget(1L, 2), new ProductionTarget(2L, 10), new ProductionTarget(1L, 3)));
+
+        // Assert: screws are in stock, wood and glass are short
+        assertEquals(2, lines.size());
+        PurchaseLine wood = lines.stream().filter(line -> line.rawMaterialId() == 1L).findFirst().orElseThrow();
+        assertEquals(0, new BigDecimal("150").compareTo(wood.required()));
+        assertEquals(0, new BigDecimal("50").compareTo(wood.shortfall()));
+        // A third of the wood is missing for 2500 + 1000 of production
+        assertEquals(0, new BigDecimal("1166.6667").compareTo(wood.shortageValue()));
+
+        // Glass: 2 of 5 missing for 2500 of tables = 1000, less than wood
+        PurchaseLine glass = lines.get(1);
+        assertEquals(2L, glass.rawMaterialId());
+        assertEquals(0, new BigDecimal("2").compareTo(glass.shortfall()));
+        assertEquals(0, new BigDecimal("1000").compareTo(glass.shortageValue()));
+        assertEquals(1L, lines.get(0).rawMaterialId());
+    }
+
+    @Test
+    void testUnknownProductIsRejected() {
+        assertThrows(RuntimeException.class,
+                () -> service.requirements(model, List.of(new ProductionTarget(99L, 1))));
+    }
+
+    @Test
+    void testLargeTargetListIsAggregatedPerProduct() {
+        // Act: 10,000 target lines of one chair each
+        List<ProductionTarget> targets = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            targets.add(new ProductionTarget(2L, 1));
+        }
+        List<PurchaseLine> lines = service.requirements(model, targets);
+
+        // Assert: 49,900 wood and 39,000 screws to buy
+        assertEquals(2, lines.size());
+        assertEquals(0, new BigDecimal("49900").compareTo(lines.get(0).shortfall()));
+        assertEquals(0, new BigDecimal("39000").compareTo(lines.get(1).shortfall()));
+    }
+}
@@ -2,7 +2,7 @@ package com.projedata.inventory;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.projedata.inventory.model.Product;
-import com.projedata.inventory.repository.ProductRepository;
+import com.projedata.inventory.service.ProductService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -12,7 +12,6 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
-import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -26,7 +25,7 @@ public class ProductControllerTest {
     private MockMvc mockMvc;
 
     @MockBean
-    private ProductRepository productRepository;
+    private ProductService productService;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -39,7 +38,7 @@ public class ProductControllerTest {
         product.setName("Test Product");
         product.setPrice(new BigDecimal("100.00"));
 
-        when(productRepository.findAll()).thenReturn(Arrays.asList(product));
+        when(productService.findAll()).thenReturn(Arrays.asList(product));
 
         // Act & Assert: Test GET /products endpoint
         mockMvc.perform(get("/products"))
@@ -61,7 +60,7 @@ public class ProductControllerTest {
         savedProduct.setName("New Product");
         savedProduct.setPrice(new BigDecimal("150.00"));
 
-        when(productRepository.save(any(Product.class))).thenReturn(savedProduct);
+        when(productService.create(any(Product.class))).thenReturn(savedProduct);
 
         // Act & Assert: Test POST /products endpoint
         mockMvc.perform(post("/products")
@@ -80,7 +79,7 @@ public class ProductControllerTest {
         product.setName("Test Product");
         product.setPrice(new BigDecimal("100.00"));
 
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productService.findById(1L)).thenReturn(product);
 
         // Act & Assert: Test GET /products/{id} endpoint
         mockMvc.perform(get("/products/1"))
@@ -1,13 +1,20 @@
 package com.projedata.inventory;
 
 import com.projedata.inventory.model.Product;
+import com.projedata.inventory.model.ProductMaterial;
+import com.projedata.inventory.model.RawMaterial;
 import com.projedata.inventory.repository.ProductRepository;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.service.CatalogVersion;
+import com.projedata.inventory.service.ProductService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +29,15 @@ public class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @InjectMocks
+    private ProductService productService;
+
     @Test
     void testFindAllProducts() {
         // Arrange: Configurar dados mock
@@ -100,4 +116,90 @@ public class ProductServiceTest {
         // Assert: Verify if was called
         verify(productRepository, times(1)).deleteById(1L);
     }
+
+    @Test
+    void testCreateResolvesRawMaterialsInOneQuery() {
+        // Arrange: Product with two lines using the same raw material
+        RawMaterial material = new RawMaterial();
+        material.setId(1L);
+        material.setName("Material A");
+
+        Product product = new Product();
+        product.setId(99L);
+        product.setName("New Product");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setMaterials(new ArrayList<>(Arrays.asList(line(1L, 2), line(1L, 3))));
+
+        when(rawMaterialRepository.findAllById(List.of(1L))).thenReturn(List.of(material));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Product result = productService.create(product);
+
+        // Assert: Id reset, lines linked to the product and the managed raw material
+        assertNull(result.getId());
+        for (ProductMaterial pm : result.getMaterials()) {
+            assertSame(result, pm.getProduct());
+            assertSame(material, pm.getRawMaterial());
+        }
+        verify(rawMaterialRepository, times(1)).findAllById(any());
+        verify(rawMaterialRepository, never()).findById(any());
+    }
+
+    @Test
+    void testCreateFailsForUnknownRawMaterial() {
+        // Arrange
+        Product product = new Product();
+        product.setMaterials(new ArrayList<>(List.of(line(5L, 1))));
+
+        when(rawMaterialRepository.findAllById(List.of(5L))).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> productService.create(product));
+        verify(productRepository, never()).save(any());
+    }
+
+    @Test
+    void testUpdateReplacesMaterials() {
+        // Arrange: Existing product with one line
+        RawMaterial oldMaterial = new RawMaterial();
+        oldMaterial.setId(1L);
+        RawMaterial newMaterial = new RawMaterial();
+        newMaterial.setId(2L);
+
+        Product existing = new Product();
+        existing.setId(1L);
+        existing.setName("Old");
+        existing.setMaterials(new ArrayList<>(List.of(line(1L, 1))));
+
+        Product updated = new Product();
+        updated.setName("New");
+        updated.setCode("P-NEW");
+        updated.setPrice(new BigDecimal("20.00"));
+        updated.setMaterials(List.of(line(2L, 4)));
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(rawMaterialRepository.findAllById(List.of(2L))).thenReturn(List.of(newMaterial));
+
+        // Act
+        Product result = productService.update(1L, updated);
+
+        // Assert: Managed instance updated in place, no explicit save needed
+        assertSame(existing, result);
+        assertEquals("New", result.getName());
+        assertEquals(1, result.getMaterials().size());
+        assertSame(newMaterial, result.getMaterials().get(0).getRawMaterial());
+        assertEquals(4, result.getMaterials().get(0).getQuantityRequired());
+        verify(productRepository, never()).save(any());
+    }
+
+    private static ProductMaterial line(Long rawMaterialId, int quantity) {
+        RawMaterial rawMaterial = new RawMaterial();
+        rawMaterial.setId(rawMaterialId);
+
+        ProductMaterial pm = new ProductMaterial();
+        pm.setRawMaterial(rawMaterial);
+        pm.setQuantityRequired(quantity);
+        return pm;
+    }
 }
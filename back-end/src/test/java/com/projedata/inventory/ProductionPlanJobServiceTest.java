@@ -0,0 +1,147 @@
+package com.projedata.inventory;
+
+import com.projedata.inventory.dto.PlanJobView;
+import com.projedata.inventory.model.Product;
+import com.projedata.inventory.service.CatalogVersion;
+import com.projedata.inventory.service.ProductionPlanJobService;
+import com.projedata.inventory.service.ProductionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductionPlanJobServiceTest {
+
+    @Mock
+    private ProductionService productionService;
+
+    private CatalogVersion catalogVersion;
+    private MutableClock clock;
+    private ProductionPlanJobService jobService;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        catalogVersion = new CatalogVersion();
+        clock = new MutableClock(Instant.parse("2026-01-01T06:00:00Z"));
+        jobService = new ProductionPlanJobService(productionService, catalogVersion, 1, 4, 2, 600, clock);
+
+        // Plans report progress and then wait until the test lets them finish
+        Product product = new Product();
+        product.setId(7L);
+        product.setName("Product A");
+        product.setProducibleQuantity(12);
+        lenient().when(productionService.getSuggestion(any())).thenAnswer(invocation -> {
+            ProductionService.Progress progress = invocation.getArgument(0);
+            progress.update(500, 1000);
+            release.await(5, TimeUnit.SECONDS);
+            progress.update(1000, 1000);
+            return List.of(product);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        jobService.shutdown();
+    }
+
+    @Test
+    void testRequestsForTheSameDataVersionShareOneJob() throws Exception {
+        PlanJobView first = jobService.start();
+        PlanJobView second = jobService.start();
+
+        assertEquals(first.id(), second.id());
+
+        release.countDown();
+        PlanJobView done = awaitDone(first.id());
+        assertEquals("DONE", done.status());
+        assertEquals(1000, done.processed());
+        assertEquals(List.of(new PlanJobView.PlannedProduct(7L, 12)), done.result());
+        verify(productionService, times(1)).getSuggestion(any());
+    }
+
+    @Test
+    void testNewDataVersionStartsNewJob() throws Exception {
+        PlanJobView first = jobService.start();
+        catalogVersion.bump();
+        PlanJobView second = jobService.start();
+
+        assertNotEquals(first.id(), second.id());
+        assertEquals(1, second.dataVersion());
+    }
+
+    @Test
+    void testProgressIsVisibleWhileRunning() throws Exception {
+        PlanJobView job = jobService.start();
+
+        PlanJobView running = awaitProgress(job.id());
+        assertEquals("RUNNING", running.status());
+        assertEquals(1000, running.total());
+        assertNull(running.result());
+    }
+
+    @Test
+    void testOldestJobsAreEvicted() {
+        PlanJobView first = jobService.start();
+        catalogVersion.bump();
+        jobService.start();
+        catalogVersion.bump();
+        jobService.start();
+
+        assertTrue(jobService.find(first.id()).isEmpty());
+    }
+
+    @Test
+    void testFinishedJobsExpire() throws Exception {
+        // Arrange
+        release.countDown();
+        PlanJobView job = jobService.start();
+        awaitDone(job.id());
+
+        // Act
+        clock.advanceSeconds(599);
+        boolean retained = jobService.find(job.id()).isPresent();
+        clock.advanceSeconds(2);
+
+        // Assert: gone after the retention period, and the next request for the same data starts again
+        assertTrue(retained);
+        assertTrue(jobService.find(job.id()).isEmpty());
+        assertNotEquals(job.id(), jobService.start().id());
+    }
+
+    private PlanJobView awaitDone(UUID id) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            PlanJobView view = jobService.find(id).orElseThrow();
+            if (view.status().equals("DONE") || view.status().equals("FAILED")) {
+                return view;
+            }
+            Thread.sleep(10);
+        }
+        return fail("plan did not finish");
+    }
+
+    private PlanJobView awaitProgress(UUID id) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            PlanJobView view = jobService.find(id).orElseThrow();
+            if (view.processed() > 0) {
+                return view;
+            }
+            Thread.sleep(10);
+        }
+        return fail("plan made no progress");
+    }
+}
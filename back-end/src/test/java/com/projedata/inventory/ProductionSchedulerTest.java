@@ -0,0 +1,190 @@
+package com.projedata.inventory;
+
+import com.projedata.inventory.dto.ProductionSchedule;
+import com.projedata.inventory.model.Product;
+import com.projedata.inventory.model.ProductMaterial;
+import com.projedata.inventory.model.Quantity;
+import com.projedata.inventory.model.RawMaterial;
+import com.projedata.inventory.repository.MaterialDeliveryRepository;
+import com.projedata.inventory.service.CatalogVersion;
+import com.projedata.inventory.service.PlanningModel;
+import com.projedata.inventory.service.ProductionScheduler;
+import com.projedata.inventory.service.ProductionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.projedata.inventory.PlanningFixtures.line;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ProductionSchedulerTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 3, 2);
+
+    private List<RawMaterial> materials;
+    private List<Product> products;
+    private List<Object[]> deliveries;
+    private ProductionService productionService;
+    private MaterialDeliveryRepository deliveryRepository;
+
+    @BeforeEach
+    void setUp() {
+        materials = new ArrayList<>();
+        products = new ArrayList<>();
+        deliveries = new ArrayList<>();
+        productionService = mock(ProductionService.class);
+        when(productionService.buildModel()).thenAnswer(invocation -> PlanningModel.build(products, materials));
+        deliveryRepository = mock(MaterialDeliveryRepository.class);
+        when(deliveryRepository.findQuantitiesBetween(any(), any())).thenAnswer(invocation -> {
+            LocalDate from = invocation.getArgument(0);
+            LocalDate to = invocation.getArgument(1);
+            return deliveries.stream()
+                    .filter(row -> !((LocalDate) row[1]).isBefore(from) && ((LocalDate) row[1]).isBefore(to))
+                    .toList();
+        });
+    }
+
+    @Test
+    void testRespectsCapacityDeliveriesAndProductionTime() {
+        // Arrange: 2 units a day, finished the next day, one unit of M each; 4 more M arrive on day 2
+        RawMaterial m = material(1L, "5");
+        Product a = product(1L, "100.00", 2, 1, line(m, 1));
+        deliveries.add(delivery(m, START.plusDays(2), "4"));
+        ProductionScheduler scheduler = new ProductionScheduler(productionService, deliveryRepository, new CatalogVersion());
+
+        // Act
+        ProductionSchedule schedule = scheduler.schedule(START, 4);
+
+        // Assert: 2 + 2 + 2 started, nothing on the last day as it would finish after the horizon
+        assertEquals(3, schedule.days().size());
+        assertEquals(List.of(2, 2, 2), schedule.days().stream().map(day -> day.runs().get(0).quantity()).toList());
+        assertEquals(START.plusDays(3), schedule.days().get(2).runs().get(0).completionDate());
+        assertEquals(new BigDecimal("600.00"), schedule.totalValue());
+        assertEquals(a.getId(), schedule.days().get(0).runs().get(0).productId());
+    }
+
+    @Test
+    void testRollingWarmStartMatchesFullRecompute() {
+        // Arrange: 200 products over 30 materials, with capacities, production times and deliveries
+        Random random = new Random(7);
+        for (long id = 1; id <= 30; id++) {
+            material(id, String.valueOf(200 + random.nextInt(400)));
+        }
+        for (long id = 1; id <= 200; id++) {
+            product(id, (500 - id) + ".00", 1 + random.nextInt(5), random.nextInt(4),
+                    line(materials.get(random.nextInt(30)), 1 + random.nextInt(3)),
+                    line(materials.get(random.nextInt(30)), 1 + random.nextInt(2)));
+        }
+        for (int d = 0; d < 100; d++) {
+            if (random.nextInt(3) == 0) {
+                deliveries.add(delivery(materials.get(random.nextInt(30)), START.plusDays(d),
+                        String.valueOf(10 + random.nextInt(100))));
+            }
+        }
+        CatalogVersion catalogVersion = new CatalogVersion();
+        ProductionScheduler scheduler = new ProductionScheduler(productionService, deliveryRepository, catalogVersion);
+        ProductionSchedule today = scheduler.schedule(START, 90);
+
+        // Act: the first day went as planned, and the horizon rolls forward by a day
+        applyFirstDay(today);
+        ProductionSchedule tomorrow = scheduler.schedule(START.plusDays(1), 90);
+
+        // Assert
+        ProductionSchedule fresh = new ProductionScheduler(productionService, deliveryRepository, catalogVersion)
+                .schedule(START.plusDays(1), 90);
+        assertEquals(0, fresh.reusedDays());
+        assertTrue(tomorrow.reusedDays() >= 80, "reused " + tomorrow.reusedDays());
+        assertEquals(fresh.days(), tomorrow.days());
+        assertEquals(fresh.totalValue(), tomorrow.totalValue());
+    }
+
+    @Test
+    void testChangedStockRecomputes() {
+        RawMaterial m = material(1L, "50");
+        product(1L, "10.00", 3, 0, line(m, 1));
+        ProductionScheduler scheduler = new ProductionScheduler(productionService, deliveryRepository, new CatalogVersion());
+        scheduler.schedule(START, 10);
+
+        m.setStockQuantity(new BigDecimal("7"));
+        ProductionSchedule schedule = scheduler.schedule(START, 10);
+
+        assertEquals(0, schedule.reusedDays());
+        assertEquals(new BigDecimal("70.00"), schedule.totalValue());
+    }
+
+    @Test
+    void testRepeatedAndExtendedScheduleWithoutProductionTime() {
+        // Arrange: production time unset, so every day of the last schedule can be reused
+        RawMaterial m = material(1L, "30");
+        product(1L, "10.00", 2, 0, line(m, 1));
+        products.get(0).setProductionDays(null);
+        deliveries.add(delivery(m, START.plusDays(12), "5"));
+        ProductionScheduler scheduler = new ProductionScheduler(productionService, deliveryRepository, new CatalogVersion());
+        ProductionSchedule first = scheduler.schedule(START, 10);
+
+        // Act
+        ProductionSchedule repeated = scheduler.schedule(START, 10);
+        ProductionSchedule extended = scheduler.schedule(START, 20);
+
+        // Assert
+        assertEquals(10, repeated.reusedDays());
+        assertEquals(first.days(), repeated.days());
+        assertEquals(10, extended.reusedDays());
+        ProductionSchedule fresh = new ProductionScheduler(productionService, deliveryRepository, new CatalogVersion())
+                .schedule(START, 20);
+        assertEquals(fresh.days(), extended.days());
+        assertEquals(new BigDecimal("350.00"), extended.totalValue());
+    }
+
+    /** Sets stock to what is left after the first day of {@code schedule}. */
+    private void applyFirstDay(ProductionSchedule schedule) {
+        Map<Long, Long> stock = new HashMap<>();
+        for (RawMaterial material : materials) {
+            stock.put(material.getId(), Quantity.toUnits(material.getStockQuantity()));
+        }
+        for (Object[] row : deliveries) {
+            if (row[1].equals(START)) {
+                stock.merge((Long) row[0], ((Quantity) row[2]).units(), Long::sum);
+            }
+        }
+        ProductionSchedule.ScheduledDay first = schedule.days().get(0);
+        assertEquals(START, first.date());
+        for (ProductionSchedule.ScheduledRun run : first.runs()) {
+            Product product = products.stream().filter(p -> p.getId().equals(run.productId())).findFirst().orElseThrow();
+            for (ProductMaterial line : product.getMaterials()) {
+                stock.merge(line.getRawMaterial().getId(),
+                        -Quantity.of(line.getQuantityRequired()).units() * run.quantity(), Long::sum);
+            }
+        }
+        for (RawMaterial material : materials) {
+            material.setStockQuantity(Quantity.toBigDecimal(stock.get(material.getId())));
+        }
+    }
+
+    private RawMaterial material(Long id, String stock) {
+        RawMaterial material = PlanningFixtures.material(id, stock);
+        materials.add(material);
+        return material;
+    }
+
+    private Product product(Long id, String price, int dailyCapacity, int productionDays, ProductMaterial... lines) {
+        Product product = PlanningFixtures.product(id, price, lines);
+        product.setDailyCapacity(dailyCapacity);
+        product.setProductionDays(productionDays);
+        products.add(product);
+        return product;
+    }
+
+    private static Object[] delivery(RawMaterial material, LocalDate date, String quantity) {
+        return new Object[]{material.getId(), date, Quantity.of(new BigDecimal(quantity))};
+    }
+}
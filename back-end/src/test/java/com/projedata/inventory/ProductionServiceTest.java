@@ -1,10 +1,17 @@
 package com.projedata.inventory;
 
+import com.projedata.inventory.dto.ProductionSuggestion;
+import com.projedata.inventory.dto.SuggestionQuery;
+import com.projedata.inventory.dto.WarehousePlanReport;
 import com.projedata.inventory.model.Product;
 import com.projedata.inventory.model.ProductMaterial;
+import com.projedata.inventory.model.Quantity;
 import com.projedata.inventory.model.RawMaterial;
+import com.projedata.inventory.model.Warehouse;
 import com.projedata.inventory.repository.ProductRepository;
 import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.repository.WarehouseRepository;
+import com.projedata.inventory.repository.WarehouseStockRepository;
 import com.projedata.inventory.service.ProductionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,11 +19,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Collections;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,6 +39,12 @@ public class ProductionServiceTest {
     @Mock
     private RawMaterialRepository materialRepository;
 
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private WarehouseStockRepository warehouseStockRepository;
+
     @InjectMocks
     private ProductionService productionService;
 
@@ -265,4 +280,98 @@ public class ProductionServiceTest {
         verify(productRepository, times(1)).findAll();
         verify(materialRepository, times(1)).findAll();
     }
+
+    @Test
+    void testGetSuggestion_TopKByTotalValue() {
+        // Arrange: the cheapest product has the most stock, so it has the highest total value
+        highValueProduct.setMaterials(Arrays.asList(line(highValueProduct, materialC, 10)));  // 3 x 200 = 600
+        mediumValueProduct.setMaterials(Arrays.asList(line(mediumValueProduct, materialB, 10))); // 6 x 100 = 600
+        lowValueProduct.setMaterials(Arrays.asList(line(lowValueProduct, materialA, 1)));      // 100 x 50 = 5000
+
+        when(productRepository.findAll()).thenReturn(Arrays.asList(lowValueProduct, highValueProduct, mediumValueProduct));
+        when(materialRepository.findAll()).thenReturn(Arrays.asList(materialA, materialB, materialC));
+
+        // Act
+        List<ProductionSuggestion> result = productionService.findSuggestions(new SuggestionQuery(2, null, null, null));
+
+        // Assert: highest total value first, ties keep planning priority
+        assertEquals(2, result.size());
+        assertEquals(3L, result.get(0).id());
+        assertEquals(new BigDecimal("5000.00"), result.get(0).totalValue());
+        assertEquals(1L, result.get(1).id());
+        assertEquals(3, result.get(1).producibleQuantity());
+    }
+
+    @Test
+    void testGetSuggestion_FiltersKeepFullPlanQuantities() {
+        // Arrange: high and medium compete for material A
+        highValueProduct.setCode("PRD-1");
+        mediumValueProduct.setCode("PRD-2");
+        lowValueProduct.setCode("OTHER-3");
+        highValueProduct.setMaterials(Arrays.asList(line(highValueProduct, materialA, 30)));
+        mediumValueProduct.setMaterials(Arrays.asList(line(mediumValueProduct, materialA, 10)));
+        lowValueProduct.setMaterials(Arrays.asList(line(lowValueProduct, materialC, 10)));
+
+        when(productRepository.findAll()).thenReturn(Arrays.asList(lowValueProduct, highValueProduct, mediumValueProduct));
+        when(materialRepository.findAll()).thenReturn(Arrays.asList(materialA, materialB, materialC));
+
+        // Act
+        List<ProductionSuggestion> byPrefix = productionService.findSuggestions(new SuggestionQuery(null, null, null, "PRD-"));
+        List<ProductionSuggestion> byIds = productionService.findSuggestions(new SuggestionQuery(null, null, Set.of(2L), null));
+        List<ProductionSuggestion> byQuantity = productionService.findSuggestions(new SuggestionQuery(null, 2, null, null));
+
+        // Assert: selecting a product does not give it the stock used by higher priority products
+        assertEquals(List.of(1L, 2L), byPrefix.stream().map(ProductionSuggestion::id).toList());
+        assertEquals(1, byIds.size());
+        assertEquals(1, byIds.get(0).producibleQuantity());
+        assertEquals(List.of(1L, 3L), byQuantity.stream().map(ProductionSuggestion::id).toList());
+    }
+
+    @Test
+    void testGetWarehousePlans_PlansEachWarehouseOnItsOwnStock() {
+        // Arrange: both products need material A; only the north warehouse can make the high value one
+        highValueProduct.setMaterials(Arrays.asList(line(highValueProduct, materialA, 30)));
+        mediumValueProduct.setMaterials(Arrays.asList(line(mediumValueProduct, materialA, 10)));
+        Warehouse north = warehouse(1L, "N");
+        Warehouse south = warehouse(2L, "S");
+
+        when(productRepository.findAll()).thenReturn(Arrays.asList(mediumValueProduct, highValueProduct));
+        when(materialRepository.findAll()).thenReturn(Arrays.asList(materialA));
+        when(warehouseRepository.findAll(any(Sort.class))).thenReturn(Arrays.asList(north, south));
+        when(warehouseStockRepository.findAllQuantities()).thenReturn(Arrays.asList(
+                new Object[]{1L, 1L, Quantity.of(new BigDecimal("70"))},
+                new Object[]{2L, 1L, Quantity.of(new BigDecimal("25"))}));
+
+        // Act
+        WarehousePlanReport report = productionService.getWarehousePlans();
+
+        // Assert: 70 -> 2 x high + 1 x medium, 25 -> 2 x medium; not a plan on the pooled 95
+        WarehousePlanReport.WarehousePlan first = report.warehouses().get(0);
+        assertEquals("N", first.code());
+        assertEquals(List.of(1L, 2L), first.products().stream().map(ProductionSuggestion::id).toList());
+        assertEquals(new BigDecimal("500.00"), first.totalValue());
+        WarehousePlanReport.WarehousePlan second = report.warehouses().get(1);
+        assertEquals(1, second.products().size());
+        assertEquals(2, second.products().get(0).producibleQuantity());
+
+        assertEquals(2, report.total().get(0).producibleQuantity());
+        assertEquals(3, report.total().get(1).producibleQuantity());
+        assertEquals(new BigDecimal("700.00"), report.totalValue());
+    }
+
+    private static Warehouse warehouse(Long id, String code) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setId(id);
+        warehouse.setCode(code);
+        warehouse.setName("Warehouse " + code);
+        return warehouse;
+    }
+
+    private static ProductMaterial line(Product product, RawMaterial material, int quantity) {
+        ProductMaterial pm = new ProductMaterial();
+        pm.setProduct(product);
+        pm.setRawMaterial(material);
+        pm.setQuantityRequired(quantity);
+        return pm;
+    }
 }
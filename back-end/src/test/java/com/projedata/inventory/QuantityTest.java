@@ -0,0 +1,71 @@
+package com.projedata.inventory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projedata.inventory.model.Quantity;
+import com.projedata.inventory.model.QuantityConverter;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuantityTest {
+
+    @Test
+    void testConversionFromAndToBigDecimal() {
+        Quantity quantity = Quantity.of(new BigDecimal("12.5"));
+
+        assertEquals(125_000L, quantity.units());
+        assertEquals(new BigDecimal("12.5"), quantity.toBigDecimal());
+        assertEquals(new BigDecimal("100"), Quantity.of(100).toBigDecimal());
+    }
+
+    @Test
+    void testExtraDecimalsAreTruncated() {
+        assertEquals(12_345L, Quantity.toUnits(new BigDecimal("1.23459")));
+    }
+
+    @Test
+    void testArithmetic() {
+        Quantity a = Quantity.of(new BigDecimal("10.25"));
+        Quantity b = Quantity.of(new BigDecimal("0.75"));
+
+        assertEquals(Quantity.of(11), a.plus(b));
+        assertEquals(Quantity.of(new BigDecimal("9.5")), a.minus(b));
+        assertEquals(Quantity.of(new BigDecimal("30.75")), a.times(3));
+    }
+
+    @Test
+    void testFits() {
+        assertEquals(3, Quantity.fits(Quantity.of(10).units(), Quantity.of(3).units()));
+        assertEquals(0, Quantity.fits(0, Quantity.of(3).units()));
+        assertEquals(0, Quantity.fits(-5, Quantity.of(3).units()));
+        assertEquals(Integer.MAX_VALUE, Quantity.fits(Long.MAX_VALUE, 1));
+    }
+
+    @Test
+    void testOverflowIsDetected() {
+        Quantity big = Quantity.ofUnits(Long.MAX_VALUE / 2 + 1);
+
+        assertThrows(ArithmeticException.class, () -> big.plus(big));
+        assertThrows(ArithmeticException.class, () -> big.times(2));
+        assertThrows(ArithmeticException.class, () -> Quantity.of(new BigDecimal("1e20")));
+    }
+
+    @Test
+    void testJsonRepresentationIsAPlainNumber() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertEquals("12.5", objectMapper.writeValueAsString(Quantity.of(new BigDecimal("12.50"))));
+        assertEquals(Quantity.of(new BigDecimal("7.25")), objectMapper.readValue("7.25", Quantity.class));
+    }
+
+    @Test
+    void testConverterRoundTrip() {
+        QuantityConverter converter = new QuantityConverter();
+
+        assertEquals(new BigDecimal("3.5"), converter.convertToDatabaseColumn(Quantity.of(new BigDecimal("3.5"))));
+        assertEquals(Quantity.of(new BigDecimal("3.5")), converter.convertToEntityAttribute(new BigDecimal("3.50")));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
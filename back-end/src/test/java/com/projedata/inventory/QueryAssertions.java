@@ -0,0 +1,28 @@
+package com.projedata.inventory;
+
+import com.projedata.inventory.config.QueryCounter;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Assertions on the number of SQL statements Hibernate runs on the test thread.
+ */
+public final class QueryAssertions {
+
+    private QueryAssertions() {
+    }
+
+    /**
+     * Runs {@code action} and fails if it ran more than {@code max} statements; returns its result,
+     * so MockMvc calls can keep chaining expectations.
+     */
+    public static <T> T assertMaxQueries(int max, Callable<T> action) throws Exception {
+        long start = QueryCounter.current();
+        T result = action.call();
+        long statements = QueryCounter.current() - start;
+        assertTrue(statements <= max, "expected at most " + max + " SQL statements but ran " + statements);
+        return result;
+    }
+}
@@ -0,0 +1,67 @@
+package com.projedata.inventory;
+
+import com.projedata.inventory.config.QueryBudgetExceededException;
+import com.projedata.inventory.config.QueryBudgetFilter;
+import com.projedata.inventory.config.QueryCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryBudgetFilterTest {
+
+    private final QueryCounter inspector = new QueryCounter();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testLogModeRecordsStatementsAndOverBudget() throws Exception {
+        // Arrange: a request that runs 5 statements against a budget of 3
+        QueryBudgetFilter filter = new QueryBudgetFilter(3, QueryBudgetFilter.Mode.LOG, registry);
+        MockHttpServletRequest request = request();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), statements(5));
+
+        // Assert
+        assertEquals(5.0, registry.get("inventory.http.queries").tag("uri", "/products/{id}").summary().totalAmount());
+        assertEquals(1.0, registry.get("inventory.http.queries.over.budget").counter().count());
+    }
+
+    @Test
+    void testRejectModeFailsTheStatementOverBudget() {
+        QueryBudgetFilter filter = new QueryBudgetFilter(3, QueryBudgetFilter.Mode.REJECT, registry);
+
+        assertThrows(QueryBudgetExceededException.class,
+                () -> filter.doFilter(request(), new MockHttpServletResponse(), statements(4)));
+
+        // The limit does not outlive the request
+        assertDoesNotThrow(() -> inspector.inspect("select 1"));
+    }
+
+    @Test
+    void testRejectModeAllowsRequestsWithinBudget() throws Exception {
+        QueryBudgetFilter filter = new QueryBudgetFilter(3, QueryBudgetFilter.Mode.REJECT, registry);
+
+        filter.doFilter(request(), new MockHttpServletResponse(), statements(3));
+
+        assertEquals(0, registry.find("inventory.http.queries.over.budget").counters().size());
+    }
+
+    private FilterChain statements(int count) {
+        return (request, response) -> {
+            for (int i = 0; i < count; i++) {
+                inspector.inspect("select 1");
+            }
+        };
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/products/{id}");
+        return request;
+    }
+}
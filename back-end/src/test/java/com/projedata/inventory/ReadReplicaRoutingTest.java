@@ -0,0 +1,100 @@
+package com.projedata.inventory;
+
+import com.projedata.inventory.config.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadReplicaRoutingTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange: two independent H2 databases, each knowing its own name
+        primary = h2("primary");
+        replica = h2("replica");
+
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica), 1000, "SELECT lag FROM replica_lag", 60_000);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        routing.close();
+        new JdbcTemplate(primary).execute("SHUTDOWN");
+        new JdbcTemplate(replica).execute("SHUTDOWN");
+    }
+
+    @Test
+    void testReadOnlyTransactionGoesToReplica() {
+        assertEquals("replica", readOnly.execute(status -> nodeName()));
+    }
+
+    @Test
+    void testWriteTransactionGoesToPrimary() {
+        assertEquals("primary", readWrite.execute(status -> nodeName()));
+    }
+
+    @Test
+    void testLaggingReplicaFallsBackToPrimary() {
+        // Arrange: replica reports more lag than allowed
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET lag = 60000");
+
+        // Act
+        routing.checkReplicas();
+
+        // Assert
+        assertFalse(routing.isHealthy(0));
+        assertEquals("primary", readOnly.execute(status -> nodeName()));
+    }
+
+    @Test
+    void testCloseClosesReplicaPools() {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        ReplicaRoutingDataSource owning = new ReplicaRoutingDataSource(primary, List.of(pool), 1000,
+                "SELECT lag FROM replica_lag", 60_000);
+
+        owning.close();
+
+        assertTrue(pool.isClosed());
+    }
+
+    private String nodeName() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        jdbc.execute("CREATE TABLE replica_lag (lag BIGINT)");
+        jdbc.update("INSERT INTO replica_lag VALUES (0)");
+        return dataSource;
+    }
+}
@@ -0,0 +1,53 @@
+package com.projedata.inventory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projedata.inventory.config.ResponseCoalescer;
+import com.projedata.inventory.service.CatalogVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ResponseCoalescerTest {
+
+    private ResponseCoalescer coalescer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        coalescer = new ResponseCoalescer(new CatalogVersion(), new ObjectMapper(),
+                new MappingJackson2CborHttpMessageConverter(), mock(ObjectProvider.class), true);
+    }
+
+    @Test
+    void testFormatFollowsQualityValues() {
+        assertEquals(MediaType.APPLICATION_JSON, format(null));
+        assertEquals(MediaType.APPLICATION_JSON, format("*/*"));
+        assertEquals(MediaType.APPLICATION_JSON, format("application/cbor;q=0.1, application/json"));
+        assertEquals(MediaType.APPLICATION_CBOR, format("application/json;q=0.5, application/cbor"));
+        assertEquals(MediaType.APPLICATION_CBOR, format("application/cbor, application/json"));
+        assertEquals(MediaType.APPLICATION_CBOR, format("application/cbor, */*"));
+        // The most specific range decides: JSON is excluded although */* accepts anything
+        assertEquals(MediaType.APPLICATION_CBOR, format("*/*, application/json;q=0"));
+    }
+
+    @Test
+    void testUnsupportedFormatsAreNotAcceptable() {
+        for (String accept : List.of("text/html", "application/xml, application/json;q=0", "application/cbor;q=0", "not a type")) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> format(accept), accept);
+            assertEquals(HttpStatus.NOT_ACCEPTABLE, e.getStatusCode());
+        }
+    }
+
+    private MediaType format(String accept) {
+        return coalescer.respond("test", null, accept, () -> List.of(1, 2)).getHeaders().getContentType();
+    }
+}
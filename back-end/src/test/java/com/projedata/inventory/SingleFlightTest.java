@@ -0,0 +1,90 @@
+package com.projedata.inventory;
+
+import com.projedata.inventory.service.SingleFlight;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    @Test
+    void testConcurrentCallsShareOneComputation() throws Exception {
+        // Arrange: the first computation blocks until every caller has joined it
+        AtomicInteger computations = new AtomicInteger();
+        AtomicInteger shared = new AtomicInteger();
+        SingleFlight<String, byte[]> flights = new SingleFlight<>(wasShared -> {
+            if (wasShared) {
+                shared.incrementAndGet();
+            }
+        });
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+
+        // Act
+        List<Future<byte[]>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> flights.execute("suggestions", () -> {
+                    computations.incrementAndGet();
+                    await(release);
+                    return new byte[]{42};
+                })));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (shared.get() < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            // Assert: one computation, and every caller got the very same bytes
+            byte[] first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<byte[]> result : results) {
+                assertSame(first, result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, computations.get());
+        assertEquals(0, flights.inFlight());
+    }
+
+    @Test
+    void testNothingIsKeptAfterTheFlight() {
+        SingleFlight<String, Integer> flights = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+
+        flights.execute("raw-materials", computations::incrementAndGet);
+        flights.execute("raw-materials", computations::incrementAndGet);
+
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    void testFailureReachesCallerAndIsNotKept() {
+        SingleFlight<String, Integer> flights = new SingleFlight<>();
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> flights.execute("k", () -> { throw new RuntimeException("Product not found"); }));
+
+        assertEquals("Product not found", error.getMessage());
+        assertEquals(7, flights.execute("k", () -> 7));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
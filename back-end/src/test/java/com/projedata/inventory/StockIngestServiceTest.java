@@ -0,0 +1,122 @@
+package com.projedata.inventory;
+
+import com.projedata.inventory.dto.StockReading;
+import com.projedata.inventory.service.CatalogVersion;
+import com.projedata.inventory.service.StockIngestRejectedException;
+import com.projedata.inventory.service.StockIngestService;
+import com.projedata.inventory.service.StockIngestService.Durability;
+import com.projedata.inventory.service.StockReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockIngestServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private StockReservationService reservations;
+
+    private StockIngestService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new StockIngestService(jdbcTemplate, transactionManager, reservations, new CatalogVersion(), 3, Durability.ENQUEUE, 5000);
+        // Raw materials 1 to 99 exist
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            return rows.stream().mapToInt(row -> (Long) row[1] < 100 ? 1 : 0).toArray();
+        });
+    }
+
+    @Test
+    void testReadingsForTheSameMaterialAreCoalesced() {
+        // Arrange: three readings, two of them for material 1
+        service.submit(List.of(reading(1L, "10"), reading(2L, "20")), Durability.ENQUEUE);
+        service.submit(List.of(reading(1L, "12")), Durability.ENQUEUE);
+
+        // Act
+        service.flush();
+
+        // Assert: one batch with the latest value per material
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture());
+        assertEquals(2, batch.getValue().size());
+        assertEquals(new BigDecimal("12"), batch.getValue().get(0)[0]);
+        assertEquals(1L, batch.getValue().get(0)[1]);
+        assertEquals(0, service.queued());
+        verify(reservations).stockChanged(1L, new BigDecimal("12"));
+    }
+
+    @Test
+    void testFullQueueRejectsReadings() {
+        service.submit(List.of(reading(1L, "1"), reading(2L, "2")), Durability.ENQUEUE);
+
+        assertThrows(StockIngestRejectedException.class,
+                () -> service.submit(List.of(reading(3L, "3"), reading(4L, "4")), Durability.ENQUEUE));
+        assertEquals(2, service.queued());
+    }
+
+    @Test
+    void testFlushDurabilityWaitsForTheBatch() throws Exception {
+        // Act: submit on another thread, it must block until flushed
+        CompletableFuture<Void> submitted = CompletableFuture.runAsync(
+                () -> service.submit(List.of(reading(1L, "5")), Durability.FLUSH));
+        while (service.queued() == 0) {
+            Thread.onSpinWait();
+        }
+        assertFalse(submitted.isDone());
+
+        service.flush();
+
+        // Assert
+        submitted.get();
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void testReadingsForUnknownMaterialsAreNotReported() {
+        // Arrange
+        CompletableFuture<Void> submitted = CompletableFuture.runAsync(
+                () -> service.submit(List.of(reading(1L, "5"), reading(404L, "7")), Durability.FLUSH));
+        while (service.queued() < 2) {
+            Thread.onSpinWait();
+        }
+
+        // Act
+        service.flush();
+
+        // Assert: the known material is written and reported, the unknown one fails the request
+        ExecutionException failure = assertThrows(ExecutionException.class, submitted::get);
+        assertTrue(failure.getCause().getCause().getMessage().contains("404"));
+        verify(reservations).stockChanged(1L, new BigDecimal("5"));
+        verify(reservations, never()).stockChanged(eq(404L), any());
+    }
+
+    private static StockReading reading(Long id, String quantity) {
+        return new StockReading(id, new BigDecimal(quantity));
+    }
+}
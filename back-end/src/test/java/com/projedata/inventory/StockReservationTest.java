@@ -0,0 +1,182 @@
+package com.projedata.inventory;
+
+import com.projedata.inventory.dto.ReservationRequest;
+import com.projedata.inventory.dto.ReservationView;
+import com.projedata.inventory.model.Quantity;
+import com.projedata.inventory.model.RawMaterial;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.service.CatalogVersion;
+import com.projedata.inventory.service.StockLedger;
+import com.projedata.inventory.service.StockReservationException;
+import com.projedata.inventory.service.StockReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockReservationTest {
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MutableClock clock;
+    private StockReservationService service;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-01-01T06:00:00Z"));
+        service = new StockReservationService(rawMaterialRepository, jdbcTemplate, transactionManager, new CatalogVersion(), clock);
+
+        RawMaterial steel = new RawMaterial();
+        steel.setId(1L);
+        steel.setStockQuantity(new BigDecimal("100"));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(steel));
+        service.recover();
+    }
+
+    @Test
+    void testConcurrentReservationsNeverOverAllocate() throws Exception {
+        // Arrange: 16 threads hammering one material with 1000 units of stock
+        StockLedger ledger = new StockLedger();
+        long stock = Quantity.of(1000).units();
+        long unit = Quantity.of(1).units();
+        ledger.load(7L, stock);
+
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong granted = new AtomicLong();
+
+        // Act: each thread reserves single units, releasing every third one
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 5000; i++) {
+                    if (ledger.tryReserve(7L, unit)) {
+                        if (i % 3 == 0) {
+                            ledger.release(7L, unit);
+                        } else {
+                            granted.incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Assert: exactly the stock was handed out, never more
+        assertEquals(1000, granted.get());
+        assertEquals(0, ledger.available(7L));
+        assertEquals(stock, ledger.reserved(7L));
+    }
+
+    @Test
+    void testLedgerIsLoadedOnFirstUse() {
+        // Arrange: a new instance has not touched the database; a stock change before loading is left to the load
+        StockReservationService fresh = new StockReservationService(rawMaterialRepository, jdbcTemplate,
+                transactionManager, new CatalogVersion(), clock);
+        fresh.stockChanged(1L, new BigDecimal("5"));
+        verify(rawMaterialRepository, times(1)).findAll();
+
+        // Act
+        BigDecimal available = fresh.available(1L);
+
+        // Assert
+        verify(rawMaterialRepository, times(2)).findAll();
+        assertEquals(0, new BigDecimal("100").compareTo(available));
+    }
+
+    @Test
+    void testReservationIsRejectedWhenStockIsShort() {
+        service.reserve(request(60));
+
+        assertThrows(StockReservationException.class, () -> service.reserve(request(50)));
+        assertEquals(0, new BigDecimal("40").compareTo(service.available(1L)));
+    }
+
+    @Test
+    void testExpiredReservationReturnsStock() {
+        ReservationView reservation = service.reserve(new ReservationRequest(request(30).lines(), 60L));
+
+        clock.advanceSeconds(61);
+        service.expireStale();
+
+        assertEquals(0, new BigDecimal("100").compareTo(service.available(1L)));
+        assertThrows(RuntimeException.class, () -> service.confirm(reservation.id()));
+    }
+
+    @Test
+    void testConfirmedConsumptionIsFlushedInOneBatch() {
+        // Arrange
+        ReservationView first = service.reserve(request(10));
+        ReservationView second = service.reserve(request(15));
+        service.confirm(first.id());
+        service.confirm(second.id());
+
+        // Act
+        service.flush();
+        service.flush();
+
+        // Assert: one batched statement with the coalesced consumption, nothing left pending
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture());
+        assertEquals(1, batch.getValue().size());
+        assertEquals(0, new BigDecimal("25").compareTo((BigDecimal) batch.getValue().get(0)[0]));
+        assertEquals(1L, batch.getValue().get(0)[1]);
+    }
+
+    @Test
+    void testFailedFlushIsRetried() {
+        service.confirm(service.reserve(request(10)).id());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new RuntimeException("db down"))
+                .thenReturn(new int[]{1});
+
+        service.flush();
+        service.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void testManualStockChangeKeepsReservations() {
+        service.reserve(request(30));
+
+        service.stockChanged(1L, new BigDecimal("50"));
+
+        assertEquals(0, new BigDecimal("20").compareTo(service.available(1L)));
+    }
+
+    private static ReservationRequest request(long quantity) {
+        return new ReservationRequest(List.of(new ReservationRequest.Line(1L, Quantity.of(quantity))), null);
+    }
+}
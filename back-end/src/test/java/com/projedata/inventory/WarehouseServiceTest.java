@@ -0,0 +1,108 @@
+package com.projedata.inventory;
+
+import com.projedata.inventory.model.Quantity;
+import com.projedata.inventory.model.RawMaterial;
+import com.projedata.inventory.model.Warehouse;
+import com.projedata.inventory.model.WarehouseStock;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.repository.WarehouseRepository;
+import com.projedata.inventory.repository.WarehouseStockRepository;
+import com.projedata.inventory.service.CatalogVersion;
+import com.projedata.inventory.service.StockReservationService;
+import com.projedata.inventory.service.WarehouseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.projedata.inventory.PlanningFixtures.material;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WarehouseServiceTest {
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private WarehouseStockRepository stockRepository;
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Mock
+    private StockReservationService reservations;
+
+    private final List<Map<Long, Long>> stockUpdates = new ArrayList<>();
+    private WarehouseService service;
+    private RawMaterial material;
+
+    @BeforeEach
+    void setUp() {
+        CatalogVersion catalogVersion = new CatalogVersion();
+        catalogVersion.addStockListener(stockUpdates::add);
+        service = new WarehouseService(warehouseRepository, stockRepository, rawMaterialRepository, reservations,
+                catalogVersion);
+        material = material(7L, "100");
+        lenient().when(rawMaterialRepository.findAllForUpdate(List.of(7L))).thenReturn(List.of(material));
+    }
+
+    @Test
+    void testFirstStockInAWarehouseAddsToTheTotal() {
+        // Arrange
+        Warehouse warehouse = new Warehouse();
+        warehouse.setId(1L);
+        when(stockRepository.findByWarehouseIdAndRawMaterialId(1L, 7L)).thenReturn(Optional.empty());
+        when(warehouseRepository.findById(1L)).thenReturn(Optional.of(warehouse));
+
+        // Act
+        service.setStock(1L, 7L, Quantity.of(30));
+
+        // Assert: the raw material was locked before looking for the row, so concurrent writes find it
+        var order = inOrder(rawMaterialRepository, stockRepository);
+        order.verify(rawMaterialRepository).findAllForUpdate(List.of(7L));
+        order.verify(stockRepository).findByWarehouseIdAndRawMaterialId(1L, 7L);
+        order.verify(stockRepository).save(any(WarehouseStock.class));
+        assertEquals(0, new BigDecimal("130").compareTo(material.getStockQuantity()));
+        verify(reservations).stockChanged(eq(7L), argThat(total -> total.compareTo(new BigDecimal("130")) == 0));
+        assertEquals(List.of(Map.of(7L, 1_300_000L)), stockUpdates);
+    }
+
+    @Test
+    void testChangingWarehouseStockMovesTheTotalByTheDifference() {
+        // Arrange: 40 of the 100 are in warehouse 1
+        WarehouseStock stock = new WarehouseStock();
+        stock.setQuantity(Quantity.of(40));
+        when(stockRepository.findByWarehouseIdAndRawMaterialId(1L, 7L)).thenReturn(Optional.of(stock));
+
+        // Act
+        service.setStock(1L, 7L, Quantity.of(BigDecimal.valueOf(25.5)));
+
+        // Assert
+        assertEquals(Quantity.of(BigDecimal.valueOf(25.5)), stock.getQuantity());
+        assertEquals(0, new BigDecimal("85.5").compareTo(material.getStockQuantity()));
+        assertEquals(List.of(Map.of(7L, 855_000L)), stockUpdates);
+    }
+
+    @Test
+    void testDeletingAWarehouseTakesItsStockOffTheTotal() {
+        when(stockRepository.findQuantitiesByWarehouseId(1L)).thenReturn(List.<Object[]>of(new Object[]{7L, Quantity.of(60)}));
+        when(rawMaterialRepository.findAllForUpdate(any())).thenReturn(List.of(material));
+
+        service.delete(1L);
+
+        assertEquals(0, new BigDecimal("40").compareTo(material.getStockQuantity()));
+        assertEquals(List.of(Map.of(7L, 400_000L)), stockUpdates);
+        verify(stockRepository).deleteByWarehouseId(1L);
+        verify(warehouseRepository).deleteById(1L);
+    }
+}
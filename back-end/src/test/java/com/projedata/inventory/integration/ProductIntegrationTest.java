@@ -1,6 +1,8 @@
 package com.projedata.inventory.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.projedata.inventory.model.Product;
 import com.projedata.inventory.model.ProductMaterial;
 import com.projedata.inventory.model.RawMaterial;
@@ -18,7 +20,11 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
+import static com.projedata.inventory.QueryAssertions.assertMaxQueries;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -88,7 +94,7 @@ public class ProductIntegrationTest {
         // This is a conceptual example
         
         // 4. Verify if product was saved in database
-        mockMvc.perform(get("/products"))
+        assertMaxQueries(1, () -> mockMvc.perform(get("/products")))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].name").value("Test Product"));
     }
@@ -99,11 +105,95 @@ public class ProductIntegrationTest {
         createTestData();
         
         // Test production endpoint
-        mockMvc.perform(get("/production/suggestions"))
+        // Products with their BOM lines in one query, raw materials in another, however many products there are
+        assertMaxQueries(2, () -> mockMvc.perform(get("/production/suggestions")))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray());
     }
 
+    @Test
+    void testCborIsNegotiatedAndJsonStaysDefault() throws Exception {
+        createTestData();
+
+        byte[] cbor = mockMvc.perform(get("/raw-materials").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode materials = new ObjectMapper(new CBORFactory()).readTree(cbor);
+        assertEquals(2, materials.size());
+        assertEquals("RM001", materials.get(0).get("code").asText());
+
+        mockMvc.perform(get("/raw-materials"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testBulkDeletesAreSetBased() throws Exception {
+        // Arrange: 30 discontinued products using both materials, and one product kept that uses the first
+        RawMaterial used = rawMaterialRepository.save(material("RM001"));
+        RawMaterial discontinued = rawMaterialRepository.save(material("RM002"));
+        List<Product> products = new ArrayList<>();
+        for (int i = 1; i <= 30; i++) {
+            products.add(product("OLD_" + i, used, discontinued));
+        }
+        products.add(product("OLDX", used));
+        productRepository.saveAll(products);
+
+        // Where-used in one query; materials still in a BOM are not deleted
+        assertMaxQueries(1, () -> mockMvc.perform(get("/raw-materials/where-used")
+                        .param("ids", used.getId() + "," + discontinued.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].code").value("RM001"))
+                .andExpect(jsonPath("$[0].productCount").value(31))
+                .andExpect(jsonPath("$[1].lineCount").value(30));
+        mockMvc.perform(delete("/raw-materials").param("ids", discontinued.getId().toString()))
+                .andExpect(status().isConflict());
+
+        // Act: the prefix is literal, "_" does not match any character
+        assertMaxQueries(3, () -> mockMvc.perform(delete("/products").param("codePrefix", "OLD_")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(30))
+                .andExpect(jsonPath("$.bomLinesDeleted").value(60));
+
+        // Assert
+        assertEquals(1, productRepository.count());
+        mockMvc.perform(delete("/raw-materials").param("ids", discontinued.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1));
+        mockMvc.perform(delete("/raw-materials/" + used.getId()))
+                .andExpect(status().isConflict());
+        mockMvc.perform(delete("/raw-materials").param("ids", used.getId().toString()).param("deleteBomLines", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bomLinesDeleted").value(1));
+        assertEquals(0, rawMaterialRepository.count());
+    }
+
+    private static RawMaterial material(String code) {
+        RawMaterial material = new RawMaterial();
+        material.setCode(code);
+        material.setName("Material " + code);
+        material.setStockQuantity(new BigDecimal("100"));
+        return material;
+    }
+
+    private static Product product(String code, RawMaterial... materials) {
+        Product product = new Product();
+        product.setCode(code);
+        product.setName("Product " + code);
+        product.setPrice(new BigDecimal("10.00"));
+        List<ProductMaterial> lines = new ArrayList<>();
+        for (RawMaterial material : materials) {
+            ProductMaterial line = new ProductMaterial();
+            line.setProduct(product);
+            line.setRawMaterial(material);
+            line.setQuantityRequired(2);
+            lines.add(line);
+        }
+        product.setMaterials(lines);
+        return product;
+    }
+
     private void createTestData() throws Exception {
         // Create raw materials
         RawMaterial material1 = new RawMaterial();
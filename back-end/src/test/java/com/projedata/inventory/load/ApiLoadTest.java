@@ -0,0 +1,303 @@
+package com.projedata.inventory.load;
+
+import com.projedata.inventory.model.Product;
+import com.projedata.inventory.model.ProductMaterial;
+import com.projedata.inventory.model.RawMaterial;
+import com.projedata.inventory.repository.ProductRepository;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives mixed traffic against the REST API on a seeded H2 catalog and fails when latency or
+ * throughput misses the configured SLOs. Tagged "load", so it only runs with {@code -Pload-test}.
+ * Every setting below can be overridden with a system property, e.g. {@code -Dload.threads=32}.
+ * With {@code -Dload.datasource.url=jdbc:postgresql://...} it runs against that PostgreSQL database
+ * instead, whose tables are created and dropped by the test, and {@code -Dspring.profiles.active=prod}
+ * adds the production profile, so the same run can be made with and without it.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class ApiLoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Value("${load.materials:300}")
+    private int materialCount;
+
+    @Value("${load.products:1500}")
+    private int productCount;
+
+    @Value("${load.lines-per-product:4}")
+    private int linesPerProduct;
+
+    @Value("${load.threads:8}")
+    private int threads;
+
+    @Value("${load.warmup-seconds:5}")
+    private int warmupSeconds;
+
+    @Value("${load.duration-seconds:20}")
+    private int durationSeconds;
+
+    @Value("${load.slo.p95-millis:1500}")
+    private long p95Slo;
+
+    @Value("${load.slo.p99-millis:3000}")
+    private long p99Slo;
+
+    @Value("${load.slo.min-throughput:5}")
+    private double minThroughput;
+
+    private List<RawMaterial> materials;
+    private List<Product> products;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("inventory.snapshot.path", () -> "target/load-test/catalog.snapshot");
+        String url = System.getProperty("load.datasource.url");
+        if (url == null) {
+            return;
+        }
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", () -> System.getProperty("load.datasource.username", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getProperty("load.datasource.password", ""));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    /**
+     * Request mix: each endpoint with its share of the traffic, in percent.
+     */
+    private enum Endpoint {
+        PRODUCTS(25), PRODUCT(15), RAW_MATERIALS(20), PRODUCT_MATERIALS(10),
+        SUGGESTIONS(10), TOP_SUGGESTIONS(15), STOCK_UPDATE(5);
+
+        final int weight;
+
+        Endpoint(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+
+        Random random = new Random(1);
+        List<RawMaterial> newMaterials = new ArrayList<>(materialCount);
+        for (int m = 0; m < materialCount; m++) {
+            RawMaterial material = new RawMaterial();
+            material.setCode("RM" + m);
+            material.setName("Raw material " + m);
+            material.setStockQuantity(BigDecimal.valueOf(1_000 + random.nextInt(50_000)));
+            newMaterials.add(material);
+        }
+        materials = rawMaterialRepository.saveAll(newMaterials);
+
+        List<Product> newProducts = new ArrayList<>(productCount);
+        for (int p = 0; p < productCount; p++) {
+            Product product = new Product();
+            product.setCode("PRD" + p);
+            product.setName("Product " + p);
+            product.setPrice(BigDecimal.valueOf(500 + random.nextInt(100_000), 2));
+            List<ProductMaterial> lines = new ArrayList<>(linesPerProduct);
+            for (int l = 0; l < linesPerProduct; l++) {
+                ProductMaterial line = new ProductMaterial();
+                line.setProduct(product);
+                line.setRawMaterial(materials.get((p * 7 + l * 13) % materialCount));
+                line.setQuantityRequired(1 + random.nextInt(20));
+                lines.add(line);
+            }
+            product.setMaterials(lines);
+            newProducts.add(product);
+        }
+        products = productRepository.saveAll(newProducts);
+    }
+
+    @Test
+    void testMixedTrafficMeetsSlo() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        run(client, warmupSeconds, new Recorder[Endpoint.values().length]);
+
+        Recorder[] recorders = new Recorder[Endpoint.values().length];
+        for (int e = 0; e < recorders.length; e++) {
+            recorders[e] = new Recorder();
+        }
+        long started = System.nanoTime();
+        long errors = run(client, durationSeconds, recorders);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Recorder all = new Recorder();
+        System.out.printf("%n%-18s %8s %8s %8s %8s %8s%n", "endpoint", "requests", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Endpoint endpoint : Endpoint.values()) {
+            Recorder recorder = recorders[endpoint.ordinal()];
+            recorder.print(endpoint.name());
+            all.addAll(recorder);
+        }
+        all.print("ALL");
+        double throughput = all.count / seconds;
+        System.out.printf("throughput %.1f req/s over %.1f s with %d threads, %d errors%n",
+                throughput, seconds, threads, errors);
+        System.out.printf("database %s, profiles %s%n%n", environment.getProperty("spring.datasource.url"),
+                Arrays.toString(environment.getActiveProfiles()));
+
+        assertEquals(0, errors, "requests failed");
+        assertTrue(all.percentile(95) <= p95Slo * 1_000_000, "p95 above " + p95Slo + " ms");
+        assertTrue(all.percentile(99) <= p99Slo * 1_000_000, "p99 above " + p99Slo + " ms");
+        assertTrue(throughput >= minThroughput, "throughput below " + minThroughput + " req/s");
+    }
+
+    /**
+     * Runs the mix on {@code threads} workers for {@code seconds}. Latencies go to the recorders
+     * when given (one per endpoint, shared by workers); returns the number of failed requests.
+     */
+    private long run(HttpClient client, int seconds, Recorder[] recorders) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        AtomicLong errors = new AtomicLong();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Random random = new Random(t);
+                futures.add(workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        Endpoint endpoint = pick(random);
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<byte[]> response = client.send(request(endpoint, random),
+                                    HttpResponse.BodyHandlers.ofByteArray());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        Recorder recorder = recorders[endpoint.ordinal()];
+                        if (recorder != null) {
+                            recorder.add(System.nanoTime() - start);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return errors.get();
+    }
+
+    private static Endpoint pick(Random random) {
+        int roll = random.nextInt(100);
+        for (Endpoint endpoint : Endpoint.values()) {
+            roll -= endpoint.weight;
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        return Endpoint.PRODUCTS;
+    }
+
+    private HttpRequest request(Endpoint endpoint, Random random) {
+        String base = "http://localhost:" + port;
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(Duration.ofSeconds(30));
+        return switch (endpoint) {
+            case PRODUCTS -> builder.uri(URI.create(base + "/products")).GET().build();
+            case PRODUCT -> builder.uri(URI.create(base + "/products/"
+                    + products.get(random.nextInt(products.size())).getId())).GET().build();
+            case RAW_MATERIALS -> builder.uri(URI.create(base + "/raw-materials")).GET().build();
+            case PRODUCT_MATERIALS -> builder.uri(URI.create(base + "/product-materials")).GET().build();
+            case SUGGESTIONS -> builder.uri(URI.create(base + "/production/suggestions")).GET().build();
+            case TOP_SUGGESTIONS -> builder.uri(URI.create(base + "/production/suggestions?limit=20")).GET().build();
+            case STOCK_UPDATE -> {
+                RawMaterial material = materials.get(random.nextInt(materials.size()));
+                String body = String.format("{\"code\":\"%s\",\"name\":\"%s\",\"stockQuantity\":%d}",
+                        material.getCode(), material.getName(), 1_000 + random.nextInt(50_000));
+                yield builder.uri(URI.create(base + "/raw-materials/" + material.getId()))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }
+        };
+    }
+
+    /**
+     * Latencies in nanoseconds, shared by the workers.
+     */
+    private static final class Recorder {
+        private long[] samples = new long[1024];
+        private int count;
+
+        synchronized void add(long nanos) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+        }
+
+        void addAll(Recorder other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.samples[i]);
+            }
+        }
+
+        /** Nearest-rank percentile; sorts the samples. */
+        long percentile(int p) {
+            if (count == 0) {
+                return 0;
+            }
+            Arrays.sort(samples, 0, count);
+            int rank = (int) Math.ceil(p / 100.0 * count);
+            return samples[Math.max(rank, 1) - 1];
+        }
+
+        void print(String name) {
+            System.out.printf("%-18s %8d %8.1f %8.1f %8.1f %8.1f%n", name, count,
+                    percentile(50) / 1e6, percentile(95) / 1e6, percentile(99) / 1e6, percentile(100) / 1e6);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.projedata.inventory.load;
+
+import com.projedata.inventory.service.CatalogStore;
+import com.projedata.inventory.service.CatalogVersion;
+import com.projedata.inventory.service.PlanningModel;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import java.lang.ref.Reference;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Heap retained by the catalog store for a large BOM, read from an H2 database on disk so the
+ * database itself stays out of the measurement. Tagged "load", so it only runs with {@code -Pload-test}.
+ * Sizes can be overridden with system properties, e.g. {@code -Dload.catalog.lines=1000000}.
+ */
+@Tag("load")
+public class CatalogStoreMemoryTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogStoreMemoryTest.class);
+
+    private final int lineCount = Integer.getInteger("load.catalog.lines", 5_000_000);
+    private final int productCount = Integer.getInteger("load.catalog.products", 500_000);
+    private final int materialCount = Integer.getInteger("load.catalog.materials", 20_000);
+    private final long maxRetainedMb = Long.getLong("load.catalog.max-retained-mb", 500);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRetainedHeapForLargeBom() {
+        // Arrange: materials, products and lines with a few thousand distinct names and prices
+        SimpleDriverDataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:file:" + directory.resolve("catalog") + ";CACHE_SIZE=8192", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE raw_material (id BIGINT PRIMARY KEY, code VARCHAR(255), name VARCHAR(255), "
+                + "stock_quantity DECIMAL(19, 4))");
+        jdbcTemplate.execute("CREATE TABLE product (id BIGINT PRIMARY KEY, code VARCHAR(255), name VARCHAR(255), "
+                + "price DECIMAL(19, 2), daily_capacity INT, production_days INT)");
+        jdbcTemplate.execute("CREATE TABLE product_material (id BIGINT PRIMARY KEY, product_id BIGINT, "
+                + "raw_material_id BIGINT, quantity_required INT)");
+        jdbcTemplate.update("INSERT INTO raw_material SELECT X, 'RM' || X, 'Material ' || MOD(X, 500), 1000 + MOD(X, 97) "
+                + "FROM SYSTEM_RANGE(1, ?)", materialCount);
+        jdbcTemplate.update("INSERT INTO product SELECT X, 'PRD' || X, 'Product ' || MOD(X, 2000), 10 + MOD(X, 3000), "
+                + "5, 1 FROM SYSTEM_RANGE(1, ?)", productCount);
+        jdbcTemplate.update("INSERT INTO product_material SELECT X, 1 + MOD(X, ?), 1 + MOD(X * 7, ?), 1 + MOD(X, 5) "
+                + "FROM SYSTEM_RANGE(1, ?)", productCount, materialCount, lineCount);
+        CatalogStore store = new CatalogStore(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                new CatalogVersion(), 10_000);
+        long before = usedHeap();
+
+        // Act
+        long started = System.nanoTime();
+        PlanningModel model = store.model();
+        long loadMillis = (System.nanoTime() - started) / 1_000_000;
+        long retainedMb = (usedHeap() - before) / (1024 * 1024);
+        Reference.reachabilityFence(store);
+
+        // Assert
+        log.info("Catalog store: {} products, {} BOM lines, {} raw materials retain {} MB, loaded in {} ms",
+                model.productCount(), lineCount, model.materialCount(), retainedMb, loadMillis);
+        assertEquals(productCount, model.productCount());
+        assertTrue(retainedMb < maxRetainedMb, "catalog store retains " + retainedMb + " MB");
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
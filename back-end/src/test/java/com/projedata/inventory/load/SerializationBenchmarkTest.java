@@ -0,0 +1,102 @@
+package com.projedata.inventory.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.projedata.inventory.model.Product;
+import com.projedata.inventory.model.ProductMaterial;
+import com.projedata.inventory.model.RawMaterial;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Payload size and encode time of the product list as plain JSON, JSON with Blackbird and CBOR with Blackbird.
+ * Tagged "load", so it only runs with {@code -Pload-test}; the timings are logged, the sizes asserted.
+ */
+@Tag("load")
+public class SerializationBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SerializationBenchmarkTest.class);
+
+    private static final int ROUNDS = 15;
+
+    @Test
+    void testCompareFormats() throws Exception {
+        // Arrange: 2000 products with 4 BOM lines over 300 raw materials
+        List<RawMaterial> materials = new ArrayList<>();
+        for (long m = 1; m <= 300; m++) {
+            RawMaterial material = new RawMaterial();
+            material.setId(m);
+            material.setCode("RM" + m);
+            material.setName("Raw material " + m);
+            material.setStockQuantity(BigDecimal.valueOf(1000 + m));
+            materials.add(material);
+        }
+        List<Product> products = new ArrayList<>();
+        for (long p = 1; p <= 2000; p++) {
+            Product product = new Product();
+            product.setId(p);
+            product.setCode("PRD" + p);
+            product.setName("Product " + p);
+            product.setPrice(BigDecimal.valueOf(1000 + p, 2));
+            List<ProductMaterial> lines = new ArrayList<>();
+            for (int l = 0; l < 4; l++) {
+                ProductMaterial line = new ProductMaterial();
+                line.setId(p * 4 + l);
+                line.setProduct(product);
+                line.setRawMaterial(materials.get((int) ((p * 7 + l) % 300)));
+                line.setQuantityRequired(1 + l);
+                lines.add(line);
+            }
+            product.setMaterials(lines);
+            products.add(product);
+        }
+
+        ObjectMapper json = new ObjectMapper();
+        ObjectMapper blackbird = new ObjectMapper().registerModule(new BlackbirdModule());
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory()).registerModule(new BlackbirdModule());
+
+        // Act
+        long[] jsonResult = measure(json, products);
+        long[] blackbirdResult = measure(blackbird, products);
+        long[] cborResult = measure(cbor, products);
+
+        log.info("JSON: {} bytes, median {} us", jsonResult[0], jsonResult[1] / 1000);
+        log.info("JSON+Blackbird: {} bytes, median {} us", blackbirdResult[0], blackbirdResult[1] / 1000);
+        log.info("CBOR+Blackbird: {} bytes, median {} us", cborResult[0], cborResult[1] / 1000);
+
+        // Assert: same document, at least a tenth smaller in CBOR; times are logged only, as they depend on the machine
+        assertEquals(jsonResult[0], blackbirdResult[0]);
+        assertTrue(cborResult[0] * 10 <= jsonResult[0] * 9, "CBOR " + cborResult[0] + " bytes, JSON " + jsonResult[0]);
+        JsonNode decoded = cbor.readTree(cbor.writeValueAsBytes(products));
+        assertEquals(products.size(), decoded.size());
+        assertEquals("PRD1", decoded.get(0).get("code").asText());
+        assertEquals(4, decoded.get(0).get("materials").size());
+    }
+
+    /** Returns the payload size and the median encode time in nanoseconds. */
+    private static long[] measure(ObjectMapper mapper, List<Product> products) throws Exception {
+        int size = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            size = mapper.writeValueAsBytes(products).length;
+        }
+        long[] times = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            mapper.writeValueAsBytes(products);
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return new long[]{size, times[ROUNDS / 2]};
+    }
+}